@@ -20,8 +20,11 @@ import com.github.wautsns.okauth.core.assist.http.kernel.model.OAuth2HttpRequest
 import com.github.wautsns.okauth.core.assist.http.kernel.model.OAuth2HttpResponse;
 import com.github.wautsns.okauth.core.assist.http.kernel.model.basic.entity.OAuth2HttpEntity;
 import com.github.wautsns.okauth.core.assist.http.kernel.properties.OAuth2HttpClientProperties;
+import com.github.wautsns.okauth.core.assist.http.metrics.OAuth2HttpMetricsRecorder;
+import com.github.wautsns.okauth.core.client.kernel.util.FutureUtils;
 import com.github.wautsns.okauth.core.exception.OAuth2IOException;
 import lombok.Getter;
+import org.apache.http.HttpClientConnection;
 import org.apache.http.HttpHost;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.config.RequestConfig;
@@ -35,31 +38,71 @@ import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpPut;
 import org.apache.http.client.methods.HttpRequestBase;
 import org.apache.http.client.methods.HttpTrace;
+import org.apache.http.client.utils.URIUtils;
 import org.apache.http.conn.ConnectionKeepAliveStrategy;
-import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.UnsupportedSchemeException;
+import org.apache.http.conn.routing.HttpRoute;
 import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
 import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.DefaultSchemePortResolver;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
 /**
  * HttpClient4 oauth2 http client.
  *
+ * <p>Call {@link #close()} to release the async executor and connections if the client is no longer used.
+ * <p>Async requests of a route occupy at most as many threads of the async executor as the max concurrent requests of
+ * the route. If rejection of saturated routes is disabled, requests beyond that wait in a queue of the route(without
+ * a thread) until a request of the route completes, so that a slow route does not stall requests of other routes.
+ *
  * @author wautsns
  * @since May 21, 2020
  */
 @Getter
-public class HttpClient4OAuth2HttpClient implements OAuth2HttpClient {
+public class HttpClient4OAuth2HttpClient implements OAuth2HttpClient, Closeable {
 
     /** Original http client. */
     protected final HttpClient origin;
     /** Http client connection manager. */
     protected final PoolingHttpClientConnectionManager connectionManager;
+    /** Executor for asynchronous requests(HttpClient4 is blocking, each in-flight request occupies a thread). */
+    protected final ExecutorService asyncExecutor;
+    /** Proxy host(nullable). */
+    private final HttpHost proxyHost;
+    /** Whether to reject requests immediately if the connection pool of the route is saturated. */
+    private final boolean rejectWhenRouteSaturated;
+    /** Counts of async requests waiting for a thread of each route(only counted if rejection is enabled). */
+    private final ConcurrentMap<HttpRoute, AtomicInteger> queuedAsyncRequestCounts = new ConcurrentHashMap<>();
+    /** Gates of async requests of each route(only used if rejection is disabled). */
+    private final ConcurrentMap<HttpRoute, AsyncRouteGate> asyncRouteGates = new ConcurrentHashMap<>();
+    /** Max count of async requests waiting in the queue of a route. */
+    private final int maxQueuedAsyncRequestsPerRoute;
+    /** Timeout millis of waiting in the queue of a route({@code null} if without bound). */
+    private final Long connectionLeaseTimeoutMillis;
+    /** Metrics recorder for connection leases(nullable). */
+    private volatile OAuth2HttpMetricsRecorder metricsRecorder;
 
     /** Construct a default {@code HttpClient4OAuth2HttpClient}. */
     public HttpClient4OAuth2HttpClient() {
@@ -74,16 +117,33 @@ public class HttpClient4OAuth2HttpClient implements OAuth2HttpClient {
     public HttpClient4OAuth2HttpClient(OAuth2HttpClientProperties props) {
         HttpClientBuilder builder = HttpClientBuilder.create();
         // ==================== request config ==============================================
-        RequestConfig requestConfig = RequestConfig.custom()
+        RequestConfig.Builder requestConfigBuilder = RequestConfig.custom()
                 .setConnectTimeout((int) props.getConnectTimeout().toMillis())
-                .setSocketTimeout((int) props.getReadTimeout().toMillis())
-                .build();
-        builder.setDefaultRequestConfig(requestConfig);
+                .setSocketTimeout((int) props.getReadTimeout().toMillis());
+        Duration connectionLeaseTimeout = props.getConnectionLeaseTimeout();
+        this.connectionLeaseTimeoutMillis = (connectionLeaseTimeout == null) ? null : connectionLeaseTimeout.toMillis();
+        if (connectionLeaseTimeout != null) {
+            requestConfigBuilder.setConnectionRequestTimeout((int) connectionLeaseTimeout.toMillis());
+        }
+        builder.setDefaultRequestConfig(requestConfigBuilder.build());
+        // ==================== proxy =======================================================
+        String proxy = props.getProxy();
+        this.proxyHost = (proxy == null) ? null : HttpHost.create(proxy);
+        if (proxyHost != null) { builder.setProxy(proxyHost); }
         // ==================== connect manager =============================================
-        this.connectionManager = new PoolingHttpClientConnectionManager();
+        this.connectionManager = new LeaseRecordingConnectionManager();
         this.connectionManager.setMaxTotal(props.getMaxConcurrentRequests());
-        this.connectionManager.setDefaultMaxPerRoute(props.getMaxConcurrentRequests());
+        Integer maxConcurrentRequestsPerRoute = props.getMaxConcurrentRequestsPerRoute();
+        this.connectionManager.setDefaultMaxPerRoute((maxConcurrentRequestsPerRoute == null)
+                ? props.getMaxConcurrentRequests()
+                : maxConcurrentRequestsPerRoute);
+        Map<String, Integer> maxConcurrentRequestsOfRoutes = props.getMaxConcurrentRequestsOfRoutes();
+        if (maxConcurrentRequestsOfRoutes != null) {
+            maxConcurrentRequestsOfRoutes.forEach((route, max) ->
+                    this.connectionManager.setMaxPerRoute(initHttpRoute(route, proxyHost), max));
+        }
         builder.setConnectionManager(this.connectionManager);
+        this.rejectWhenRouteSaturated = Boolean.TRUE.equals(props.getRejectWhenRouteSaturated());
         // ==================== max idle time ===============================================
         Duration maxIdleTime = props.getMaxIdleTime();
         if (maxIdleTime != null) {
@@ -102,14 +162,14 @@ public class HttpClient4OAuth2HttpClient implements OAuth2HttpClient {
         if (retryTimes != null) {
             builder.setRetryHandler(new OAuth2HttpRequestRetryHandler(retryTimes));
         }
-        // ==================== proxy =======================================================
-        String proxy = props.getProxy();
-        if (proxy != null) { builder.setProxy(HttpHost.create(proxy)); }
         // ==================== default headers =============================================
         // Some open platforms will response 403, if not disguised as a browser.
         builder.setUserAgent("Chrome/83.0.4103.61");
         // ==================== build http client ===========================================
         this.origin = buildOriginHttpClient(builder, props);
+        // ==================== async executor ==============================================
+        this.asyncExecutor = initAsyncExecutor(props);
+        this.maxQueuedAsyncRequestsPerRoute = initMaxQueuedAsyncRequests(props);
     }
 
     /**
@@ -123,15 +183,92 @@ public class HttpClient4OAuth2HttpClient implements OAuth2HttpClient {
         return builder.build();
     }
 
+    /**
+     * Initialize executor for asynchronous requests.
+     *
+     * <p>Threads are daemon threads, and will be released after being idle for {@code maxIdleTime}(default 60s).
+     * <p>Requests waiting for a thread are queued up to {@code maxQueuedAsyncRequests}, requests beyond that are
+     * rejected.
+     *
+     * @param props oauth2 http client properties
+     * @return executor for asynchronous requests
+     */
+    protected ExecutorService initAsyncExecutor(OAuth2HttpClientProperties props) {
+        int maxThreads = props.getMaxConcurrentRequests();
+        int queueCapacity = initMaxQueuedAsyncRequests(props);
+        Duration maxIdleTime = props.getMaxIdleTime();
+        long keepAliveMillis = (maxIdleTime == null) ? 60_000L : maxIdleTime.toMillis();
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                maxThreads, maxThreads, keepAliveMillis, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "okauth-httpclient4-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
     @Override
     public OAuth2HttpResponse execute(OAuth2HttpRequest request) throws OAuth2IOException {
         try {
-            return executeOriginalHttpRequest(initOriginalHttpRequest(request));
+            HttpRequestBase originalHttpRequest = initOriginalHttpRequest(request);
+            admit(originalHttpRequest);
+            return executeOriginalHttpRequest(originalHttpRequest);
         } catch (IOException e) {
             throw new OAuth2IOException(e);
         }
     }
 
+    @Override
+    public CompletableFuture<OAuth2HttpResponse> executeAsync(OAuth2HttpRequest request) {
+        HttpRequestBase originalHttpRequest;
+        try {
+            originalHttpRequest = initOriginalHttpRequest(request);
+        } catch (RuntimeException e) {
+            return FutureUtils.failed(e);
+        }
+        CompletableFuture<OAuth2HttpResponse> future = new CompletableFuture<>();
+        if (rejectWhenRouteSaturated) {
+            AtomicInteger queuedCount;
+            try {
+                // Reject before occupying a thread of the async executor.
+                queuedCount = admitAsync(originalHttpRequest);
+            } catch (ConnectionPoolTimeoutException e) {
+                future.completeExceptionally(new OAuth2IOException(e));
+                return future;
+            }
+            dispatch(new AsyncRequest(originalHttpRequest, future, queuedCount, null));
+        } else {
+            HttpRoute route = initHttpRoute(originalHttpRequest);
+            if (route == null) {
+                dispatch(new AsyncRequest(originalHttpRequest, future, null, null));
+            } else {
+                AsyncRouteGate gate = asyncRouteGates.computeIfAbsent(route, AsyncRouteGate::new);
+                gate.enter(new AsyncRequest(originalHttpRequest, future, null, gate));
+            }
+        }
+        return future;
+    }
+
+    @Override
+    public void bindMetricsRecorder(OAuth2HttpMetricsRecorder recorder) {
+        this.metricsRecorder = recorder;
+    }
+
+    /**
+     * Close the http client.
+     *
+     * <p>Async requests are no longer accepted, queued ones fail once the connection pool is shut down.
+     */
+    @Override
+    public void close() {
+        asyncExecutor.shutdown();
+        connectionManager.shutdown();
+    }
+
     // #################### internal ####################################################
 
     /** Supported {@code HttpRequestBase} initializers. */
@@ -149,6 +286,137 @@ public class HttpClient4OAuth2HttpClient implements OAuth2HttpClient {
         HTTP_REQUEST_BASE_INITIALIZERS.put(OAuth2HttpRequest.Method.TRACE, HttpTrace::new);
     }
 
+    /**
+     * Admit the request, reject it immediately if the connection pool of its route is saturated(and rejection is
+     * enabled).
+     *
+     * <p>Async requests waiting for a thread are counted as well, since they will lease connections of the route.
+     *
+     * @param request original http request
+     * @throws ConnectionPoolTimeoutException if the connection pool of the route is saturated
+     */
+    private void admit(HttpRequestBase request) throws ConnectionPoolTimeoutException {
+        if (!rejectWhenRouteSaturated) { return; }
+        HttpRoute route = initHttpRoute(request);
+        if (route == null) { return; }
+        AtomicInteger queuedCount = queuedAsyncRequestCounts.get(route);
+        if (isSaturated(route, (queuedCount == null) ? 0 : queuedCount.get())) {
+            throw new ConnectionPoolTimeoutException("Connection pool of the route is saturated: " + route);
+        }
+    }
+
+    /**
+     * Admit the async request, reject it immediately if the connection pool of its route is saturated(and rejection
+     * is enabled).
+     *
+     * <p>If admitted, the request is counted as queued until a thread executes it.
+     *
+     * @param request original http request
+     * @return count of queued async requests of the route(already incremented), or {@code null} if not counted
+     * @throws ConnectionPoolTimeoutException if the connection pool of the route is saturated
+     */
+    private AtomicInteger admitAsync(HttpRequestBase request) throws ConnectionPoolTimeoutException {
+        HttpRoute route = initHttpRoute(request);
+        if (route == null) { return null; }
+        AtomicInteger queuedCount = queuedAsyncRequestCounts.computeIfAbsent(route, r -> new AtomicInteger());
+        // Count the request first, so that concurrent admissions see each other.
+        if (isSaturated(route, queuedCount.incrementAndGet() - 1)) {
+            queuedCount.decrementAndGet();
+            throw new ConnectionPoolTimeoutException("Connection pool of the route is saturated: " + route);
+        }
+        return queuedCount;
+    }
+
+    /**
+     * Dispatch the async request to the async executor.
+     *
+     * @param asyncRequest async request
+     * @return {@code true} if dispatched, otherwise {@code false}(the request has been failed)
+     */
+    private boolean dispatch(AsyncRequest asyncRequest) {
+        try {
+            asyncExecutor.execute(asyncRequest);
+            return true;
+        } catch (RejectedExecutionException e) {
+            asyncRequest.fail(new IOException(asyncExecutor.isShutdown()
+                    ? "Http client is closed."
+                    : "Queue of async requests is full.", e));
+            return false;
+        }
+    }
+
+    /**
+     * Initialize http route of the request.
+     *
+     * @param request original http request
+     * @return http route, or {@code null} if the uri is illegal
+     */
+    private HttpRoute initHttpRoute(HttpRequestBase request) {
+        try {
+            return initHttpRoute(URIUtils.extractHost(request.getURI()), proxyHost);
+        } catch (IllegalArgumentException e) {
+            // Let the http client report the illegal uri.
+            return null;
+        }
+    }
+
+    /**
+     * Whether the connection pool of the route is saturated.
+     *
+     * @param route http route
+     * @param queuedCount count of other async requests of the route waiting for a thread
+     * @return {@code true} if the connection pool of the route is saturated, otherwise {@code false}
+     */
+    private boolean isSaturated(HttpRoute route, int queuedCount) {
+        PoolStats stats = connectionManager.getStats(route);
+        return stats.getLeased() + stats.getPending() + queuedCount >= stats.getMax();
+    }
+
+    /**
+     * Initialize max count of async requests waiting for a thread.
+     *
+     * @param props oauth2 http client properties
+     * @return max count of async requests waiting for a thread
+     */
+    private static int initMaxQueuedAsyncRequests(OAuth2HttpClientProperties props) {
+        Integer maxQueuedAsyncRequests = props.getMaxQueuedAsyncRequests();
+        return (maxQueuedAsyncRequests == null) ? (props.getMaxConcurrentRequests() * 16) : maxQueuedAsyncRequests;
+    }
+
+    /**
+     * Initialize http route(the same as the route planner determines, so that limits of the route take effect).
+     *
+     * @param route route({@code [SCHEME://]HOST[:PORT]}, scheme is {@code https} if absent)
+     * @param proxyHost proxy host(nullable)
+     * @return http route
+     */
+    private static HttpRoute initHttpRoute(String route, HttpHost proxyHost) {
+        return initHttpRoute(HttpHost.create(route.contains("://") ? route : ("https://" + route)), proxyHost);
+    }
+
+    /**
+     * Initialize http route(the same as the route planner determines, so that limits of the route take effect).
+     *
+     * @param target target host
+     * @param proxyHost proxy host(nullable)
+     * @return http route
+     */
+    private static HttpRoute initHttpRoute(HttpHost target, HttpHost proxyHost) {
+        if (target == null) { throw new IllegalArgumentException("Target host is absent."); }
+        if (target.getPort() < 0) {
+            try {
+                int port = DefaultSchemePortResolver.INSTANCE.resolve(target);
+                target = new HttpHost(target.getHostName(), port, target.getSchemeName());
+            } catch (UnsupportedSchemeException e) {
+                throw new IllegalArgumentException("Illegal route: " + target, e);
+            }
+        }
+        boolean secure = "https".equalsIgnoreCase(target.getSchemeName());
+        return (proxyHost == null)
+                ? new HttpRoute(target, null, secure)
+                : new HttpRoute(target, null, proxyHost, secure);
+    }
+
     /**
      * Initialize original http request.
      *
@@ -162,7 +430,7 @@ public class HttpClient4OAuth2HttpClient implements OAuth2HttpClient {
         if (originalHttpRequest instanceof HttpEntityEnclosingRequestBase) {
             OAuth2HttpEntity entity = request.getEntity();
             if (entity != null) {
-                ByteArrayEntity originalEntity = new ByteArrayEntity(entity.toBytes());
+                HttpClient4OAuth2HttpEntity originalEntity = new HttpClient4OAuth2HttpEntity(entity);
                 ((HttpEntityEnclosingRequestBase) originalHttpRequest).setEntity(originalEntity);
             }
         }
@@ -180,4 +448,168 @@ public class HttpClient4OAuth2HttpClient implements OAuth2HttpClient {
         return new HttpClient4OAuth2HttpResponse(origin.execute(request));
     }
 
+    /** Async request executed in the async executor. */
+    private class AsyncRequest implements Runnable {
+
+        /** Original http request. */
+        private final HttpRequestBase originalHttpRequest;
+        /** Future of response. */
+        private final CompletableFuture<OAuth2HttpResponse> future;
+        /** Count of queued async requests of the route(nullable). */
+        private final AtomicInteger queuedCount;
+        /** Gate of the route the request entered(nullable). */
+        private final AsyncRouteGate gate;
+        /** Deadline of waiting in the queue of the route. */
+        private final long deadline;
+
+        /**
+         * Construct an async request.
+         *
+         * @param originalHttpRequest original http request
+         * @param future future of response
+         * @param queuedCount count of queued async requests of the route(nullable)
+         * @param gate gate of the route(nullable)
+         */
+        AsyncRequest(
+                HttpRequestBase originalHttpRequest, CompletableFuture<OAuth2HttpResponse> future,
+                AtomicInteger queuedCount, AsyncRouteGate gate) {
+            this.originalHttpRequest = originalHttpRequest;
+            this.future = future;
+            this.queuedCount = queuedCount;
+            this.gate = gate;
+            this.deadline = (connectionLeaseTimeoutMillis == null)
+                    ? Long.MAX_VALUE
+                    : System.currentTimeMillis() + connectionLeaseTimeoutMillis;
+        }
+
+        @Override
+        public void run() {
+            // From now on, the request is counted by the connection pool(pending or leased).
+            if (queuedCount != null) { queuedCount.decrementAndGet(); }
+            try {
+                future.complete(executeOriginalHttpRequest(originalHttpRequest));
+            } catch (IOException e) {
+                future.completeExceptionally(new OAuth2IOException(e));
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            } finally {
+                if (gate != null) { gate.leave(); }
+            }
+        }
+
+        /**
+         * Fail the request before it is executed.
+         *
+         * @param e io exception
+         */
+        void fail(IOException e) {
+            if (queuedCount != null) { queuedCount.decrementAndGet(); }
+            future.completeExceptionally(new OAuth2IOException(e));
+        }
+
+    }
+
+    /**
+     * Gate of async requests of a route.
+     *
+     * <p>At most max concurrent requests of the route are dispatched to the async executor, the others wait in the
+     * queue of the route, and are dispatched in order when a dispatched one completes. Requests waiting longer than
+     * the connection lease timeout fail when they would be dispatched.
+     */
+    private class AsyncRouteGate {
+
+        /** Http route. */
+        private final HttpRoute route;
+        /** Async requests waiting to be dispatched. */
+        private final Deque<AsyncRequest> waiting = new ArrayDeque<>();
+        /** Count of dispatched async requests(guarded by {@code this}). */
+        private int dispatchedCount;
+
+        /**
+         * Construct a gate of async requests of the route.
+         *
+         * @param route http route
+         */
+        AsyncRouteGate(HttpRoute route) {
+            this.route = route;
+        }
+
+        /**
+         * Dispatch the async request, or let it wait if the route is saturated.
+         *
+         * @param asyncRequest async request
+         */
+        void enter(AsyncRequest asyncRequest) {
+            boolean queueFull = false;
+            synchronized (this) {
+                if (dispatchedCount < connectionManager.getMaxPerRoute(route)) {
+                    dispatchedCount++;
+                } else if (waiting.size() < maxQueuedAsyncRequestsPerRoute) {
+                    waiting.add(asyncRequest);
+                    return;
+                } else {
+                    queueFull = true;
+                }
+            }
+            if (queueFull) {
+                asyncRequest.fail(new IOException("Queue of async requests of the route is full: " + route));
+            } else if (!dispatch(asyncRequest)) {
+                leave();
+            }
+        }
+
+        /** Dispatch the next waiting async request after a dispatched one completed. */
+        void leave() {
+            while (true) {
+                AsyncRequest next;
+                synchronized (this) {
+                    next = waiting.poll();
+                    if (next == null) {
+                        dispatchedCount--;
+                        return;
+                    }
+                }
+                if (System.currentTimeMillis() >= next.deadline) {
+                    next.fail(new ConnectionPoolTimeoutException("Timeout waiting for connection of route: " + route));
+                } else if (dispatch(next)) {
+                    return;
+                }
+            }
+        }
+
+    }
+
+    /** Connection manager recording wait time of connection leases to the metrics recorder(if bound). */
+    private class LeaseRecordingConnectionManager extends PoolingHttpClientConnectionManager {
+
+        @Override
+        public ConnectionRequest requestConnection(HttpRoute route, Object state) {
+            ConnectionRequest connectionRequest = super.requestConnection(route, state);
+            return new ConnectionRequest() {
+                @Override
+                public HttpClientConnection get(long timeout, TimeUnit unit)
+                        throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+                    OAuth2HttpMetricsRecorder recorder = metricsRecorder;
+                    if (recorder == null) { return connectionRequest.get(timeout, unit); }
+                    long startNanos = System.nanoTime();
+                    boolean leased = false;
+                    try {
+                        HttpClientConnection connection = connectionRequest.get(timeout, unit);
+                        leased = true;
+                        return connection;
+                    } finally {
+                        String target = route.getTargetHost().toURI();
+                        recorder.recordConnectionLease(target, System.nanoTime() - startNanos, leased);
+                    }
+                }
+
+                @Override
+                public boolean cancel() {
+                    return connectionRequest.cancel();
+                }
+            };
+        }
+
+    }
+
 }
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.okauth.core.assist.http.builtin.httpclient4;
+
+import com.github.wautsns.okauth.core.assist.http.kernel.model.basic.entity.OAuth2HttpEntity;
+import lombok.RequiredArgsConstructor;
+import org.apache.http.entity.AbstractHttpEntity;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * HttpClient4 http entity that writes the oauth2 http entity to the output stream directly.
+ *
+ * <p>If the content length of the oauth2 http entity is unknown(eg. json entity), the entity will be rendered once into
+ * bytes so that the request is sent with a content length instead of chunked.
+ *
+ * @author wautsns
+ * @since Oct 17, 2026
+ */
+@RequiredArgsConstructor
+class HttpClient4OAuth2HttpEntity extends AbstractHttpEntity {
+
+    /** OAuth2 http entity. */
+    private final OAuth2HttpEntity origin;
+    /** Rendered bytes, not null if the content length of origin is unknown. */
+    private byte[] bytes;
+
+    @Override
+    public boolean isRepeatable() {
+        return true;
+    }
+
+    @Override
+    public long getContentLength() {
+        if (bytes != null) { return bytes.length; }
+        long contentLength = origin.getContentLength();
+        if (contentLength >= 0) { return contentLength; }
+        bytes = origin.toBytes();
+        return bytes.length;
+    }
+
+    @Override
+    public InputStream getContent() {
+        return new ByteArrayInputStream((bytes != null) ? bytes : origin.toBytes());
+    }
+
+    @Override
+    public void writeTo(OutputStream outputStream) throws IOException {
+        if (bytes != null) {
+            outputStream.write(bytes);
+        } else {
+            origin.writeTo(outputStream);
+        }
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return false;
+    }
+
+}
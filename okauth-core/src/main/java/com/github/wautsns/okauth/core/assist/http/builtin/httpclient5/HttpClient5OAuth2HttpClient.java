@@ -0,0 +1,222 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.okauth.core.assist.http.builtin.httpclient5;
+
+import com.github.wautsns.okauth.core.assist.http.kernel.OAuth2HttpClient;
+import com.github.wautsns.okauth.core.assist.http.kernel.model.OAuth2HttpRequest;
+import com.github.wautsns.okauth.core.assist.http.kernel.model.OAuth2HttpResponse;
+import com.github.wautsns.okauth.core.assist.http.kernel.model.basic.entity.OAuth2HttpEntity;
+import com.github.wautsns.okauth.core.assist.http.kernel.properties.OAuth2HttpClientProperties;
+import com.github.wautsns.okauth.core.client.kernel.util.FutureUtils;
+import com.github.wautsns.okauth.core.exception.OAuth2IOException;
+import lombok.Getter;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClientBuilder;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http2.HttpVersionPolicy;
+import org.apache.hc.core5.reactor.IOReactorConfig;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URISyntaxException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * HttpClient5 oauth2 http client.
+ *
+ * <p>Requests are executed by the non-blocking HttpAsyncClient 5, a few I/O reactor threads can serve lots of
+ * in-flight requests. HTTP/2 will be used if the server supports it(negotiated by TLS ALPN).
+ * <p>The dependency {@code org.apache.httpcomponents.client5:httpclient5} is optional, add it before using the client.
+ *
+ * @author wautsns
+ * @since Oct 17, 2026
+ */
+@Getter
+public class HttpClient5OAuth2HttpClient implements OAuth2HttpClient {
+
+    /** Original http client. */
+    protected final CloseableHttpAsyncClient origin;
+    /** Http client connection manager. */
+    protected final PoolingAsyncClientConnectionManager connectionManager;
+
+    /** Construct a default {@code HttpClient5OAuth2HttpClient}. */
+    public HttpClient5OAuth2HttpClient() {
+        this(OAuth2HttpClientProperties.initDefault());
+    }
+
+    /**
+     * Construct a {@code HttpClient5OAuth2HttpClient}.
+     *
+     * @param props oauth2 http client properties
+     */
+    public HttpClient5OAuth2HttpClient(OAuth2HttpClientProperties props) {
+        HttpAsyncClientBuilder builder = HttpAsyncClientBuilder.create()
+                .setVersionPolicy(HttpVersionPolicy.NEGOTIATE);
+        // ==================== request config ==============================================
+        RequestConfig.Builder requestConfigBuilder = RequestConfig.custom();
+        Duration connectTimeout = props.getConnectTimeout();
+        if (connectTimeout != null) {
+            requestConfigBuilder.setConnectTimeout(Timeout.ofMilliseconds(connectTimeout.toMillis()));
+        }
+        Duration readTimeout = props.getReadTimeout();
+        if (readTimeout != null) {
+            requestConfigBuilder.setResponseTimeout(Timeout.ofMilliseconds(readTimeout.toMillis()));
+            builder.setIOReactorConfig(IOReactorConfig.custom()
+                    .setSoTimeout(Timeout.ofMilliseconds(readTimeout.toMillis()))
+                    .build());
+        }
+        Duration connectionLeaseTimeout = props.getConnectionLeaseTimeout();
+        if (connectionLeaseTimeout != null) {
+            requestConfigBuilder.setConnectionRequestTimeout(
+                    Timeout.ofMilliseconds(connectionLeaseTimeout.toMillis()));
+        }
+        builder.setDefaultRequestConfig(requestConfigBuilder.build());
+        // ==================== connect manager =============================================
+        this.connectionManager = PoolingAsyncClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(props.getMaxConcurrentRequests())
+                .setMaxConnPerRoute((props.getMaxConcurrentRequestsPerRoute() == null)
+                        ? props.getMaxConcurrentRequests()
+                        : props.getMaxConcurrentRequestsPerRoute())
+                .build();
+        builder.setConnectionManager(this.connectionManager);
+        // ==================== max idle time ===============================================
+        Duration maxIdleTime = props.getMaxIdleTime();
+        if (maxIdleTime != null) {
+            builder.evictIdleConnections(TimeValue.ofMilliseconds(maxIdleTime.toMillis()));
+        }
+        // ==================== keep alive ==================================================
+        Duration keepAliveTimeout = props.getKeepAliveTimeout();
+        if (keepAliveTimeout != null) {
+            TimeValue keepAlive = TimeValue.ofMilliseconds(keepAliveTimeout.toMillis());
+            builder.setKeepAliveStrategy((resp, ctx) -> keepAlive);
+        }
+        // ==================== retry strategy ==============================================
+        Integer retryTimes = props.getRetryTimes();
+        if (retryTimes != null) {
+            builder.setRetryStrategy(new OAuth2HttpRequestRetryStrategy(retryTimes));
+        }
+        // ==================== proxy =======================================================
+        String proxy = props.getProxy();
+        if (proxy != null) {
+            try {
+                builder.setProxy(HttpHost.create(proxy));
+            } catch (URISyntaxException e) {
+                throw new IllegalArgumentException("Illegal proxy: " + proxy, e);
+            }
+        }
+        // ==================== default headers =============================================
+        // Some open platforms will response 403, if not disguised as a browser.
+        builder.setUserAgent("Chrome/83.0.4103.61");
+        // ==================== thread factory ==============================================
+        AtomicInteger threadNumber = new AtomicInteger();
+        builder.setThreadFactory(runnable -> {
+            Thread thread = new Thread(runnable, "okauth-httpclient5-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // ==================== build http client ===========================================
+        this.origin = buildOriginHttpClient(builder, props);
+        this.origin.start();
+    }
+
+    /**
+     * Build original http client.
+     *
+     * @param builder httpClient5 builder
+     * @param props oauth2 http client properties
+     * @return original http client
+     */
+    protected CloseableHttpAsyncClient buildOriginHttpClient(
+            HttpAsyncClientBuilder builder, OAuth2HttpClientProperties props) {
+        return builder.build();
+    }
+
+    @Override
+    public OAuth2HttpResponse execute(OAuth2HttpRequest request) throws OAuth2IOException {
+        try {
+            return executeAsync(request).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OAuth2IOException(new InterruptedIOException(e.getMessage()));
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof OAuth2IOException) { throw (OAuth2IOException) cause; }
+            if (cause instanceof RuntimeException) { throw (RuntimeException) cause; }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    @Override
+    public CompletableFuture<OAuth2HttpResponse> executeAsync(OAuth2HttpRequest request) {
+        SimpleHttpRequest originalHttpRequest;
+        try {
+            originalHttpRequest = initOriginalHttpRequest(request);
+        } catch (RuntimeException e) {
+            return FutureUtils.failed(e);
+        }
+        CompletableFuture<OAuth2HttpResponse> future = new CompletableFuture<>();
+        origin.execute(originalHttpRequest, new FutureCallback<SimpleHttpResponse>() {
+            @Override
+            public void completed(SimpleHttpResponse result) {
+                future.complete(new HttpClient5OAuth2HttpResponse(result));
+            }
+
+            @Override
+            public void failed(Exception ex) {
+                if (ex instanceof IOException) {
+                    future.completeExceptionally(new OAuth2IOException((IOException) ex));
+                } else {
+                    future.completeExceptionally(ex);
+                }
+            }
+
+            @Override
+            public void cancelled() {
+                future.cancel(false);
+            }
+        });
+        return future;
+    }
+
+    // #################### internal ####################################################
+
+    /**
+     * Initialize original http request.
+     *
+     * @param request oauth2 http request
+     * @return original http request
+     */
+    private SimpleHttpRequest initOriginalHttpRequest(OAuth2HttpRequest request) {
+        SimpleHttpRequest originalHttpRequest = SimpleHttpRequest.create(
+                request.getMethod().name(), request.getUrl().toString());
+        request.forEachHeader(originalHttpRequest::addHeader);
+        OAuth2HttpEntity entity = request.getEntity();
+        if (entity != null) { originalHttpRequest.setBody(entity.toBytes(), null); }
+        return originalHttpRequest;
+    }
+
+}
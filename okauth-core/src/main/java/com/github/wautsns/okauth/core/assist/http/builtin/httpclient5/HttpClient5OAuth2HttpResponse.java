@@ -0,0 +1,74 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.okauth.core.assist.http.builtin.httpclient5;
+
+import com.github.wautsns.okauth.core.assist.http.kernel.model.OAuth2HttpResponse;
+import lombok.RequiredArgsConstructor;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.core5.http.Header;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * HttpClient5 oauth2 http response.
+ *
+ * <p>The entity has been fully read into memory when the response is received.
+ *
+ * @author wautsns
+ * @since Oct 17, 2026
+ */
+@RequiredArgsConstructor
+public class HttpClient5OAuth2HttpResponse implements OAuth2HttpResponse {
+
+    /** Empty bytes. */
+    private static final byte[] EMPTY_BYTES = new byte[0];
+
+    /** Original http response. */
+    private final SimpleHttpResponse origin;
+
+    @Override
+    public int getStatus() {
+        return origin.getCode();
+    }
+
+    @Override
+    public String getHeader(String name) {
+        Header header = origin.getFirstHeader(name);
+        return (header == null) ? null : header.getValue();
+    }
+
+    @Override
+    public List<String> getHeaders(String name) {
+        return Arrays.stream(origin.getHeaders(name))
+                .map(Header::getValue)
+                .collect(Collectors.toCollection(LinkedList::new));
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        byte[] bytes = origin.getBodyBytes();
+        return new ByteArrayInputStream((bytes == null) ? EMPTY_BYTES : bytes);
+    }
+
+    @Override
+    public void close() {}
+
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.okauth.core.assist.http.builtin.httpclient5;
+
+import org.apache.hc.client5.http.impl.DefaultHttpRequestRetryStrategy;
+import org.apache.hc.core5.util.TimeValue;
+
+import javax.net.ssl.SSLException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.UnknownHostException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * OAuth2 http request retry strategy.
+ *
+ * @author wautsns
+ * @since Oct 17, 2026
+ */
+class OAuth2HttpRequestRetryStrategy extends DefaultHttpRequestRetryStrategy {
+
+    /** The IOException types that should not be retried. */
+    private static final List<Class<? extends IOException>> EXCEPTIONS_NOT_RETRIED = Arrays.asList(
+            InterruptedIOException.class,
+            UnknownHostException.class,
+            ConnectException.class,
+            NoRouteToHostException.class,
+            SSLException.class);
+
+    /**
+     * Construct an {@code OAuth2HttpRequestRetryStrategy}.
+     *
+     * <p>Only IO exceptions of idempotent requests will be retried(the same as HttpClient4), responses with status
+     * like 503 will not be retried.
+     *
+     * @param retryCount how many times to retry; 0 means no retries
+     */
+    protected OAuth2HttpRequestRetryStrategy(int retryCount) {
+        super(retryCount, TimeValue.ZERO_MILLISECONDS, EXCEPTIONS_NOT_RETRIED, Collections.emptyList());
+    }
+
+}
@@ -17,8 +17,12 @@ package com.github.wautsns.okauth.core.assist.http.kernel;
 
 import com.github.wautsns.okauth.core.assist.http.kernel.model.OAuth2HttpRequest;
 import com.github.wautsns.okauth.core.assist.http.kernel.model.OAuth2HttpResponse;
+import com.github.wautsns.okauth.core.assist.http.metrics.OAuth2HttpMetricsRecorder;
+import com.github.wautsns.okauth.core.exception.OAuth2ErrorException;
 import com.github.wautsns.okauth.core.exception.OAuth2IOException;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * OAuth2 http client.
  *
@@ -36,4 +40,43 @@ public interface OAuth2HttpClient {
      */
     OAuth2HttpResponse execute(OAuth2HttpRequest request) throws OAuth2IOException;
 
+    /**
+     * Execute oauth2 request asynchronously.
+     *
+     * <p>The returned future will be completed exceptionally with {@code OAuth2IOException} if IO exception occurs.
+     * <p><strong>The default implementation executes the request in the calling thread, implementations should
+     * override it if they can execute requests without blocking the caller.</strong>
+     *
+     * @param request oauth2 request
+     * @return future of oauth2 response
+     */
+    default CompletableFuture<OAuth2HttpResponse> executeAsync(OAuth2HttpRequest request) {
+        CompletableFuture<OAuth2HttpResponse> future = new CompletableFuture<>();
+        try {
+            future.complete(execute(request));
+        } catch (OAuth2IOException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Callback when an oauth2 client identifies an oauth2 error from a response of the http client.
+     *
+     * <p>The default implementation does nothing.
+     *
+     * @param e oauth2 error exception
+     */
+    default void onError(OAuth2ErrorException e) {}
+
+    /**
+     * Bind the metrics recorder, to which the http client records its own metrics(such as waiting for connections),
+     * rather than metrics of requests.
+     *
+     * <p>The default implementation does nothing.
+     *
+     * @param recorder metrics recorder
+     */
+    default void bindMetricsRecorder(OAuth2HttpMetricsRecorder recorder) {}
+
 }
@@ -54,6 +54,21 @@ public class OAuth2HttpRequest implements Serializable {
     /** Request entity. */
     private OAuth2HttpEntity entity;
 
+    /**
+     * Construct an oauth2 http request.
+     *
+     * @param method request method
+     * @param url request url
+     * @param headers request headers
+     * @param entity request entity
+     */
+    protected OAuth2HttpRequest(Method method, OAuth2Url url, OAuth2HttpHeaders headers, OAuth2HttpEntity entity) {
+        this.method = method;
+        this.url = url;
+        this.headers = headers;
+        this.entity = entity;
+    }
+
     /**
      * Get headers.
      *
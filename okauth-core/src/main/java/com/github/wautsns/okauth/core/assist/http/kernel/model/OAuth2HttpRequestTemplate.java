@@ -0,0 +1,292 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.okauth.core.assist.http.kernel.model;
+
+import com.github.wautsns.okauth.core.assist.http.kernel.model.basic.OAuth2HttpHeaders;
+import com.github.wautsns.okauth.core.assist.http.kernel.model.basic.OAuth2Url;
+import com.github.wautsns.okauth.core.assist.http.kernel.model.basic.entity.OAuth2HttpEntity;
+import com.github.wautsns.okauth.core.assist.http.kernel.model.basic.entity.builtin.OAuth2HttpByteArrayEntity;
+import com.github.wautsns.okauth.core.assist.http.kernel.model.basic.entity.builtin.OAuth2HttpFormUrlEncodedEntity;
+import com.github.wautsns.okauth.core.assist.http.kernel.util.UrlEncodeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * OAuth2 http request template.
+ *
+ * <p>The template is immutable and thread-safe. The static part of url query, headers and form url encoded entity
+ * is rendered once when the template is constructed, and each {@link Binder} only appends the dynamic values.
+ *
+ * @author wautsns
+ * @since Oct 17, 2026
+ */
+public class OAuth2HttpRequestTemplate {
+
+    /** Request method. */
+    private final OAuth2HttpRequest.Method method;
+    /** Pure url(without query, anchor). */
+    private final String pureUrl;
+    /** Rendered url query, or {@code null} if there is no static query. */
+    private final String renderedQuery;
+    /** Url anchor. */
+    private final String anchor;
+    /** Request headers, or {@code null} if there is no static header(never exposed). */
+    private final OAuth2HttpHeaders headers;
+    /** Rendered form url encoded entity, or {@code null} if the entity is not form url encoded. */
+    private final String renderedForm;
+    /** Rendered form url encoded entity bytes, or {@code null} if the entity is not form url encoded. */
+    private final byte[] renderedFormBytes;
+    /** Request entity that is not form url encoded. */
+    private final OAuth2HttpEntity entity;
+
+    /**
+     * Construct an oauth2 http request template.
+     *
+     * <p>The prototype is rendered immediately, later changes to it will not affect the template.
+     *
+     * @param prototype request prototype
+     */
+    public OAuth2HttpRequestTemplate(OAuth2HttpRequest prototype) {
+        this.method = prototype.getMethod();
+        OAuth2Url url = prototype.getUrl();
+        this.pureUrl = url.getPureUrl();
+        this.anchor = url.getAnchor();
+        String query = render(url::forEachQueryItem);
+        this.renderedQuery = query.isEmpty() ? null : query;
+        OAuth2HttpHeaders headers = new OAuth2HttpHeaders();
+        prototype.forEachHeader(headers::add);
+        this.headers = headers.isEmpty() ? null : headers;
+        OAuth2HttpEntity entity = prototype.getEntity();
+        if (entity instanceof OAuth2HttpFormUrlEncodedEntity) {
+            this.renderedForm = render(((OAuth2HttpFormUrlEncodedEntity) entity)::forEach);
+            this.renderedFormBytes = renderedForm.getBytes(StandardCharsets.UTF_8);
+            this.entity = null;
+        } else {
+            this.renderedForm = null;
+            this.renderedFormBytes = null;
+            this.entity = (entity == null) ? null : entity.copy();
+        }
+    }
+
+    /**
+     * Get request method.
+     *
+     * @return request method
+     */
+    public OAuth2HttpRequest.Method getMethod() {
+        return method;
+    }
+
+    /**
+     * Create a binder to bind dynamic values.
+     *
+     * @return a new binder
+     */
+    public Binder bind() {
+        return new Binder();
+    }
+
+    /**
+     * Build request without dynamic values.
+     *
+     * @return request
+     */
+    public OAuth2HttpRequest build() {
+        return bind().build();
+    }
+
+    /**
+     * Request binder(not thread-safe, one binder for one request).
+     *
+     * @author wautsns
+     * @since Oct 17, 2026
+     */
+    public class Binder {
+
+        /** Url query(static part included), or {@code null} if no query item is added. */
+        private StringBuilder query;
+        /** Request headers(static part included), or {@code null} if no header is added. */
+        private OAuth2HttpHeaders headers;
+        /** Form url encoded entity(static part included), or {@code null} if no form field is added. */
+        private StringBuilder form;
+        /** Request entity that replaces the template entity. */
+        private OAuth2HttpEntity entity;
+
+        /** Construct a binder. */
+        private Binder() {}
+
+        /**
+         * Add url query item.
+         *
+         * <p>The value will be url encoded. If the value is {@code null}, the value will not be added.
+         *
+         * @param name name
+         * @param value value
+         * @return self reference
+         */
+        public Binder addQuery(String name, String value) {
+            if (value == null) { return this; }
+            if (query == null) { query = initTextBuilder(renderedQuery); }
+            appendUrlEncoded(query, name, value);
+            return this;
+        }
+
+        /**
+         * Add form field.
+         *
+         * <p>The value will be url encoded. If the value is {@code null}, the value will not be added.
+         *
+         * @param name name
+         * @param value value
+         * @return self reference
+         * @throws IllegalStateException if the template entity is not form url encoded
+         */
+        public Binder addFormField(String name, String value) {
+            if (OAuth2HttpRequestTemplate.this.entity != null) {
+                throw new IllegalStateException("The entity of template is not form url encoded.");
+            }
+            if (value == null) { return this; }
+            if (form == null) { form = initTextBuilder(renderedForm); }
+            appendUrlEncoded(form, name, value);
+            return this;
+        }
+
+        /**
+         * Add header.
+         *
+         * <p>If the value is {@code null}, the value will not be added.
+         *
+         * @param name name
+         * @param value value
+         * @return self reference
+         */
+        public Binder addHeader(String name, String value) {
+            if (value == null) { return this; }
+            if (headers == null) {
+                OAuth2HttpHeaders staticHeaders = OAuth2HttpRequestTemplate.this.headers;
+                headers = (staticHeaders == null) ? new OAuth2HttpHeaders() : staticHeaders.copy();
+            }
+            headers.add(name, value);
+            return this;
+        }
+
+        /**
+         * Add header `Authorization`.
+         *
+         * @param type auth type(eg. Basic, Bearer...)
+         * @param content content
+         * @return self reference
+         */
+        public Binder addAuthorization(String type, String content) {
+            return addHeader("Authorization", type + ' ' + content);
+        }
+
+        /**
+         * Set entity that replaces the template entity.
+         *
+         * @param entity entity
+         * @return self reference
+         */
+        public Binder setEntity(OAuth2HttpEntity entity) {
+            this.entity = entity;
+            return this;
+        }
+
+        /**
+         * Build request.
+         *
+         * @return request
+         */
+        public OAuth2HttpRequest build() {
+            String queryText = (query == null) ? renderedQuery : query.toString();
+            OAuth2Url url = new OAuth2Url(pureUrl, queryText, anchor);
+            OAuth2HttpHeaders requestHeaders = (headers != null) ? headers : copyHeaders();
+            return new OAuth2HttpRequest(method, url, requestHeaders, buildEntity());
+        }
+
+        /**
+         * Build entity.
+         *
+         * @return entity, or {@code null} if there is no entity
+         */
+        private OAuth2HttpEntity buildEntity() {
+            if (entity != null) {
+                return entity;
+            } else if (form != null) {
+                return new OAuth2HttpByteArrayEntity(form.toString().getBytes(StandardCharsets.UTF_8));
+            } else if (renderedFormBytes != null) {
+                return new OAuth2HttpByteArrayEntity(renderedFormBytes);
+            } else if (OAuth2HttpRequestTemplate.this.entity != null) {
+                return OAuth2HttpRequestTemplate.this.entity.copy();
+            } else {
+                return null;
+            }
+        }
+
+    }
+
+    // #################### internal ####################################################
+
+    /**
+     * Create and return a copy of template headers.
+     *
+     * @return a copy of template headers, or {@code null} if there is no static header
+     */
+    private OAuth2HttpHeaders copyHeaders() {
+        return (headers == null) ? null : headers.copy();
+    }
+
+    /**
+     * Render name value pairs as query like text(eg. a=3&amp;b=qwe).
+     *
+     * @param forEach iterator of name value pairs(values have been url encoded)
+     * @return query like text
+     */
+    private static String render(Consumer<BiConsumer<String, String>> forEach) {
+        StringBuilder text = new StringBuilder();
+        forEach.accept((name, value) -> {
+            if (text.length() > 0) { text.append('&'); }
+            text.append(name).append('=').append(value);
+        });
+        return text.toString();
+    }
+
+    /**
+     * Initialize text builder with the rendered text.
+     *
+     * @param rendered rendered text, may be {@code null}
+     * @return text builder
+     */
+    private static StringBuilder initTextBuilder(String rendered) {
+        if (rendered == null) { return new StringBuilder(64); }
+        return new StringBuilder(rendered.length() + 64).append(rendered);
+    }
+
+    /**
+     * Append url encoded name value pair to the text builder.
+     *
+     * @param text text builder
+     * @param name name
+     * @param value value(not url encoded)
+     */
+    private static void appendUrlEncoded(StringBuilder text, String name, String value) {
+        if (text.length() > 0) { text.append('&'); }
+        UrlEncodeUtils.encode(text.append(name).append('='), value);
+    }
+
+}
@@ -40,13 +40,22 @@ public interface OAuth2HttpResponse {
      */
     int getStatus();
 
+    /**
+     * Whether the http status is {@code 304 Not Modified}.
+     *
+     * @return {@code true} if the http status is {@code 304}, otherwise {@code false}
+     */
+    default boolean isNotModified() {
+        return getStatus() == 304;
+    }
+
     // #################### response header #############################################
 
     /**
      * Get value of specified header.
      *
      * @param name header name
-     * @return value of specified header
+     * @return value of specified header, or {@code null} if absent
      */
     String getHeader(String name);
 
@@ -58,6 +67,15 @@ public interface OAuth2HttpResponse {
      */
     List<String> getHeaders(String name);
 
+    /**
+     * Get value of header `ETag`.
+     *
+     * @return entity tag, or {@code null} if absent
+     */
+    default String getETag() {
+        return getHeader("ETag");
+    }
+
     // #################### response entity #############################################
 
     /**
@@ -84,6 +102,22 @@ public interface OAuth2HttpResponse {
         }
     }
 
+    /**
+     * Read http response input stream as bytes.
+     *
+     * @return bytes
+     * @throws OAuth2IOException if IO exception occurs
+     */
+    default byte[] readInputStreamAsBytes() throws OAuth2IOException {
+        try {
+            return ReadUtils.readInputStreamAsBytes(getInputStream());
+        } catch (IOException e) {
+            throw new OAuth2IOException(e);
+        } finally {
+            close();
+        }
+    }
+
     /**
      * Read http response input stream(json) as {@code DataMap}.
      *
@@ -15,28 +15,70 @@
  */
 package com.github.wautsns.okauth.core.assist.http.kernel.model.basic;
 
-import lombok.Getter;
-
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
-import java.util.Iterator;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedList;
-import java.util.ListIterator;
+import java.util.List;
 import java.util.Map;
 import java.util.function.BiConsumer;
 
 /**
  * Name value pairs.
  *
+ * <p>Pairs are stored in insertion order in a compact array(names at even indexes, values at odd indexes). Once the
+ * number of pairs exceeds {@value #INDEX_THRESHOLD}, an index of names is built for lookups.
+ * <p>The serialized form is kept as before(a list of names and values alternately named {@code origin}), so that
+ * pairs serialized by older versions can still be deserialized, and vice versa.
+ *
  * @author wautsns
  * @since May 16, 2020
  */
-@Getter
 public class NameValuePairs implements Serializable {
 
     private static final long serialVersionUID = -2963874324351686069L;
+    /** Serialized fields(the same as older versions). */
+    private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField("origin", LinkedList.class)
+    };
+
+    /** Default capacity(number of pairs). */
+    private static final int DEFAULT_CAPACITY = 4;
+    /** The number of pairs above which names will be indexed. */
+    private static final int INDEX_THRESHOLD = 8;
+
+    /** Names and values(name at {@code 2 * i}, value at {@code 2 * i + 1}). */
+    private String[] pairs = new String[DEFAULT_CAPACITY * 2];
+    /** Number of pairs. */
+    private int size;
+
+    /** Index of the last pair with the name, or {@code null} if names are not indexed. */
+    private transient Map<String, Integer> lastIndexes;
+    /** Index of the previous pair with the same name(-1 if there is no previous one). */
+    private transient int[] previousIndexes;
+
+    /**
+     * Get the number of name value pairs.
+     *
+     * @return the number of name value pairs
+     */
+    public int size() {
+        return size;
+    }
 
-    /** Original data. */
-    private final LinkedList<String> origin = new LinkedList<>();
+    /**
+     * Whether there is no name value pair.
+     *
+     * @return {@code true} if there is no name value pair, otherwise {@code false}
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
 
     /**
      * Iterate over each name value pair.
@@ -44,11 +86,33 @@ public class NameValuePairs implements Serializable {
      * @param action the action to be performed for each name value pair
      */
     public void forEach(BiConsumer<String, String> action) {
-        for (Iterator<String> iterator = origin.iterator(); iterator.hasNext(); ) {
-            action.accept(iterator.next(), iterator.next());
+        String[] pairs = this.pairs;
+        for (int i = 0, length = size * 2; i < length; i += 2) {
+            action.accept(pairs[i], pairs[i + 1]);
         }
     }
 
+    /**
+     * Get the first value associated with the specified name.
+     *
+     * @param name name
+     * @return the first value, or {@code null} if there is no pair with the name
+     */
+    public String get(String name) {
+        if (lastIndexes == null && size > INDEX_THRESHOLD) { rebuildIndexes(); }
+        if (lastIndexes == null) {
+            for (int i = 0, length = size * 2; i < length; i += 2) {
+                if (pairs[i].equals(name)) { return pairs[i + 1]; }
+            }
+            return null;
+        }
+        Integer index = lastIndexes.get(name);
+        if (index == null) { return null; }
+        int first = index;
+        while (previousIndexes[first] >= 0) { first = previousIndexes[first]; }
+        return pairs[first * 2 + 1];
+    }
+
     /**
      * Add value with the specified name.
      *
@@ -60,8 +124,7 @@ public class NameValuePairs implements Serializable {
      */
     public NameValuePairs add(String name, String value) {
         if (value == null) { return this; }
-        origin.add(name);
-        origin.add(value);
+        append(name, value);
         return this;
     }
 
@@ -79,8 +142,7 @@ public class NameValuePairs implements Serializable {
         if (value == null) {
             return add(name, defaultValue);
         } else {
-            origin.add(name);
-            origin.add(value);
+            append(name, value);
             return this;
         }
     }
@@ -107,10 +169,16 @@ public class NameValuePairs implements Serializable {
      * @return self reference
      */
     public NameValuePairs set(String name, String value) {
-        for (ListIterator<String> iterator = origin.listIterator(); iterator.hasNext(); ) {
-            String target = iterator.next();
-            iterator.next();
-            if (target.equals(name)) { iterator.set(value); }
+        if (lastIndexes == null && size > INDEX_THRESHOLD) { rebuildIndexes(); }
+        if (lastIndexes == null) {
+            for (int i = 0, length = size * 2; i < length; i += 2) {
+                if (pairs[i].equals(name)) { pairs[i + 1] = value; }
+            }
+        } else {
+            Integer index = lastIndexes.get(name);
+            for (int i = (index == null) ? -1 : index; i >= 0; i = previousIndexes[i]) {
+                pairs[i * 2 + 1] = value;
+            }
         }
         return this;
     }
@@ -121,13 +189,32 @@ public class NameValuePairs implements Serializable {
      * @param name name
      */
     public void remove(String name) {
-        for (Iterator<String> iterator = origin.iterator(); iterator.hasNext(); ) {
-            if (iterator.next().equals(name)) {
-                iterator.remove();
-                iterator.next();
-                iterator.remove();
-            }
+        int length = size * 2;
+        int newLength = 0;
+        for (int i = 0; i < length; i += 2) {
+            if (pairs[i].equals(name)) { continue; }
+            pairs[newLength++] = pairs[i];
+            pairs[newLength++] = pairs[i + 1];
         }
+        if (newLength == length) { return; }
+        Arrays.fill(pairs, newLength, length, null);
+        size = newLength / 2;
+        lastIndexes = null;
+        previousIndexes = null;
+    }
+
+    /**
+     * Get original data(names and values alternately).
+     *
+     * <p><strong>Since pairs are no longer stored in a list, the returned list is an unmodifiable snapshot(it was the
+     * live backing list before), modifying it throws {@code UnsupportedOperationException}.</strong>
+     *
+     * @return an unmodifiable snapshot of original data
+     * @deprecated use {@link #forEach(BiConsumer)}, {@link #get(String)} or the modifying methods instead
+     */
+    @Deprecated
+    public List<String> getOrigin() {
+        return Collections.unmodifiableList(Arrays.asList(Arrays.copyOf(pairs, size * 2)));
     }
 
     /**
@@ -136,9 +223,88 @@ public class NameValuePairs implements Serializable {
      * @return a copy of this object
      */
     public NameValuePairs copy() {
-        NameValuePairs copy = new NameValuePairs();
-        copy.origin.addAll(this.origin);
-        return copy;
+        return copyTo(new NameValuePairs());
+    }
+
+    /**
+     * Copy name value pairs to the target(the target should be empty).
+     *
+     * @param target target
+     * @param <T> type of target
+     * @return the target
+     */
+    protected <T extends NameValuePairs> T copyTo(T target) {
+        NameValuePairs copy = target;
+        copy.pairs = Arrays.copyOf(pairs, Math.max(size, DEFAULT_CAPACITY) * 2);
+        copy.size = size;
+        return target;
+    }
+
+    // #################### serialization ###############################################
+
+    /**
+     * Write pairs in the serialized form of older versions.
+     *
+     * @param out object output stream
+     * @throws IOException if IO exception occurs
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("origin", new LinkedList<>(Arrays.asList(pairs).subList(0, size * 2)));
+        out.writeFields();
+    }
+
+    /**
+     * Read pairs from the serialized form of older versions.
+     *
+     * @param in object input stream
+     * @throws IOException if IO exception occurs
+     * @throws ClassNotFoundException if class of a serialized object cannot be found
+     */
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        List<String> origin = (List<String>) fields.get("origin", null);
+        int originSize = (origin == null) ? 0 : origin.size() / 2;
+        this.pairs = new String[Math.max(originSize, DEFAULT_CAPACITY) * 2];
+        for (int i = 0; i < originSize * 2; i++) { pairs[i] = origin.get(i); }
+        this.size = originSize;
+    }
+
+    // #################### internal ####################################################
+
+    /**
+     * Append name value pair.
+     *
+     * @param name name
+     * @param value value
+     */
+    private void append(String name, String value) {
+        if (size * 2 == pairs.length) { pairs = Arrays.copyOf(pairs, pairs.length * 2); }
+        int index = size++;
+        pairs[index * 2] = name;
+        pairs[index * 2 + 1] = value;
+        if (lastIndexes != null) {
+            if (index == previousIndexes.length) {
+                previousIndexes = Arrays.copyOf(previousIndexes, previousIndexes.length * 2);
+            }
+            Integer previous = lastIndexes.put(name, index);
+            previousIndexes[index] = (previous == null) ? -1 : previous;
+        } else if (size > INDEX_THRESHOLD) {
+            rebuildIndexes();
+        }
+    }
+
+    /** Rebuild indexes of names. */
+    private void rebuildIndexes() {
+        Map<String, Integer> lastIndexes = new HashMap<>(size * 2);
+        int[] previousIndexes = new int[pairs.length / 2];
+        for (int i = 0; i < size; i++) {
+            Integer previous = lastIndexes.put(pairs[i * 2], i);
+            previousIndexes[i] = (previous == null) ? -1 : previous;
+        }
+        this.lastIndexes = lastIndexes;
+        this.previousIndexes = previousIndexes;
     }
 
 }
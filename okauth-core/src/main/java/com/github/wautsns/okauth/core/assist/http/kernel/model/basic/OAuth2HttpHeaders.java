@@ -80,6 +80,16 @@ public class OAuth2HttpHeaders extends NameValuePairs {
         return add("Authorization", type + ' ' + content);
     }
 
+    /**
+     * Add header `If-None-Match`.
+     *
+     * @param eTag entity tag
+     * @return self reference
+     */
+    public OAuth2HttpHeaders addIfNoneMatch(String eTag) {
+        return add("If-None-Match", eTag);
+    }
+
     // #################### common ######################################################
 
     @Override
@@ -104,9 +114,7 @@ public class OAuth2HttpHeaders extends NameValuePairs {
 
     @Override
     public OAuth2HttpHeaders copy() {
-        OAuth2HttpHeaders copy = new OAuth2HttpHeaders();
-        copy.getOrigin().addAll(this.getOrigin());
-        return copy;
+        return copyTo(new OAuth2HttpHeaders());
     }
 
 }
@@ -15,6 +15,7 @@
  */
 package com.github.wautsns.okauth.core.assist.http.kernel.model.basic;
 
+import com.github.wautsns.okauth.core.assist.http.kernel.util.UrlEncodeUtils;
 import com.github.wautsns.okauth.core.assist.http.kernel.util.WriteUtils;
 
 import java.io.Serializable;
@@ -34,6 +35,8 @@ public class OAuth2Url implements Serializable {
     private final String pureUrl;
     /** Url query. */
     private OAuth2UrlEncodedEntries query;
+    /** Url query that has been rendered as text(parsed into {@link #query} only when needed). */
+    private String renderedQuery;
     /** Url anchor. */
     private String anchor;
 
@@ -56,15 +59,25 @@ public class OAuth2Url implements Serializable {
             this.pureUrl = url.substring(0, indexOfQuery);
         } else {
             this.pureUrl = url.substring(0, indexOfQuery);
-            this.query = new OAuth2UrlEncodedEntries();
-            String[] queryItems = url.substring(indexOfQuery + 1).split("&");
-            for (String queryItem : queryItems) {
-                String[] nameAndUrlEncodedValue = queryItem.split("=", 2);
-                this.query.addUrlEncoded(nameAndUrlEncodedValue[0], nameAndUrlEncodedValue[1]);
-            }
+            this.query = parseQuery(url.substring(indexOfQuery + 1));
         }
     }
 
+    /**
+     * Construct an {@code OAuth2Url} with rendered query.
+     *
+     * <p>The rendered query will not be parsed until {@link #getQuery()} is called.
+     *
+     * @param pureUrl pure url(without query, anchor)
+     * @param renderedQuery url encoded query text(eg. a=3&amp;b=qwe), or {@code null} if there is no query
+     * @param anchor url anchor, or {@code null} if there is no anchor
+     */
+    public OAuth2Url(String pureUrl, String renderedQuery, String anchor) {
+        this.pureUrl = pureUrl;
+        this.renderedQuery = renderedQuery;
+        this.anchor = anchor;
+    }
+
     /**
      * Get pure url(without query, anchor).
      *
@@ -81,7 +94,12 @@ public class OAuth2Url implements Serializable {
      */
     public OAuth2UrlEncodedEntries getQuery() {
         if (query != null) { return query; }
-        query = new OAuth2UrlEncodedEntries();
+        if (renderedQuery != null) {
+            query = parseQuery(renderedQuery);
+            renderedQuery = null;
+        } else {
+            query = new OAuth2UrlEncodedEntries();
+        }
         return query;
     }
 
@@ -91,7 +109,11 @@ public class OAuth2Url implements Serializable {
      * @param action the action to be performed for each query item
      */
     public void forEachQueryItem(BiConsumer<String, String> action) {
-        if (query != null) { query.forEach(action); }
+        if (query != null) {
+            query.forEach(action);
+        } else if (renderedQuery != null) {
+            parseQuery(renderedQuery).forEach(action);
+        }
     }
 
     /**
@@ -116,9 +138,10 @@ public class OAuth2Url implements Serializable {
 
     @Override
     public String toString() {
-        if (query == null) { return (anchor == null) ? pureUrl : (pureUrl + '#' + anchor); }
-        StringBuilder url = new StringBuilder(pureUrl);
-        url.append('?').append(WriteUtils.writeUrlEncodedEntriesAsQueryLikeText(query));
+        String queryText = (query == null) ? renderedQuery : WriteUtils.writeUrlEncodedEntriesAsQueryLikeText(query);
+        if (queryText == null) { return (anchor == null) ? pureUrl : (pureUrl + '#' + anchor); }
+        StringBuilder url = new StringBuilder(pureUrl.length() + queryText.length() + 1);
+        url.append(pureUrl).append('?').append(queryText);
         if (anchor != null) { url.append('#').append(anchor); }
         return url.toString();
     }
@@ -140,7 +163,20 @@ public class OAuth2Url implements Serializable {
     protected OAuth2Url(OAuth2Url prototype) {
         this.pureUrl = prototype.pureUrl;
         this.query = (prototype.query == null) ? null : prototype.query.copy();
+        this.renderedQuery = prototype.renderedQuery;
         this.anchor = prototype.anchor;
     }
 
+    /**
+     * Parse url encoded query text(eg. a=3&amp;b=qwe).
+     *
+     * @param queryText url encoded query text
+     * @return url query
+     */
+    private static OAuth2UrlEncodedEntries parseQuery(String queryText) {
+        OAuth2UrlEncodedEntries query = new OAuth2UrlEncodedEntries();
+        UrlEncodeUtils.forEachQueryLikeTextItem(queryText, query::addUrlEncoded);
+        return query;
+    }
+
 }
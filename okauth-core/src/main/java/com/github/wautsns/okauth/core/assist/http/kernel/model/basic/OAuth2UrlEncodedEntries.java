@@ -15,8 +15,8 @@
  */
 package com.github.wautsns.okauth.core.assist.http.kernel.model.basic;
 
-import java.io.UnsupportedEncodingException;
-import java.net.URLEncoder;
+import com.github.wautsns.okauth.core.assist.http.kernel.util.UrlEncodeUtils;
+
 import java.util.Map;
 
 /**
@@ -197,11 +197,7 @@ public class OAuth2UrlEncodedEntries extends NameValuePairs {
     @Override
     public OAuth2UrlEncodedEntries add(String name, String value) {
         if (value == null) { return this; }
-        try {
-            return addUrlEncoded(name, URLEncoder.encode(value, "UTF-8"));
-        } catch (UnsupportedEncodingException e) {
-            throw new IllegalStateException(e);
-        }
+        return addUrlEncoded(name, UrlEncodeUtils.encode(value));
     }
 
     /**
@@ -245,16 +241,7 @@ public class OAuth2UrlEncodedEntries extends NameValuePairs {
      */
     @Override
     public OAuth2UrlEncodedEntries set(String name, String value) {
-        String urlEncodedValue;
-        if (value == null) {
-            urlEncodedValue = null;
-        } else {
-            try {
-                urlEncodedValue = URLEncoder.encode(value, "UTF-8");
-            } catch (UnsupportedEncodingException e) {
-                throw new IllegalStateException(e);
-            }
-        }
+        String urlEncodedValue = (value == null) ? null : UrlEncodeUtils.encode(value);
         return setUrlEncoded(name, urlEncodedValue);
     }
 
@@ -292,9 +279,7 @@ public class OAuth2UrlEncodedEntries extends NameValuePairs {
 
     @Override
     public OAuth2UrlEncodedEntries copy() {
-        OAuth2UrlEncodedEntries copy = new OAuth2UrlEncodedEntries();
-        copy.getOrigin().addAll(this.getOrigin());
-        return copy;
+        return copyTo(new OAuth2UrlEncodedEntries());
     }
 
 }
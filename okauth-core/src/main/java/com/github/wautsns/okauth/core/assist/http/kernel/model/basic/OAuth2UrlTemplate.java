@@ -0,0 +1,97 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.okauth.core.assist.http.kernel.model.basic;
+
+import com.github.wautsns.okauth.core.assist.http.kernel.util.UrlEncodeUtils;
+import com.github.wautsns.okauth.core.assist.http.kernel.util.WriteUtils;
+
+/**
+ * OAuth2 url template.
+ *
+ * <p>The template is immutable and thread-safe. The url(without the dynamic query item) is rendered once when the
+ * template is constructed, so binding a value only costs one url encoding into one presized string builder.
+ *
+ * @author wautsns
+ * @since Oct 17, 2026
+ */
+public class OAuth2UrlTemplate {
+
+    /** Pure url(without query, anchor). */
+    private final String pureUrl;
+    /** Rendered url query, or {@code null} if there is no static query. */
+    private final String renderedQuery;
+    /** Url anchor. */
+    private final String anchor;
+    /** Name of the dynamic query item. */
+    private final String name;
+    /** Rendered url prefix(eg. {@code https://xxx?a=3&name=}). */
+    private final String prefix;
+    /** Rendered url suffix(eg. {@code #anchor}), or empty string if there is no anchor. */
+    private final String suffix;
+    /** Rendered url without the dynamic query item. */
+    private final String urlWithoutValue;
+
+    /**
+     * Construct an oauth2 url template.
+     *
+     * <p>The prototype is rendered immediately, later changes to it will not affect the template.
+     *
+     * @param prototype url prototype
+     * @param name name of the dynamic query item
+     */
+    public OAuth2UrlTemplate(OAuth2Url prototype, String name) {
+        this.pureUrl = prototype.getPureUrl();
+        OAuth2UrlEncodedEntries query = prototype.getQuery();
+        this.renderedQuery = query.isEmpty() ? null : WriteUtils.writeUrlEncodedEntriesAsQueryLikeText(query);
+        this.anchor = prototype.getAnchor();
+        this.name = name;
+        StringBuilder prefix = new StringBuilder(pureUrl).append('?');
+        if (renderedQuery != null) { prefix.append(renderedQuery).append('&'); }
+        this.prefix = prefix.append(name).append('=').toString();
+        this.suffix = (anchor == null) ? "" : ('#' + anchor);
+        this.urlWithoutValue = new OAuth2Url(pureUrl, renderedQuery, anchor).toString();
+    }
+
+    /**
+     * Render url with the value of dynamic query item.
+     *
+     * <p>If the value is {@code null}, the query item will not be added.
+     *
+     * @param value value of dynamic query item(not url encoded)
+     * @return url string
+     */
+    public String render(String value) {
+        if (value == null) { return urlWithoutValue; }
+        StringBuilder url = new StringBuilder(prefix.length() + value.length() * 3 + suffix.length()).append(prefix);
+        return UrlEncodeUtils.encode(url, value).append(suffix).toString();
+    }
+
+    /**
+     * Bind the value of dynamic query item.
+     *
+     * <p>If the value is {@code null}, the query item will not be added.
+     *
+     * @param value value of dynamic query item(not url encoded)
+     * @return url
+     */
+    public OAuth2Url bind(String value) {
+        if (value == null) { return new OAuth2Url(pureUrl, renderedQuery, anchor); }
+        String item = name + '=' + UrlEncodeUtils.encode(value);
+        String query = (renderedQuery == null) ? item : (renderedQuery + '&' + item);
+        return new OAuth2Url(pureUrl, query, anchor);
+    }
+
+}
@@ -15,6 +15,8 @@
  */
 package com.github.wautsns.okauth.core.assist.http.kernel.model.basic.entity;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Serializable;
 
 /**
@@ -32,6 +34,29 @@ public interface OAuth2HttpEntity extends Serializable {
      */
     byte[] toBytes();
 
+    /**
+     * Get content length.
+     *
+     * @return content length, or -1 if the length is unknown before writing
+     */
+    default long getContentLength() {
+        return -1;
+    }
+
+    /**
+     * Write the entity to the output stream.
+     *
+     * <p><strong>The method will not close the output stream.</strong>
+     *
+     * <p>The default implementation writes {@link #toBytes()}.
+     *
+     * @param outputStream output stream
+     * @throws IOException if IO exception occurs
+     */
+    default void writeTo(OutputStream outputStream) throws IOException {
+        outputStream.write(toBytes());
+    }
+
     /**
      * Create and return a copy of this object.
      *
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.okauth.core.assist.http.kernel.model.basic.entity.builtin;
+
+import com.github.wautsns.okauth.core.assist.http.kernel.model.basic.entity.OAuth2HttpEntity;
+import lombok.RequiredArgsConstructor;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * OAuth2 http byte array entity.
+ *
+ * <p>The entity is immutable, the bytes should not be modified after construction. The bytes may be shared(eg. by
+ * entities rendered from the same template), so {@link #toBytes()} returns a copy, and {@link #writeTo(OutputStream)}
+ * writes the bytes directly.
+ *
+ * @author wautsns
+ * @since Oct 17, 2026
+ */
+@RequiredArgsConstructor
+public class OAuth2HttpByteArrayEntity implements OAuth2HttpEntity {
+
+    private static final long serialVersionUID = 2471954083712206583L;
+
+    /** Entity bytes. */
+    private final byte[] bytes;
+
+    @Override
+    public byte[] toBytes() {
+        return bytes.clone();
+    }
+
+    @Override
+    public long getContentLength() {
+        return bytes.length;
+    }
+
+    @Override
+    public void writeTo(OutputStream outputStream) throws IOException {
+        outputStream.write(bytes);
+    }
+
+    @Override
+    public OAuth2HttpByteArrayEntity copy() {
+        return this;
+    }
+
+}
@@ -34,11 +34,46 @@ public class OAuth2HttpFormUrlEncodedEntity extends OAuth2UrlEncodedEntries impl
         return WriteUtils.writeUrlEncodedEntriesAsQueryLikeTextBytes(this);
     }
 
+    @Override
+    public long getContentLength() {
+        long[] length = {-1};
+        forEach((name, value) -> length[0] += utf8Length(name) + 1 + utf8Length(value) + 1);
+        return Math.max(length[0], 0);
+    }
+
     @Override
     public OAuth2HttpFormUrlEncodedEntity copy() {
-        OAuth2HttpFormUrlEncodedEntity copy = new OAuth2HttpFormUrlEncodedEntity();
-        copy.getOrigin().addAll(this.getOrigin());
-        return copy;
+        return copyTo(new OAuth2HttpFormUrlEncodedEntity());
+    }
+
+    /**
+     * Get length of the text encoded with UTF-8.
+     *
+     * <p>{@code null} is counted as {@code "null"}, the same as {@link #toBytes()} writes.
+     *
+     * @param text text
+     * @return length of UTF-8 bytes
+     */
+    private static int utf8Length(String text) {
+        if (text == null) { return 4; }
+        int length = 0;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(text.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                // malformed surrogate is encoded as '?'
+                length += 1;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
     }
 
 }
@@ -19,8 +19,9 @@ import com.github.wautsns.okauth.core.assist.http.kernel.model.basic.DataMap;
 import com.github.wautsns.okauth.core.assist.http.kernel.model.basic.entity.OAuth2HttpEntity;
 import com.github.wautsns.okauth.core.assist.http.kernel.util.WriteUtils;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Serializable;
-import java.nio.charset.StandardCharsets;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -93,7 +94,20 @@ public class OAuth2HttpJsonEntity implements OAuth2HttpEntity {
 
     @Override
     public byte[] toBytes() {
-        return WriteUtils.writeObjectAsJsonString(origin).getBytes(StandardCharsets.UTF_8);
+        return WriteUtils.writeObjectAsJsonBytes(origin);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The json is written by Jackson to the output stream directly.
+     *
+     * @param outputStream {@inheritDoc}
+     * @throws IOException {@inheritDoc}
+     */
+    @Override
+    public void writeTo(OutputStream outputStream) throws IOException {
+        WriteUtils.writeObjectAsJson(origin, outputStream);
     }
 
     @Override
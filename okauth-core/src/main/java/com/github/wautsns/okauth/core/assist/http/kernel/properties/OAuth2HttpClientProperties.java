@@ -38,6 +38,26 @@ public class OAuth2HttpClientProperties {
     private Duration readTimeout;
     /** Max concurrent requests. */
     private Integer maxConcurrentRequests;
+    /** Max concurrent requests per route(host), {@code maxConcurrentRequests} if absent. */
+    private Integer maxConcurrentRequestsPerRoute;
+    /**
+     * Max concurrent requests of the specified routes(nullable).
+     *
+     * <p>Key is the route({@code [SCHEME://]HOST[:PORT]}, scheme is {@code https} if absent), value is the max
+     * concurrent requests of the route.
+     */
+    private Map<String, Integer> maxConcurrentRequestsOfRoutes;
+    /** Timeout of leasing a connection from the connection pool of the route(wait without bound if absent). */
+    private Duration connectionLeaseTimeout;
+    /** Whether to reject requests immediately if the connection pool of the route is saturated. */
+    private Boolean rejectWhenRouteSaturated;
+    /**
+     * Max async requests waiting for a thread, {@code 16 * maxConcurrentRequests} if absent.
+     *
+     * <p>Only for clients executing async requests in a thread pool(eg. {@code HttpClient4OAuth2HttpClient}), requests
+     * beyond that are rejected. It also limits async requests waiting in the queue of a saturated route.
+     */
+    private Integer maxQueuedAsyncRequests;
     /** Max idle time of connection. */
     private Duration maxIdleTime;
     /** Keep alive timeout of connection. */
@@ -59,6 +79,12 @@ public class OAuth2HttpClientProperties {
                 .setConnectTimeout(connectTimeout)
                 .setReadTimeout(readTimeout)
                 .setMaxConcurrentRequests(maxConcurrentRequests)
+                .setMaxConcurrentRequestsPerRoute(maxConcurrentRequestsPerRoute)
+                .setMaxConcurrentRequestsOfRoutes(
+                        (maxConcurrentRequestsOfRoutes == null) ? null : new HashMap<>(maxConcurrentRequestsOfRoutes))
+                .setConnectionLeaseTimeout(connectionLeaseTimeout)
+                .setRejectWhenRouteSaturated(rejectWhenRouteSaturated)
+                .setMaxQueuedAsyncRequests(maxQueuedAsyncRequests)
                 .setMaxIdleTime(maxIdleTime)
                 .setKeepAliveTimeout(keepAliveTimeout)
                 .setReadTimeout(readTimeout)
@@ -75,6 +101,7 @@ public class OAuth2HttpClientProperties {
      * <li>connectTimeout: {@code 3s}</li>
      * <li>readTimeout: {@code 7s}</li>
      * <li>maxConcurrentRequests: {@code 64}</li>
+     * <li>connectionLeaseTimeout: {@code 3s}</li>
      * <li>maxIdleTime: {@code 5m}</li>
      * <li>keepAliveTimeout: {@code 3m}</li>
      * <li>retryTimes: {@code 2}</li>
@@ -87,6 +114,7 @@ public class OAuth2HttpClientProperties {
                 .setConnectTimeout(Duration.parse("PT3S"))
                 .setReadTimeout(Duration.parse("PT7S"))
                 .setMaxConcurrentRequests(64)
+                .setConnectionLeaseTimeout(Duration.parse("PT3S"))
                 .setMaxIdleTime(Duration.parse("PT5M"))
                 .setKeepAliveTimeout(Duration.parse("PT3M"))
                 .setRetryTimes(1);
@@ -15,7 +15,9 @@
  */
 package com.github.wautsns.okauth.core.assist.http.kernel.util;
 
+import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.wautsns.okauth.core.assist.http.kernel.model.basic.DataMap;
@@ -24,6 +26,7 @@ import lombok.experimental.UtilityClass;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
 
 /**
  * Read utils.
@@ -50,13 +53,26 @@ public class ReadUtils {
      * @throws IOException if IO exception occurs
      */
     public static String readInputStreamAsString(InputStream inputStream) throws IOException {
+        return new String(readInputStreamAsBytes(inputStream));
+    }
+
+    /**
+     * Read input stream as bytes.
+     *
+     * <p><strong>The method will not close the input stream.</strong>
+     *
+     * @param inputStream input stream
+     * @return bytes
+     * @throws IOException if IO exception occurs
+     */
+    public static byte[] readInputStreamAsBytes(InputStream inputStream) throws IOException {
         ByteArrayOutputStream result = new ByteArrayOutputStream();
         byte[] buffer = new byte[1024];
         int length;
         while ((length = inputStream.read(buffer)) != -1) {
             result.write(buffer, 0, length);
         }
-        return result.toString();
+        return result.toByteArray();
     }
 
     /**
@@ -80,10 +96,7 @@ public class ReadUtils {
      */
     public static DataMap readQueryLikeTextAsDataMap(String string) {
         DataMap dataMap = new DataMap();
-        for (String item : string.split("&")) {
-            String[] nameAndValue = item.split("=", 2);
-            dataMap.put(nameAndValue[0], nameAndValue[1]);
-        }
+        UrlEncodeUtils.forEachQueryLikeTextItem(string, dataMap::put);
         return dataMap;
     }
 
@@ -111,4 +124,133 @@ public class ReadUtils {
         return OBJECT_MAPPER.readValue(inputStream, JAVA_TYPE_DATA_MAP);
     }
 
+    /**
+     * Read json bytes as {@code DataMap} value.
+     *
+     * @param bytes json bytes
+     * @return {@code DataMap} value
+     * @throws IOException if IO exception occurs
+     */
+    public static DataMap readJsonAsDataMap(byte[] bytes) throws IOException {
+        return OBJECT_MAPPER.readValue(bytes, JAVA_TYPE_DATA_MAP);
+    }
+
+    // #################### streaming json ##############################################
+
+    /**
+     * Json field reader.
+     *
+     * @author wautsns
+     * @since Oct 17, 2026
+     */
+    @FunctionalInterface
+    public interface JsonFieldReader {
+
+        /**
+         * Read value of the field.
+         *
+         * <p>The parser points to the first token of the value. If the value is not consumed(returns {@code false}),
+         * it will be skipped.
+         *
+         * @param name field name
+         * @param parser json parser
+         * @return {@code true} if the value has been consumed, otherwise {@code false}
+         * @throws IOException if IO exception occurs
+         */
+        boolean read(String name, JsonParser parser) throws IOException;
+
+    }
+
+    /**
+     * Read fields of json object(bytes) in a single pass with a streaming parser.
+     *
+     * @param bytes json object bytes
+     * @param reader field reader
+     * @throws IOException if IO exception occurs
+     */
+    public static void readJsonFields(byte[] bytes, JsonFieldReader reader) throws IOException {
+        try (JsonParser parser = OBJECT_MAPPER.getFactory().createParser(bytes)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Json object is expected.");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                parser.nextToken();
+                if (!reader.read(name, parser)) { parser.skipChildren(); }
+            }
+        }
+    }
+
+    /**
+     * Read current json value as {@code String} value.
+     *
+     * @param parser json parser
+     * @return {@code String} value, or {@code null} if the value is null or not a scalar value
+     * @throws IOException if IO exception occurs
+     */
+    public static String readJsonValueAsString(JsonParser parser) throws IOException {
+        if (!parser.currentToken().isScalarValue()) {
+            parser.skipChildren();
+            return null;
+        }
+        return parser.getValueAsString();
+    }
+
+    /**
+     * Read current json value as {@code Integer} value.
+     *
+     * @param parser json parser
+     * @return {@code Integer} value, or {@code null} if the value is null
+     * @throws IOException if IO exception occurs
+     */
+    public static Integer readJsonValueAsInteger(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        } else if (token == JsonToken.VALUE_STRING) {
+            return Integer.parseInt(parser.getText());
+        } else {
+            return parser.getValueAsInt();
+        }
+    }
+
+    /**
+     * Read current json value as {@code Boolean} value.
+     *
+     * @param parser json parser
+     * @return {@code Boolean} value, or {@code null} if the value is null
+     * @throws IOException if IO exception occurs
+     */
+    public static Boolean readJsonValueAsBoolean(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        } else if (token == JsonToken.VALUE_STRING) {
+            return Boolean.valueOf(parser.getText());
+        } else {
+            return parser.getValueAsBoolean();
+        }
+    }
+
+    /**
+     * Read current json value(array of integers) as {@code int[]} value.
+     *
+     * @param parser json parser
+     * @return {@code int[]} value, or {@code null} if the value is null
+     * @throws IOException if IO exception occurs
+     */
+    public static int[] readJsonValueAsIntArray(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return null;
+        }
+        int[] values = new int[8];
+        int size = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (size == values.length) { values = Arrays.copyOf(values, size * 2); }
+            values[size++] = parser.getValueAsInt();
+        }
+        return Arrays.copyOf(values, size);
+    }
+
 }
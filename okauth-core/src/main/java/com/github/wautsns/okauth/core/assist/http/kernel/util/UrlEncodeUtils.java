@@ -0,0 +1,215 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.okauth.core.assist.http.kernel.util;
+
+import lombok.experimental.UtilityClass;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.BiConsumer;
+
+/**
+ * Url encode utils.
+ *
+ * <p>Encoding and decoding are compatible with {@link java.net.URLEncoder} and {@link java.net.URLDecoder} with
+ * charset UTF-8(eg. space is encoded as {@code '+'}), but the value will be returned directly if there is nothing to
+ * encode or decode.
+ *
+ * @author wautsns
+ * @since Oct 17, 2026
+ */
+@UtilityClass
+public class UrlEncodeUtils {
+
+    /** Characters that need not be encoded. */
+    private static final boolean[] SAFE_CHARS = new boolean[128];
+    /** Hex digits(upper case). */
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    static {
+        for (char c = 'a'; c <= 'z'; c++) { SAFE_CHARS[c] = true; }
+        for (char c = 'A'; c <= 'Z'; c++) { SAFE_CHARS[c] = true; }
+        for (char c = '0'; c <= '9'; c++) { SAFE_CHARS[c] = true; }
+        SAFE_CHARS['.'] = true;
+        SAFE_CHARS['-'] = true;
+        SAFE_CHARS['*'] = true;
+        SAFE_CHARS['_'] = true;
+    }
+
+    /**
+     * Url encode the value.
+     *
+     * @param value value
+     * @return url encoded value(the value itself if there is nothing to encode)
+     */
+    public static String encode(String value) {
+        int index = indexOfFirstUnsafeChar(value);
+        if (index == -1) { return value; }
+        StringBuilder result = new StringBuilder(value.length() + 16).append(value, 0, index);
+        encodeFrom(result, value, index);
+        return result.toString();
+    }
+
+    /**
+     * Url encode the value and append it to the target.
+     *
+     * @param target target
+     * @param value value
+     * @return the target
+     */
+    public static StringBuilder encode(StringBuilder target, String value) {
+        int index = indexOfFirstUnsafeChar(value);
+        if (index == -1) { return target.append(value); }
+        target.append(value, 0, index);
+        encodeFrom(target, value, index);
+        return target;
+    }
+
+    /**
+     * Url decode the value.
+     *
+     * @param value url encoded value
+     * @return url decoded value(the value itself if there is nothing to decode)
+     * @throws IllegalArgumentException if the value contains illegal escape sequence
+     */
+    public static String decode(String value) {
+        int length = value.length();
+        int index = 0;
+        while (index < length && value.charAt(index) != '%' && value.charAt(index) != '+') { index++; }
+        if (index == length) { return value; }
+        StringBuilder result = new StringBuilder(length).append(value, 0, index);
+        byte[] bytes = null;
+        while (index < length) {
+            char c = value.charAt(index);
+            if (c == '+') {
+                result.append(' ');
+                index++;
+            } else if (c != '%') {
+                result.append(c);
+                index++;
+            } else {
+                if (bytes == null) { bytes = new byte[(length - index) / 3]; }
+                int count = 0;
+                while (index < length && value.charAt(index) == '%') {
+                    if (index + 2 >= length) {
+                        throw new IllegalArgumentException("Incomplete trailing escape pattern: " + value);
+                    }
+                    int high = Character.digit(value.charAt(index + 1), 16);
+                    int low = Character.digit(value.charAt(index + 2), 16);
+                    if (high < 0 || low < 0) {
+                        throw new IllegalArgumentException("Illegal hex characters in escape pattern: " + value);
+                    }
+                    bytes[count++] = (byte) ((high << 4) + low);
+                    index += 3;
+                }
+                result.append(new String(bytes, 0, count, StandardCharsets.UTF_8));
+            }
+        }
+        return result.toString();
+    }
+
+    /**
+     * Iterate over each item of query like text(eg. a=3&amp;b=qwe) in a single pass.
+     *
+     * <p>Names and values will not be decoded. Empty items will be skipped, and an item without {@code '='} will be
+     * treated as an item with empty value.
+     *
+     * @param text query like text
+     * @param action the action to be performed for each item
+     */
+    public static void forEachQueryLikeTextItem(String text, BiConsumer<String, String> action) {
+        int length = text.length();
+        int start = 0;
+        while (start < length) {
+            int end = text.indexOf('&', start);
+            if (end == -1) { end = length; }
+            if (end > start) {
+                int indexOfEqual = text.indexOf('=', start);
+                if (indexOfEqual == -1 || indexOfEqual > end) {
+                    action.accept(text.substring(start, end), "");
+                } else {
+                    action.accept(text.substring(start, indexOfEqual), text.substring(indexOfEqual + 1, end));
+                }
+            }
+            start = end + 1;
+        }
+    }
+
+    // #################### internal ####################################################
+
+    /**
+     * Get index of the first char that needs to be encoded.
+     *
+     * @param value value
+     * @return index of the first unsafe char, or -1 if there is nothing to encode
+     */
+    private static int indexOfFirstUnsafeChar(String value) {
+        for (int i = 0, length = value.length(); i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 128 || !SAFE_CHARS[c]) { return i; }
+        }
+        return -1;
+    }
+
+    /**
+     * Url encode the value from the specified index and append it to the target.
+     *
+     * @param target target
+     * @param value value
+     * @param index begin index
+     */
+    private static void encodeFrom(StringBuilder target, String value, int index) {
+        for (int length = value.length(); index < length; index++) {
+            char c = value.charAt(index);
+            if (c < 128) {
+                if (SAFE_CHARS[c]) {
+                    target.append(c);
+                } else if (c == ' ') {
+                    target.append('+');
+                } else {
+                    appendEscaped(target, c);
+                }
+            } else if (c < 0x800) {
+                appendEscaped(target, 0xC0 | (c >> 6));
+                appendEscaped(target, 0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && index + 1 < length
+                    && Character.isLowSurrogate(value.charAt(index + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++index));
+                appendEscaped(target, 0xF0 | (codePoint >> 18));
+                appendEscaped(target, 0x80 | ((codePoint >> 12) & 0x3F));
+                appendEscaped(target, 0x80 | ((codePoint >> 6) & 0x3F));
+                appendEscaped(target, 0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // malformed surrogate is replaced with '?', the same as URLEncoder
+                appendEscaped(target, '?');
+            } else {
+                appendEscaped(target, 0xE0 | (c >> 12));
+                appendEscaped(target, 0x80 | ((c >> 6) & 0x3F));
+                appendEscaped(target, 0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    /**
+     * Append escaped byte(eg. %2F) to the target.
+     *
+     * @param target target
+     * @param b byte
+     */
+    private static void appendEscaped(StringBuilder target, int b) {
+        target.append('%').append(HEX_DIGITS[(b >> 4) & 0xF]).append(HEX_DIGITS[b & 0xF]);
+    }
+
+}
@@ -15,6 +15,7 @@
  */
 package com.github.wautsns.okauth.core.assist.http.kernel.util;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -22,6 +23,8 @@ import com.fasterxml.jackson.databind.SerializationFeature;
 import com.github.wautsns.okauth.core.assist.http.kernel.model.basic.OAuth2UrlEncodedEntries;
 import lombok.experimental.UtilityClass;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 
 /**
@@ -36,6 +39,7 @@ public class WriteUtils {
     /** Jackson ObjectMapper. */
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
             .configure(JsonParser.Feature.AUTO_CLOSE_SOURCE, false)
+            .configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false)
             .configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
 
     /**
@@ -85,4 +89,17 @@ public class WriteUtils {
         }
     }
 
+    /**
+     * Write object as json to the output stream.
+     *
+     * <p><strong>The method will not close the output stream.</strong>
+     *
+     * @param object object
+     * @param outputStream output stream
+     * @throws IOException if IO exception occurs
+     */
+    public static void writeObjectAsJson(Object object, OutputStream outputStream) throws IOException {
+        OBJECT_MAPPER.writeValue(outputStream, object);
+    }
+
 }
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.okauth.core.assist.http.metrics;
+
+import com.github.wautsns.okauth.core.assist.http.kernel.OAuth2HttpClient;
+import com.github.wautsns.okauth.core.assist.http.kernel.model.OAuth2HttpRequest;
+import com.github.wautsns.okauth.core.assist.http.kernel.model.OAuth2HttpResponse;
+import com.github.wautsns.okauth.core.assist.http.kernel.model.basic.entity.OAuth2HttpEntity;
+import com.github.wautsns.okauth.core.exception.OAuth2ErrorException;
+import com.github.wautsns.okauth.core.exception.OAuth2IOException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Instrumented oauth2 http client.
+ *
+ * <p>The client decorates another oauth2 http client, and records latency, bytes, http status and oauth2 errors of
+ * requests to the {@linkplain OAuth2HttpMetricsRecorder recorder}(per open platform and endpoint).
+ *
+ * @author wautsns
+ * @since Oct 17, 2026
+ */
+@RequiredArgsConstructor
+public class InstrumentedOAuth2HttpClient implements OAuth2HttpClient {
+
+    /** Delegate. */
+    @Getter
+    private final OAuth2HttpClient delegate;
+    /** Open platform. */
+    private final String openPlatform;
+    /** Metrics recorder. */
+    private final OAuth2HttpMetricsRecorder recorder;
+
+    @Override
+    public OAuth2HttpResponse execute(OAuth2HttpRequest request) throws OAuth2IOException {
+        String endpoint = request.getUrl().getPureUrl();
+        long startNanos = System.nanoTime();
+        OAuth2HttpResponse response;
+        try {
+            response = delegate.execute(request);
+        } catch (OAuth2IOException | RuntimeException e) {
+            recorder.recordFailure(openPlatform, endpoint, System.nanoTime() - startNanos, e);
+            throw e;
+        }
+        return instrument(request, endpoint, response, System.nanoTime() - startNanos);
+    }
+
+    @Override
+    public CompletableFuture<OAuth2HttpResponse> executeAsync(OAuth2HttpRequest request) {
+        String endpoint = request.getUrl().getPureUrl();
+        long startNanos = System.nanoTime();
+        return delegate.executeAsync(request)
+                .whenComplete((response, throwable) -> {
+                    if (throwable == null) { return; }
+                    recorder.recordFailure(openPlatform, endpoint, System.nanoTime() - startNanos, throwable);
+                })
+                .thenApply(response -> instrument(request, endpoint, response, System.nanoTime() - startNanos));
+    }
+
+    @Override
+    public void onError(OAuth2ErrorException e) {
+        recorder.recordError(openPlatform, e.getErrorCode());
+        delegate.onError(e);
+    }
+
+    @Override
+    public void bindMetricsRecorder(OAuth2HttpMetricsRecorder recorder) {
+        delegate.bindMetricsRecorder(recorder);
+    }
+
+    /**
+     * Record the response and instrument it.
+     *
+     * @param request request
+     * @param endpoint endpoint
+     * @param response response
+     * @param latencyNanos latency in nanoseconds
+     * @return instrumented response
+     */
+    private OAuth2HttpResponse instrument(
+            OAuth2HttpRequest request, String endpoint, OAuth2HttpResponse response, long latencyNanos) {
+        OAuth2HttpEntity entity = request.getEntity();
+        long requestBytes = (entity == null) ? 0 : entity.getContentLength();
+        recorder.recordResponse(openPlatform, endpoint, response.getStatus(), latencyNanos, requestBytes);
+        return new InstrumentedOAuth2HttpResponse(response, bytes ->
+                recorder.recordResponseBytes(openPlatform, endpoint, bytes));
+    }
+
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.okauth.core.assist.http.metrics;
+
+import com.github.wautsns.okauth.core.assist.http.kernel.model.OAuth2HttpResponse;
+import com.github.wautsns.okauth.core.exception.OAuth2IOException;
+import lombok.RequiredArgsConstructor;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/**
+ * Instrumented oauth2 http response.
+ *
+ * <p>Bytes read from the input stream are counted, and will be passed to the consumer when the response is closed.
+ *
+ * @author wautsns
+ * @since Oct 17, 2026
+ */
+@RequiredArgsConstructor
+class InstrumentedOAuth2HttpResponse implements OAuth2HttpResponse {
+
+    /** Delegate. */
+    private final OAuth2HttpResponse delegate;
+    /** Consumer of response bytes. */
+    private final LongConsumer responseBytesConsumer;
+
+    /** Counting input stream. */
+    private CountingInputStream inputStream;
+    /** Whether the response has been closed. */
+    private boolean closed;
+
+    @Override
+    public int getStatus() {
+        return delegate.getStatus();
+    }
+
+    @Override
+    public String getHeader(String name) {
+        return delegate.getHeader(name);
+    }
+
+    @Override
+    public List<String> getHeaders(String name) {
+        return delegate.getHeaders(name);
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        if (inputStream != null) { return inputStream; }
+        inputStream = new CountingInputStream(delegate.getInputStream());
+        return inputStream;
+    }
+
+    @Override
+    public void close() throws OAuth2IOException {
+        try {
+            delegate.close();
+        } finally {
+            if (!closed) {
+                closed = true;
+                responseBytesConsumer.accept((inputStream == null) ? 0 : inputStream.count);
+            }
+        }
+    }
+
+    /** Input stream counting bytes read. */
+    private static class CountingInputStream extends FilterInputStream {
+
+        /** Count of bytes read. */
+        private long count;
+
+        /**
+         * Construct a counting input stream.
+         *
+         * @param in input stream
+         */
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) { count++; }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) { count += n; }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+    }
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.okauth.core.assist.http.metrics;
+
+/**
+ * OAuth2 http metrics recorder.
+ *
+ * <p>Methods will be invoked on the request path, implementations should be thread-safe and cheap(e.g. based on
+ * {@code LongAdder}).
+ *
+ * @author wautsns
+ * @since Oct 17, 2026
+ */
+public interface OAuth2HttpMetricsRecorder {
+
+    /**
+     * Record a response(when the response line and headers are received).
+     *
+     * @param openPlatform open platform
+     * @param endpoint endpoint(pure url of the request)
+     * @param status http status
+     * @param latencyNanos latency in nanoseconds
+     * @param requestBytes bytes of the request entity, {@code -1} if unknown
+     */
+    void recordResponse(String openPlatform, String endpoint, int status, long latencyNanos, long requestBytes);
+
+    /**
+     * Record bytes of a response entity(when the response is closed).
+     *
+     * @param openPlatform open platform
+     * @param endpoint endpoint(pure url of the request)
+     * @param responseBytes bytes of the response entity that have been read
+     */
+    void recordResponseBytes(String openPlatform, String endpoint, long responseBytes);
+
+    /**
+     * Record a failure(no response is received).
+     *
+     * @param openPlatform open platform
+     * @param endpoint endpoint(pure url of the request)
+     * @param latencyNanos latency in nanoseconds
+     * @param cause cause of the failure
+     */
+    void recordFailure(String openPlatform, String endpoint, long latencyNanos, Throwable cause);
+
+    /**
+     * Record an oauth2 error given by the open platform.
+     *
+     * @param openPlatform open platform
+     * @param errorCode error code
+     */
+    void recordError(String openPlatform, String errorCode);
+
+    /**
+     * Record waiting for a connection from the connection pool of the route.
+     *
+     * <p>Http clients without connection pool(or unable to measure it) never invoke this method. The default
+     * implementation does nothing.
+     *
+     * @param route route(such as {@code https://api.github.com:443})
+     * @param waitNanos wait time in nanoseconds
+     * @param leased {@code true} if a connection is leased, {@code false} if timed out(or interrupted)
+     */
+    default void recordConnectionLease(String route, long waitNanos, boolean leased) {}
+
+}
@@ -0,0 +1,297 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.okauth.core.assist.http.metrics.builtin;
+
+import com.github.wautsns.okauth.core.assist.http.metrics.OAuth2HttpMetricsRecorder;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * OAuth2 http metrics recorder based on {@code LongAdder}.
+ *
+ * <p>Recording is lock-free once the metrics of an endpoint exist. Latencies are recorded in a histogram with
+ * power-of-two buckets(in microseconds), so percentiles are approximate(upper bound of the bucket).
+ *
+ * @author wautsns
+ * @since Oct 17, 2026
+ */
+public class LongAdderOAuth2HttpMetricsRecorder implements OAuth2HttpMetricsRecorder {
+
+    /** Endpoint metrics(open platform -> endpoint -> metrics). */
+    private final ConcurrentMap<String, ConcurrentMap<String, EndpointMetrics>> endpointMetricsMap =
+            new ConcurrentHashMap<>();
+    /** Error counters(open platform -> error code -> counter). */
+    private final ConcurrentMap<String, ConcurrentMap<String, LongAdder>> errorCountersMap = new ConcurrentHashMap<>();
+    /** Connection lease metrics(route -> metrics). */
+    private final ConcurrentMap<String, ConnectionLeaseMetrics> connectionLeaseMetricsMap = new ConcurrentHashMap<>();
+
+    @Override
+    public void recordResponse(String openPlatform, String endpoint, int status, long latencyNanos, long requestBytes) {
+        EndpointMetrics endpointMetrics = getOrCreateEndpointMetrics(openPlatform, endpoint);
+        endpointMetrics.latency.record(latencyNanos);
+        int statusClass = status / 100;
+        endpointMetrics.statusCounters[(statusClass > 0 && statusClass < 6) ? statusClass : 0].increment();
+        if (requestBytes > 0) { endpointMetrics.requestBytes.add(requestBytes); }
+    }
+
+    @Override
+    public void recordResponseBytes(String openPlatform, String endpoint, long responseBytes) {
+        getOrCreateEndpointMetrics(openPlatform, endpoint).responseBytes.add(responseBytes);
+    }
+
+    @Override
+    public void recordFailure(String openPlatform, String endpoint, long latencyNanos, Throwable cause) {
+        EndpointMetrics endpointMetrics = getOrCreateEndpointMetrics(openPlatform, endpoint);
+        endpointMetrics.latency.record(latencyNanos);
+        endpointMetrics.failures.increment();
+    }
+
+    @Override
+    public void recordError(String openPlatform, String errorCode) {
+        ConcurrentMap<String, LongAdder> errorCounters =
+                getOrCreate(errorCountersMap, openPlatform, ignored -> new ConcurrentHashMap<>());
+        getOrCreate(errorCounters, String.valueOf(errorCode), ignored -> new LongAdder()).increment();
+    }
+
+    @Override
+    public void recordConnectionLease(String route, long waitNanos, boolean leased) {
+        ConnectionLeaseMetrics connectionLeaseMetrics =
+                getOrCreate(connectionLeaseMetricsMap, route, ConnectionLeaseMetrics::new);
+        connectionLeaseMetrics.waitTime.record(waitNanos);
+        if (!leased) { connectionLeaseMetrics.timeouts.increment(); }
+    }
+
+    // #################### query #######################################################
+
+    /**
+     * Get metrics of all endpoints.
+     *
+     * @return metrics of all endpoints
+     */
+    public Collection<EndpointMetrics> getAllEndpointMetrics() {
+        Collection<EndpointMetrics> all = new ArrayList<>();
+        endpointMetricsMap.values().forEach(map -> all.addAll(map.values()));
+        return all;
+    }
+
+    /**
+     * Get metrics of the endpoint.
+     *
+     * @param openPlatform open platform
+     * @param endpoint endpoint
+     * @return metrics of the endpoint, or {@code null} if no request has been recorded
+     */
+    public EndpointMetrics getEndpointMetrics(String openPlatform, String endpoint) {
+        ConcurrentMap<String, EndpointMetrics> map = endpointMetricsMap.get(openPlatform);
+        return (map == null) ? null : map.get(endpoint);
+    }
+
+    /**
+     * Get error counts of the open platform.
+     *
+     * @param openPlatform open platform
+     * @return error counts(error code -> count)
+     */
+    public Map<String, Long> getErrorCounts(String openPlatform) {
+        ConcurrentMap<String, LongAdder> errorCounters = errorCountersMap.get(openPlatform);
+        if (errorCounters == null) { return Collections.emptyMap(); }
+        Map<String, Long> errorCounts = new HashMap<>();
+        errorCounters.forEach((errorCode, counter) -> errorCounts.put(errorCode, counter.sum()));
+        return errorCounts;
+    }
+
+    /**
+     * Get connection lease metrics of the route.
+     *
+     * @param route route
+     * @return connection lease metrics of the route, or {@code null} if no lease has been recorded
+     */
+    public ConnectionLeaseMetrics getConnectionLeaseMetrics(String route) {
+        return connectionLeaseMetricsMap.get(route);
+    }
+
+    // #################### internal ####################################################
+
+    /**
+     * Get or create metrics of the endpoint.
+     *
+     * @param openPlatform open platform
+     * @param endpoint endpoint
+     * @return metrics of the endpoint
+     */
+    private EndpointMetrics getOrCreateEndpointMetrics(String openPlatform, String endpoint) {
+        ConcurrentMap<String, EndpointMetrics> map =
+                getOrCreate(endpointMetricsMap, openPlatform, ignored -> new ConcurrentHashMap<>());
+        return getOrCreate(map, endpoint, ignored -> new EndpointMetrics(openPlatform, endpoint));
+    }
+
+    /**
+     * Get or create value.
+     *
+     * <p>{@code ConcurrentHashMap#computeIfAbsent} locks the bin even if the key exists(before Java 9), so try
+     * {@code get} first.
+     *
+     * @param map map
+     * @param key key
+     * @param creator value creator
+     * @param <V> type of value
+     * @return value
+     */
+    private static <V> V getOrCreate(ConcurrentMap<String, V> map, String key, Function<String, V> creator) {
+        V value = map.get(key);
+        return (value != null) ? value : map.computeIfAbsent(key, creator);
+    }
+
+    // #################### metrics #####################################################
+
+    /** Metrics of an endpoint. */
+    @Getter
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class EndpointMetrics {
+
+        /** Open platform. */
+        private final String openPlatform;
+        /** Endpoint. */
+        private final String endpoint;
+        /** Latency histogram. */
+        private final LatencyHistogram latency = new LatencyHistogram();
+        /** Response counters(index is status class, 0 for abnormal status). */
+        @Getter(AccessLevel.NONE)
+        private final LongAdder[] statusCounters = initLongAdders(6);
+        /** Failures(no response is received). */
+        private final LongAdder failures = new LongAdder();
+        /** Request bytes. */
+        private final LongAdder requestBytes = new LongAdder();
+        /** Response bytes. */
+        private final LongAdder responseBytes = new LongAdder();
+
+        /**
+         * Get count of responses with the status class.
+         *
+         * @param statusClass status class, such as {@code 2} for {@code 2xx}
+         * @return count of responses
+         */
+        public long getResponseCount(int statusClass) {
+            return statusCounters[statusClass].sum();
+        }
+
+    }
+
+    /** Connection lease metrics of a route. */
+    @Getter
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class ConnectionLeaseMetrics {
+
+        /** Route. */
+        private final String route;
+        /** Wait time histogram. */
+        private final LatencyHistogram waitTime = new LatencyHistogram();
+        /** Timeouts(or interruptions). */
+        private final LongAdder timeouts = new LongAdder();
+
+    }
+
+    /** Latency histogram with power-of-two buckets(in microseconds). */
+    public static class LatencyHistogram {
+
+        /** Bucket count(the last bucket holds latencies longer than about 76 hours). */
+        private static final int BUCKET_COUNT = 40;
+
+        /** Buckets(bucket {@code i} counts latencies in {@code [2^(i-1), 2^i)} microseconds). */
+        private final LongAdder[] buckets = initLongAdders(BUCKET_COUNT);
+        /** Count. */
+        private final LongAdder count = new LongAdder();
+        /** Total nanos. */
+        private final LongAdder totalNanos = new LongAdder();
+        /** Max nanos. */
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        /**
+         * Record a latency.
+         *
+         * @param nanos latency in nanoseconds
+         */
+        private void record(long nanos) {
+            int index = 64 - Long.numberOfLeadingZeros(nanos / 1000);
+            buckets[Math.min(index, BUCKET_COUNT - 1)].increment();
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+
+        /**
+         * Get approximate latency at the percentile.
+         *
+         * @param percentile percentile, such as {@code 0.99}
+         * @return upper bound of the bucket that the percentile falls in(nanoseconds), or {@code 0} if no latency
+         *         has been recorded
+         */
+        public long getPercentileNanos(double percentile) {
+            long[] snapshot = new long[BUCKET_COUNT];
+            long total = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                snapshot[i] = buckets[i].sum();
+                total += snapshot[i];
+            }
+            if (total == 0) { return 0; }
+            long threshold = Math.max(1, (long) Math.ceil(percentile * total));
+            long cumulative = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                cumulative += snapshot[i];
+                if (cumulative >= threshold) { return Math.min((1L << i) * 1000, getMaxNanos()); }
+            }
+            return getMaxNanos();
+        }
+
+    }
+
+    /**
+     * Initialize long adders.
+     *
+     * @param length length
+     * @return long adders
+     */
+    private static LongAdder[] initLongAdders(int length) {
+        LongAdder[] adders = new LongAdder[length];
+        for (int i = 0; i < length; i++) { adders[i] = new LongAdder(); }
+        return adders;
+    }
+
+}
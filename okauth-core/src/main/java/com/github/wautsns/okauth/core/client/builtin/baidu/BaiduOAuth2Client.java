@@ -18,6 +18,7 @@ package com.github.wautsns.okauth.core.client.builtin.baidu;
 import com.github.wautsns.okauth.core.assist.http.builtin.httpclient4.HttpClient4OAuth2HttpClient;
 import com.github.wautsns.okauth.core.assist.http.kernel.OAuth2HttpClient;
 import com.github.wautsns.okauth.core.assist.http.kernel.model.OAuth2HttpRequest;
+import com.github.wautsns.okauth.core.assist.http.kernel.model.OAuth2HttpRequestTemplate;
 import com.github.wautsns.okauth.core.assist.http.kernel.model.OAuth2HttpResponse;
 import com.github.wautsns.okauth.core.assist.http.kernel.model.basic.DataMap;
 import com.github.wautsns.okauth.core.assist.http.kernel.model.basic.OAuth2Url;
@@ -29,10 +30,16 @@ import com.github.wautsns.okauth.core.client.kernel.api.ExchangeRedirectUriQuery
 import com.github.wautsns.okauth.core.client.kernel.api.ExchangeTokenForOpenid;
 import com.github.wautsns.okauth.core.client.kernel.api.ExchangeTokenForUser;
 import com.github.wautsns.okauth.core.client.kernel.api.RefreshToken;
+import com.github.wautsns.okauth.core.client.kernel.api.basic.OAuth2FunctionApi;
+import com.github.wautsns.okauth.core.client.kernel.model.OAuth2RedirectUriQuery;
+import com.github.wautsns.okauth.core.client.kernel.model.OAuth2Token;
+import com.github.wautsns.okauth.core.client.kernel.util.FutureUtils;
 import com.github.wautsns.okauth.core.exception.OAuth2ErrorException;
 import com.github.wautsns.okauth.core.exception.OAuth2Exception;
 import com.github.wautsns.okauth.core.exception.specific.token.ExpiredAccessTokenException;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Baidu oauth2 client.
  *
@@ -87,11 +94,7 @@ public class BaiduOAuth2Client
                 .add("force_login", extra.getForceLogin().value)
                 .add("confirm_login", extra.getConfirmLogin().value)
                 .add("login_type", extra.getLoginType().value);
-        return state -> {
-            OAuth2Url authorizeUrl = basic.copy();
-            authorizeUrl.getQuery().addState(state);
-            return authorizeUrl;
-        };
+        return InitializeAuthorizeUrl.appendState(basic);
     }
 
     @Override
@@ -103,11 +106,18 @@ public class BaiduOAuth2Client
                 .addClientId(appInfo.getApiKey())
                 .addClientSecret(appInfo.getSecretKey())
                 .addRedirectUri(appInfo.getRedirectUri());
-        return redirectUriQuery -> {
-            OAuth2HttpRequest request = basic.copy();
-            request.getUrl().getQuery().addCode(redirectUriQuery.getCode());
-            return new BaiduOAuth2Token(executeGetOrRefreshTokenAndCheck(request));
-        };
+        OAuth2HttpRequestTemplate template = new OAuth2HttpRequestTemplate(basic);
+        OAuth2FunctionApi<OAuth2RedirectUriQuery, OAuth2HttpRequest> requestInitializer =
+                redirectUriQuery -> template.bind()
+                        .addQuery("code", redirectUriQuery.getCode())
+                        .build();
+        return ExchangeRedirectUriQueryForToken.of(
+                redirectUriQuery -> new BaiduOAuth2Token(OAuth2Token.recordIssuedAt(
+                        executeGetOrRefreshTokenAndCheck(requestInitializer.execute(redirectUriQuery)))),
+                redirectUriQuery -> requestInitializer.executeAsync(redirectUriQuery)
+                        .thenCompose(this::executeGetOrRefreshTokenAndCheckAsync)
+                        .thenApply(OAuth2Token::recordIssuedAt)
+                        .thenApply(BaiduOAuth2Token::new));
     }
 
     @Override
@@ -119,27 +129,39 @@ public class BaiduOAuth2Client
                 .addClientId(appInfo.getApiKey())
                 .addClientSecret(appInfo.getSecretKey())
                 .addScope(BaiduOAuth2AppInfo.Scope.joinWith(appInfo.getScopes(), " "));
-        return token -> {
-            OAuth2HttpRequest request = basic.copy();
-            request.getUrl().getQuery().addRefreshToken(token.getRefreshToken());
-            return new BaiduOAuth2Token(executeGetOrRefreshTokenAndCheck(request));
-        };
+        OAuth2HttpRequestTemplate template = new OAuth2HttpRequestTemplate(basic);
+        OAuth2FunctionApi<BaiduOAuth2Token, OAuth2HttpRequest> requestInitializer = token -> template.bind()
+                .addQuery("refresh_token", token.getRefreshToken())
+                .build();
+        return RefreshToken.of(
+                token -> new BaiduOAuth2Token(OAuth2Token.recordIssuedAt(
+                        executeGetOrRefreshTokenAndCheck(requestInitializer.execute(token)))),
+                token -> requestInitializer.executeAsync(token)
+                        .thenCompose(this::executeGetOrRefreshTokenAndCheckAsync)
+                        .thenApply(OAuth2Token::recordIssuedAt)
+                        .thenApply(BaiduOAuth2Token::new));
     }
 
     @Override
     protected ExchangeTokenForOpenid<BaiduOAuth2Token> initApiExchangeTokenForOpenid() {
-        return token -> exchangeForUser(token).getOpenid();
+        return ExchangeTokenForOpenid.of(
+                token -> exchangeForUser(token).getOpenid(),
+                token -> exchangeForUserAsync(token).thenApply(BaiduOAuth2User::getOpenid));
     }
 
     @Override
     protected ExchangeTokenForUser<BaiduOAuth2Token, BaiduOAuth2User> initApiExchangeTokenForUser() {
         String url = "https://openapi.baidu.com/rest/2.0/passport/users/getInfo";
         OAuth2HttpRequest basic = OAuth2HttpRequest.initGet(url);
-        return token -> {
-            OAuth2HttpRequest request = basic.copy();
-            request.getUrl().getQuery().addAccessToken(token.getAccessToken());
-            return new BaiduOAuth2User(executeNotGetOrRefreshTokenAndCheck(request));
-        };
+        OAuth2HttpRequestTemplate template = new OAuth2HttpRequestTemplate(basic);
+        OAuth2FunctionApi<BaiduOAuth2Token, OAuth2HttpRequest> requestInitializer = token -> template.bind()
+                .addQuery("access_token", token.getAccessToken())
+                .build();
+        return ExchangeTokenForUser.of(
+                token -> new BaiduOAuth2User(executeNotGetOrRefreshTokenAndCheck(requestInitializer.execute(token))),
+                token -> requestInitializer.executeAsync(token)
+                        .thenCompose(this::executeNotGetOrRefreshTokenAndCheckAsync)
+                        .thenApply(BaiduOAuth2User::new));
     }
 
     // #################### execute request and check response ##########################
@@ -152,12 +174,33 @@ public class BaiduOAuth2Client
      * @throws OAuth2Exception if oauth2 failed
      */
     protected DataMap executeGetOrRefreshTokenAndCheck(OAuth2HttpRequest request) throws OAuth2Exception {
-        OAuth2HttpResponse response = httpClient.execute(request);
+        return checkGetOrRefreshTokenResponse(httpClient.execute(request));
+    }
+
+    /**
+     * Execute request that is GET_TOKEN or REFRESH_TOKEN asynchronously, and check response.
+     *
+     * @param request request
+     * @return future of correct data map
+     */
+    protected CompletableFuture<DataMap> executeGetOrRefreshTokenAndCheckAsync(OAuth2HttpRequest request) {
+        return httpClient.executeAsync(request)
+                .thenApply(FutureUtils.unchecked(this::checkGetOrRefreshTokenResponse));
+    }
+
+    /**
+     * Check response of request that is GET_TOKEN or REFRESH_TOKEN.
+     *
+     * @param response response
+     * @return correct data map
+     * @throws OAuth2Exception if oauth2 failed
+     */
+    protected DataMap checkGetOrRefreshTokenResponse(OAuth2HttpResponse response) throws OAuth2Exception {
         DataMap dataMap = response.readJsonAsDataMap();
         String error = dataMap.getAsString("error");
         if (error == null) { return dataMap; }
         String errorDescription = dataMap.getAsString("error_description");
-        throw new OAuth2ErrorException(getOpenPlatform(), error, errorDescription);
+        throw reportError(new OAuth2ErrorException(getOpenPlatform(), error, errorDescription));
     }
 
     /**
@@ -168,16 +211,37 @@ public class BaiduOAuth2Client
      * @throws OAuth2Exception if oauth2 failed
      */
     protected DataMap executeNotGetOrRefreshTokenAndCheck(OAuth2HttpRequest request) throws OAuth2Exception {
-        OAuth2HttpResponse response = httpClient.execute(request);
+        return checkNotGetOrRefreshTokenResponse(httpClient.execute(request));
+    }
+
+    /**
+     * Execute request that is neither GET_TOKEN nor REFRESH_TOKEN asynchronously, and check response.
+     *
+     * @param request request
+     * @return future of correct data map
+     */
+    protected CompletableFuture<DataMap> executeNotGetOrRefreshTokenAndCheckAsync(OAuth2HttpRequest request) {
+        return httpClient.executeAsync(request)
+                .thenApply(FutureUtils.unchecked(this::checkNotGetOrRefreshTokenResponse));
+    }
+
+    /**
+     * Check response of request that is neither GET_TOKEN nor REFRESH_TOKEN.
+     *
+     * @param response response
+     * @return correct data map
+     * @throws OAuth2Exception if oauth2 failed
+     */
+    protected DataMap checkNotGetOrRefreshTokenResponse(OAuth2HttpResponse response) throws OAuth2Exception {
         DataMap dataMap = response.readJsonAsDataMap();
         String errorCode = dataMap.getAsString("error_code");
         if (errorCode == null) { return dataMap; }
         String errorMsg = dataMap.getAsString("error_msg");
         if ("111".equals(errorCode)) {
-            throw new ExpiredAccessTokenException(getOpenPlatform(), errorCode, errorMsg);
+            throw reportError(new ExpiredAccessTokenException(getOpenPlatform(), errorCode, errorMsg));
         } else {
             // Baidu refresh token expires in 10 years.
-            throw new OAuth2ErrorException(getOpenPlatform(), errorCode, errorMsg);
+            throw reportError(new OAuth2ErrorException(getOpenPlatform(), errorCode, errorMsg));
         }
     }
 
@@ -18,6 +18,7 @@ package com.github.wautsns.okauth.core.client.builtin.dingtalk;
 import com.github.wautsns.okauth.core.assist.http.builtin.httpclient4.HttpClient4OAuth2HttpClient;
 import com.github.wautsns.okauth.core.assist.http.kernel.OAuth2HttpClient;
 import com.github.wautsns.okauth.core.assist.http.kernel.model.OAuth2HttpRequest;
+import com.github.wautsns.okauth.core.assist.http.kernel.model.OAuth2HttpRequestTemplate;
 import com.github.wautsns.okauth.core.assist.http.kernel.model.OAuth2HttpResponse;
 import com.github.wautsns.okauth.core.assist.http.kernel.model.basic.DataMap;
 import com.github.wautsns.okauth.core.assist.http.kernel.model.basic.OAuth2Url;
@@ -26,11 +27,16 @@ import com.github.wautsns.okauth.core.client.builtin.dingtalk.model.DingTalkOAut
 import com.github.wautsns.okauth.core.client.kernel.OAuth2Client;
 import com.github.wautsns.okauth.core.client.kernel.api.ExchangeRedirectUriQueryForOpenid;
 import com.github.wautsns.okauth.core.client.kernel.api.ExchangeRedirectUriQueryForUser;
+import com.github.wautsns.okauth.core.client.kernel.api.basic.OAuth2FunctionApi;
+import com.github.wautsns.okauth.core.client.kernel.model.OAuth2RedirectUriQuery;
 import com.github.wautsns.okauth.core.client.kernel.util.Encryptor;
 import com.github.wautsns.okauth.core.client.kernel.util.Encryptors;
+import com.github.wautsns.okauth.core.client.kernel.util.FutureUtils;
 import com.github.wautsns.okauth.core.exception.OAuth2ErrorException;
 import com.github.wautsns.okauth.core.exception.OAuth2Exception;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * DingTalk oauth2 client.
  *
@@ -69,11 +75,7 @@ public class DingTalkOAuth2Client extends OAuth2Client<DingTalkOAuth2AppInfo, Di
     @Override
     protected InitializeAuthorizeUrl initApiInitializeAuthorizeUrl() {
         OAuth2Url basic = initBasicAuthorizeUrl(appInfo.getAuthorizeType());
-        return state -> {
-            OAuth2Url authorizeUrl = basic.copy();
-            authorizeUrl.getQuery().addState(state);
-            return authorizeUrl;
-        };
+        return InitializeAuthorizeUrl.appendState(basic);
     }
 
     /**
@@ -145,7 +147,9 @@ public class DingTalkOAuth2Client extends OAuth2Client<DingTalkOAuth2AppInfo, Di
 
     @Override
     protected ExchangeRedirectUriQueryForOpenid initApiExchangeRedirectUriQueryForOpenid() {
-        return redirectUriQuery -> exchangeForUser(redirectUriQuery).getOpenid();
+        return ExchangeRedirectUriQueryForOpenid.of(
+                redirectUriQuery -> exchangeForUser(redirectUriQuery).getOpenid(),
+                redirectUriQuery -> exchangeForUserAsync(redirectUriQuery).thenApply(DingTalkOAuth2User::getOpenid));
     }
 
     @Override
@@ -154,15 +158,20 @@ public class DingTalkOAuth2Client extends OAuth2Client<DingTalkOAuth2AppInfo, Di
         OAuth2HttpRequest basic = OAuth2HttpRequest.initGet(url);
         basic.getUrl().getQuery().add("accessKey", appInfo.getAppId());
         Encryptor encryptor = Encryptors.hmacSha256(appInfo.getAppSecret());
-        return redirectUriQuery -> {
+        OAuth2HttpRequestTemplate template = new OAuth2HttpRequestTemplate(basic);
+        OAuth2FunctionApi<OAuth2RedirectUriQuery, OAuth2HttpRequest> requestInitializer = redirectUriQuery -> {
             String timestamp = Long.toString(System.currentTimeMillis());
-            OAuth2HttpRequest request = basic.copy();
-            request.getUrl().getQuery()
-                    .add("timestamp", timestamp)
-                    .add("signature", encryptor.encrypt(timestamp))
-                    .add("tmp_auth_code", redirectUriQuery.getCode());
-            return new DingTalkOAuth2User(executeAndCheck(request));
+            return template.bind()
+                    .addQuery("timestamp", timestamp)
+                    .addQuery("signature", encryptor.encrypt(timestamp))
+                    .addQuery("tmp_auth_code", redirectUriQuery.getCode())
+                    .build();
         };
+        return ExchangeRedirectUriQueryForUser.of(
+                redirectUriQuery -> new DingTalkOAuth2User(executeAndCheck(requestInitializer.execute(redirectUriQuery))),
+                redirectUriQuery -> requestInitializer.executeAsync(redirectUriQuery)
+                        .thenCompose(this::executeAndCheckAsync)
+                        .thenApply(DingTalkOAuth2User::new));
     }
 
     // #################### execute request and check response ##########################
@@ -175,7 +184,28 @@ public class DingTalkOAuth2Client extends OAuth2Client<DingTalkOAuth2AppInfo, Di
      * @throws OAuth2Exception if oauth2 failed
      */
     protected DataMap executeAndCheck(OAuth2HttpRequest request) throws OAuth2Exception {
-        OAuth2HttpResponse response = httpClient.execute(request);
+        return checkResponse(httpClient.execute(request));
+    }
+
+    /**
+     * Execute request asynchronously and check response.
+     *
+     * @param request request
+     * @return future of correct data map
+     */
+    protected CompletableFuture<DataMap> executeAndCheckAsync(OAuth2HttpRequest request) {
+        return httpClient.executeAsync(request)
+                .thenApply(FutureUtils.unchecked(this::checkResponse));
+    }
+
+    /**
+     * Check response.
+     *
+     * @param response response
+     * @return correct data map
+     * @throws OAuth2Exception if oauth2 failed
+     */
+    protected DataMap checkResponse(OAuth2HttpResponse response) throws OAuth2Exception {
         DataMap dataMap = response.readJsonAsDataMap();
         String errcode = dataMap.getAsString("errcode");
         String errmsg = dataMap.getAsString("errmsg");
@@ -185,9 +215,9 @@ public class DingTalkOAuth2Client extends OAuth2Client<DingTalkOAuth2AppInfo, Di
             case "88":
                 String subCode = dataMap.getAsString("sub_code");
                 String subMsg = dataMap.getAsString("sub_msg");
-                throw new OAuth2ErrorException(getOpenPlatform(), subCode, subMsg);
+                throw reportError(new OAuth2ErrorException(getOpenPlatform(), subCode, subMsg));
             default:
-                throw new OAuth2ErrorException(getOpenPlatform(), errcode, errmsg);
+                throw reportError(new OAuth2ErrorException(getOpenPlatform(), errcode, errmsg));
         }
     }
 
@@ -18,6 +18,7 @@ package com.github.wautsns.okauth.core.client.builtin.elemeshopisv;
 import com.github.wautsns.okauth.core.assist.http.builtin.httpclient4.HttpClient4OAuth2HttpClient;
 import com.github.wautsns.okauth.core.assist.http.kernel.OAuth2HttpClient;
 import com.github.wautsns.okauth.core.assist.http.kernel.model.OAuth2HttpRequest;
+import com.github.wautsns.okauth.core.assist.http.kernel.model.OAuth2HttpRequestTemplate;
 import com.github.wautsns.okauth.core.assist.http.kernel.model.OAuth2HttpResponse;
 import com.github.wautsns.okauth.core.assist.http.kernel.model.basic.DataMap;
 import com.github.wautsns.okauth.core.assist.http.kernel.model.basic.OAuth2Url;
@@ -31,7 +32,11 @@ import com.github.wautsns.okauth.core.client.kernel.api.ExchangeRedirectUriQuery
 import com.github.wautsns.okauth.core.client.kernel.api.ExchangeTokenForOpenid;
 import com.github.wautsns.okauth.core.client.kernel.api.ExchangeTokenForUser;
 import com.github.wautsns.okauth.core.client.kernel.api.RefreshToken;
+import com.github.wautsns.okauth.core.client.kernel.api.basic.OAuth2FunctionApi;
+import com.github.wautsns.okauth.core.client.kernel.model.OAuth2RedirectUriQuery;
+import com.github.wautsns.okauth.core.client.kernel.model.OAuth2Token;
 import com.github.wautsns.okauth.core.client.kernel.util.Encryptors;
+import com.github.wautsns.okauth.core.client.kernel.util.FutureUtils;
 import com.github.wautsns.okauth.core.exception.OAuth2ErrorException;
 import com.github.wautsns.okauth.core.exception.OAuth2Exception;
 import com.github.wautsns.okauth.core.exception.specific.token.InvalidAccessTokenException;
@@ -41,6 +46,7 @@ import java.io.Serializable;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 /**
@@ -92,11 +98,7 @@ public class ElemeShopIsvOAuth2Client
                 .addResponseTypeWithValueCode()
                 .addRedirectUri(appInfo.getRedirectUri())
                 .addScope("all");
-        return state -> {
-            OAuth2Url authorizeUrl = basic.copy();
-            authorizeUrl.getQuery().addState(state);
-            return authorizeUrl;
-        };
+        return InitializeAuthorizeUrl.appendState(basic);
     }
 
     @Override
@@ -108,20 +110,25 @@ public class ElemeShopIsvOAuth2Client
                 .addGrantTypeWithValueAuthorizationCode()
                 .addRedirectUri(appInfo.getRedirectUri())
                 .addClientId(appInfo.getKey());
-        Integer refreshTokenExpiresIn = getRefreshTokenExpiresInOfCurrentEnv();
-        return redirectUriQuery -> {
+        OAuth2HttpRequestTemplate template = new OAuth2HttpRequestTemplate(basic);
+        OAuth2FunctionApi<OAuth2RedirectUriQuery, OAuth2HttpRequest> requestInitializer = redirectUriQuery -> {
             String error = redirectUriQuery.getError();
             if (error != null) {
                 String errorDescription = redirectUriQuery.getErrorDescription();
                 throw new UserRefusedAuthorizationException(getOpenPlatform());
             } else {
-                OAuth2HttpRequest request = basic.copy();
-                request.getEntityFormUrlEncoded().addCode(redirectUriQuery.getCode());
-                ElemeShopIsvOAuth2Token token = new ElemeShopIsvOAuth2Token(executeGetOrRefreshTokenAndCheck(request));
-                token.getOriginalDataMap().put("refresh_token_expires_in", refreshTokenExpiresIn);
-                return token;
+                return template.bind()
+                        .addFormField("code", redirectUriQuery.getCode())
+                        .build();
             }
         };
+        return ExchangeRedirectUriQueryForToken.of(
+                redirectUriQuery -> initToken(OAuth2Token.recordIssuedAt(
+                        executeGetOrRefreshTokenAndCheck(requestInitializer.execute(redirectUriQuery)))),
+                redirectUriQuery -> requestInitializer.executeAsync(redirectUriQuery)
+                        .thenCompose(this::executeGetOrRefreshTokenAndCheckAsync)
+                        .thenApply(OAuth2Token::recordIssuedAt)
+                        .thenApply(this::initToken));
     }
 
     @Override
@@ -130,19 +137,24 @@ public class ElemeShopIsvOAuth2Client
         OAuth2HttpRequest basic = OAuth2HttpRequest.initPost(url);
         basic.getHeaders().addAuthorizationBasic(appInfo.getKey(), appInfo.getSecret());
         basic.getEntityFormUrlEncoded().addGrantTypeWithValueRefreshToken();
-        Integer refreshTokenExpiresIn = getRefreshTokenExpiresInOfCurrentEnv();
-        return token -> {
-            OAuth2HttpRequest request = basic.copy();
-            request.getEntityFormUrlEncoded().addRefreshToken(token.getRefreshToken());
-            token = new ElemeShopIsvOAuth2Token(executeGetOrRefreshTokenAndCheck(request));
-            token.getOriginalDataMap().put("refresh_token_expires_in", refreshTokenExpiresIn);
-            return token;
-        };
+        OAuth2HttpRequestTemplate template = new OAuth2HttpRequestTemplate(basic);
+        OAuth2FunctionApi<ElemeShopIsvOAuth2Token, OAuth2HttpRequest> requestInitializer = token -> template.bind()
+                .addFormField("refresh_token", token.getRefreshToken())
+                .build();
+        return RefreshToken.of(
+                token -> initToken(OAuth2Token.recordIssuedAt(
+                        executeGetOrRefreshTokenAndCheck(requestInitializer.execute(token)))),
+                token -> requestInitializer.executeAsync(token)
+                        .thenCompose(this::executeGetOrRefreshTokenAndCheckAsync)
+                        .thenApply(OAuth2Token::recordIssuedAt)
+                        .thenApply(this::initToken));
     }
 
     @Override
     protected ExchangeTokenForOpenid<ElemeShopIsvOAuth2Token> initApiExchangeTokenForOpenid() {
-        return token -> exchangeForUser(token).getOpenid();
+        return ExchangeTokenForOpenid.of(
+                token -> exchangeForUser(token).getOpenid(),
+                token -> exchangeForUserAsync(token).thenApply(ElemeShopIsvOAuth2User::getOpenid));
     }
 
     @Override
@@ -150,22 +162,41 @@ public class ElemeShopIsvOAuth2Client
         String url = getHostOfCurrentEnv() + "/api/v1/";
         OAuth2HttpRequest basic = OAuth2HttpRequest.initPost(url);
         basic.getHeaders().addContentTypeWithValueJson();
-        basic.getEntityJson()
+        OAuth2HttpJsonEntity basicEntity = basic.getEntityJson()
                 .putUnchangedValue("nop", "1.0.0")
                 .putUnchangedValue("id", "useless")
                 .putUnchangedValue("action", "eleme.user.getUser")
                 .putUnchangedValue("params", (Serializable) Collections.emptyMap());
-        return token -> {
-            OAuth2HttpRequest request = basic.copy();
+        OAuth2HttpRequestTemplate template = new OAuth2HttpRequestTemplate(basic);
+        OAuth2FunctionApi<ElemeShopIsvOAuth2Token, OAuth2HttpRequest> requestInitializer = token -> {
+            // the json entity is signed with the dynamic values, so it is built for each request
+            OAuth2HttpJsonEntity entity = basicEntity.copy();
             DataMap metas = new DataMap(2, 1f)
                     .with("app_key", appInfo.getKey())
                     .with("timestamp", System.currentTimeMillis());
-            request.getEntityJson()
-                    .putUnchangedValue("token", token.getAccessToken())
+            entity.putUnchangedValue("token", token.getAccessToken())
                     .putUnchangedValue("metas", metas);
-            sign(request.getEntityJson());
-            return new ElemeShopIsvOAuth2User(executeNotGetOrRefreshTokenAndCheck(request));
+            sign(entity);
+            return template.bind().setEntity(entity).build();
         };
+        return ExchangeTokenForUser.of(
+                token -> new ElemeShopIsvOAuth2User(
+                        executeNotGetOrRefreshTokenAndCheck(requestInitializer.execute(token))),
+                token -> requestInitializer.executeAsync(token)
+                        .thenCompose(this::executeNotGetOrRefreshTokenAndCheckAsync)
+                        .thenApply(ElemeShopIsvOAuth2User::new));
+    }
+
+    /**
+     * Initialize token with the correct data map.
+     *
+     * @param dataMap correct data map
+     * @return token
+     */
+    protected ElemeShopIsvOAuth2Token initToken(DataMap dataMap) {
+        ElemeShopIsvOAuth2Token token = new ElemeShopIsvOAuth2Token(dataMap);
+        token.getOriginalDataMap().put("refresh_token_expires_in", getRefreshTokenExpiresInOfCurrentEnv());
+        return token;
     }
 
     /**
@@ -237,16 +268,37 @@ public class ElemeShopIsvOAuth2Client
      * @throws OAuth2Exception if oauth2 failed
      */
     protected DataMap executeGetOrRefreshTokenAndCheck(OAuth2HttpRequest request) throws OAuth2Exception {
-        OAuth2HttpResponse response = httpClient.execute(request);
+        return checkGetOrRefreshTokenResponse(httpClient.execute(request));
+    }
+
+    /**
+     * Execute request that is GET_TOKEN or REFRESH_TOKEN asynchronously, and check response.
+     *
+     * @param request request
+     * @return future of correct data map
+     */
+    protected CompletableFuture<DataMap> executeGetOrRefreshTokenAndCheckAsync(OAuth2HttpRequest request) {
+        return httpClient.executeAsync(request)
+                .thenApply(FutureUtils.unchecked(this::checkGetOrRefreshTokenResponse));
+    }
+
+    /**
+     * Check response of request that is GET_TOKEN or REFRESH_TOKEN.
+     *
+     * @param response response
+     * @return correct data map
+     * @throws OAuth2Exception if oauth2 failed
+     */
+    protected DataMap checkGetOrRefreshTokenResponse(OAuth2HttpResponse response) throws OAuth2Exception {
         DataMap dataMap = response.readJsonAsDataMap();
         String error = dataMap.getAsString("error");
         String errorDescription = dataMap.getAsString("error_description");
         if (error == null) {
             return dataMap.getAsDataMap("result");
         } else if ("UNAUTHORIZED".equals(error)) {
-            throw new InvalidAccessTokenException(getOpenPlatform(), error, errorDescription);
+            throw reportError(new InvalidAccessTokenException(getOpenPlatform(), error, errorDescription));
         } else {
-            throw new OAuth2ErrorException(getOpenPlatform(), error, errorDescription);
+            throw reportError(new OAuth2ErrorException(getOpenPlatform(), error, errorDescription));
         }
     }
 
@@ -258,16 +310,37 @@ public class ElemeShopIsvOAuth2Client
      * @throws OAuth2Exception if oauth2 failed
      */
     protected DataMap executeNotGetOrRefreshTokenAndCheck(OAuth2HttpRequest request) throws OAuth2Exception {
-        OAuth2HttpResponse response = httpClient.execute(request);
+        return checkNotGetOrRefreshTokenResponse(httpClient.execute(request));
+    }
+
+    /**
+     * Execute request that is neither GET_TOKEN nor REFRESH_TOKEN asynchronously, and check response.
+     *
+     * @param request request
+     * @return future of correct data map
+     */
+    protected CompletableFuture<DataMap> executeNotGetOrRefreshTokenAndCheckAsync(OAuth2HttpRequest request) {
+        return httpClient.executeAsync(request)
+                .thenApply(FutureUtils.unchecked(this::checkNotGetOrRefreshTokenResponse));
+    }
+
+    /**
+     * Check response of request that is neither GET_TOKEN nor REFRESH_TOKEN.
+     *
+     * @param response response
+     * @return correct data map
+     * @throws OAuth2Exception if oauth2 failed
+     */
+    protected DataMap checkNotGetOrRefreshTokenResponse(OAuth2HttpResponse response) throws OAuth2Exception {
         DataMap dataMap = response.readJsonAsDataMap();
         DataMap errorDataMap = dataMap.getAsDataMap("error");
         if (errorDataMap == null) { return dataMap.getAsDataMap("result"); }
         String code = errorDataMap.getAsString("code");
         String message = errorDataMap.getAsString("message");
         if ("UNAUTHORIZED".equals(code)) {
-            throw new InvalidAccessTokenException(getOpenPlatform(), code, message);
+            throw reportError(new InvalidAccessTokenException(getOpenPlatform(), code, message));
         } else {
-            throw new OAuth2ErrorException(getOpenPlatform(), code, message);
+            throw reportError(new OAuth2ErrorException(getOpenPlatform(), code, message));
         }
     }
 
@@ -18,6 +18,7 @@ package com.github.wautsns.okauth.core.client.builtin.gitee;
 import com.github.wautsns.okauth.core.assist.http.builtin.httpclient4.HttpClient4OAuth2HttpClient;
 import com.github.wautsns.okauth.core.assist.http.kernel.OAuth2HttpClient;
 import com.github.wautsns.okauth.core.assist.http.kernel.model.OAuth2HttpRequest;
+import com.github.wautsns.okauth.core.assist.http.kernel.model.OAuth2HttpRequestTemplate;
 import com.github.wautsns.okauth.core.assist.http.kernel.model.OAuth2HttpResponse;
 import com.github.wautsns.okauth.core.assist.http.kernel.model.basic.DataMap;
 import com.github.wautsns.okauth.core.assist.http.kernel.model.basic.OAuth2Url;
@@ -29,11 +30,19 @@ import com.github.wautsns.okauth.core.client.kernel.api.ExchangeRedirectUriQuery
 import com.github.wautsns.okauth.core.client.kernel.api.ExchangeTokenForOpenid;
 import com.github.wautsns.okauth.core.client.kernel.api.ExchangeTokenForUser;
 import com.github.wautsns.okauth.core.client.kernel.api.RefreshToken;
+import com.github.wautsns.okauth.core.client.kernel.api.basic.OAuth2FunctionApi;
+import com.github.wautsns.okauth.core.client.kernel.model.OAuth2RedirectUriQuery;
+import com.github.wautsns.okauth.core.client.kernel.model.OAuth2Token;
+import com.github.wautsns.okauth.core.client.kernel.util.FutureUtils;
 import com.github.wautsns.okauth.core.exception.OAuth2ErrorException;
 import com.github.wautsns.okauth.core.exception.OAuth2Exception;
+import com.github.wautsns.okauth.core.exception.OAuth2IOException;
 import com.github.wautsns.okauth.core.exception.specific.token.ExpiredAccessTokenException;
 import com.github.wautsns.okauth.core.exception.specific.token.ExpiredRefreshTokenException;
 
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Gitee oauth2 client.
  *
@@ -82,11 +91,7 @@ public class GiteeOAuth2Client
                 .addRedirectUri(appInfo.getRedirectUri())
                 .addResponseTypeWithValueCode()
                 .addScope(GiteeOAuth2AppInfo.Scope.joinWith(appInfo.getScopes(), " "));
-        return state -> {
-            OAuth2Url authorizeUrl = basic.copy();
-            authorizeUrl.getQuery().addState(state);
-            return authorizeUrl;
-        };
+        return InitializeAuthorizeUrl.appendState(basic);
     }
 
     @Override
@@ -98,11 +103,18 @@ public class GiteeOAuth2Client
                 .addClientId(appInfo.getClientId())
                 .addClientSecret(appInfo.getClientSecret())
                 .addRedirectUri(appInfo.getRedirectUri());
-        return redirectUriQuery -> {
-            OAuth2HttpRequest request = basic.copy();
-            request.getUrl().getQuery().addCode(redirectUriQuery.getCode());
-            return new GiteeOAuth2Token(executeGetOrRefreshTokenAndCheck(request));
-        };
+        OAuth2HttpRequestTemplate template = new OAuth2HttpRequestTemplate(basic);
+        OAuth2FunctionApi<OAuth2RedirectUriQuery, OAuth2HttpRequest> requestInitializer =
+                redirectUriQuery -> template.bind()
+                        .addQuery("code", redirectUriQuery.getCode())
+                        .build();
+        return ExchangeRedirectUriQueryForToken.of(
+                redirectUriQuery -> new GiteeOAuth2Token(OAuth2Token.recordIssuedAt(
+                        executeGetOrRefreshTokenAndCheck(requestInitializer.execute(redirectUriQuery)))),
+                redirectUriQuery -> requestInitializer.executeAsync(redirectUriQuery)
+                        .thenCompose(this::executeGetOrRefreshTokenAndCheckAsync)
+                        .thenApply(OAuth2Token::recordIssuedAt)
+                        .thenApply(GiteeOAuth2Token::new));
     }
 
     @Override
@@ -110,27 +122,41 @@ public class GiteeOAuth2Client
         String url = "https://gitee.com/oauth/token";
         OAuth2HttpRequest basic = OAuth2HttpRequest.initPost(url);
         basic.getUrl().getQuery().addGrantTypeWithValueRefreshToken();
-        return token -> {
-            OAuth2HttpRequest request = basic.copy();
-            request.getUrl().getQuery().addRefreshToken(token.getRefreshToken());
-            return new GiteeOAuth2Token(executeGetOrRefreshTokenAndCheck(request));
-        };
+        OAuth2HttpRequestTemplate template = new OAuth2HttpRequestTemplate(basic);
+        OAuth2FunctionApi<GiteeOAuth2Token, OAuth2HttpRequest> requestInitializer = token -> template.bind()
+                .addQuery("refresh_token", token.getRefreshToken())
+                .build();
+        return RefreshToken.of(
+                token -> new GiteeOAuth2Token(OAuth2Token.recordIssuedAt(
+                        executeGetOrRefreshTokenAndCheck(requestInitializer.execute(token)))),
+                token -> requestInitializer.executeAsync(token)
+                        .thenCompose(this::executeGetOrRefreshTokenAndCheckAsync)
+                        .thenApply(OAuth2Token::recordIssuedAt)
+                        .thenApply(GiteeOAuth2Token::new));
     }
 
     @Override
     protected ExchangeTokenForOpenid<GiteeOAuth2Token> initApiExchangeTokenForOpenid() {
-        return token -> exchangeForUser(token).getOpenid();
+        return ExchangeTokenForOpenid.of(
+                token -> exchangeForUser(token).getOpenid(),
+                token -> exchangeForUserAsync(token).thenApply(GiteeOAuth2User::getOpenid));
     }
 
     @Override
     protected ExchangeTokenForUser<GiteeOAuth2Token, GiteeOAuth2User> initApiExchangeTokenForUser() {
         String url = "https://gitee.com/api/v5/user";
         OAuth2HttpRequest basic = OAuth2HttpRequest.initGet(url);
-        return token -> {
-            OAuth2HttpRequest request = basic.copy();
-            request.getUrl().getQuery().addAccessToken(token.getAccessToken());
-            return new GiteeOAuth2User(executeNotGetOrRefreshTokenAndCheck(request));
-        };
+        OAuth2HttpRequestTemplate template = new OAuth2HttpRequestTemplate(basic);
+        OAuth2FunctionApi<GiteeOAuth2Token, OAuth2HttpRequest> requestInitializer = token -> template.bind()
+                .addQuery("access_token", token.getAccessToken())
+                .build();
+        return ExchangeTokenForUser.of(
+                token -> executeConditionallyAndCheck(
+                        requestInitializer.execute(token), initValidatorKey("user", token),
+                        this::checkExchangeTokenForUserResponse),
+                token -> requestInitializer.executeAsync(token)
+                        .thenCompose(request -> executeConditionallyAndCheckAsync(
+                                request, initValidatorKey("user", token), this::checkExchangeTokenForUserResponse)));
     }
 
     // #################### execute request and check response ##########################
@@ -143,15 +169,36 @@ public class GiteeOAuth2Client
      * @throws OAuth2Exception if oauth2 failed
      */
     protected DataMap executeGetOrRefreshTokenAndCheck(OAuth2HttpRequest request) throws OAuth2Exception {
-        OAuth2HttpResponse response = httpClient.execute(request);
+        return checkGetOrRefreshTokenResponse(httpClient.execute(request));
+    }
+
+    /**
+     * Execute request that is GET_TOKEN or REFRESH_TOKEN asynchronously, and check response.
+     *
+     * @param request request
+     * @return future of correct data map
+     */
+    protected CompletableFuture<DataMap> executeGetOrRefreshTokenAndCheckAsync(OAuth2HttpRequest request) {
+        return httpClient.executeAsync(request)
+                .thenApply(FutureUtils.unchecked(this::checkGetOrRefreshTokenResponse));
+    }
+
+    /**
+     * Check response of request that is GET_TOKEN or REFRESH_TOKEN.
+     *
+     * @param response response
+     * @return correct data map
+     * @throws OAuth2Exception if oauth2 failed
+     */
+    protected DataMap checkGetOrRefreshTokenResponse(OAuth2HttpResponse response) throws OAuth2Exception {
         DataMap dataMap = response.readJsonAsDataMap();
         String error = dataMap.getAsString("error");
         if (error == null) { return dataMap; }
         String errorDescription = dataMap.getAsString("error_description");
         if ("invalid_grant".equals(error)) {
-            throw new ExpiredRefreshTokenException(getOpenPlatform(), error, errorDescription);
+            throw reportError(new ExpiredRefreshTokenException(getOpenPlatform(), error, errorDescription));
         } else {
-            throw new OAuth2ErrorException(getOpenPlatform(), error, errorDescription);
+            throw reportError(new OAuth2ErrorException(getOpenPlatform(), error, errorDescription));
         }
     }
 
@@ -163,15 +210,92 @@ public class GiteeOAuth2Client
      * @throws OAuth2Exception if oauth2 failed
      */
     protected DataMap executeNotGetOrRefreshTokenAndCheck(OAuth2HttpRequest request) throws OAuth2Exception {
-        OAuth2HttpResponse response = httpClient.execute(request);
+        return checkNotGetOrRefreshTokenResponse(httpClient.execute(request));
+    }
+
+    /**
+     * Execute request that is neither GET_TOKEN nor REFRESH_TOKEN asynchronously, and check response.
+     *
+     * @param request request
+     * @return future of correct data map
+     */
+    protected CompletableFuture<DataMap> executeNotGetOrRefreshTokenAndCheckAsync(OAuth2HttpRequest request) {
+        return httpClient.executeAsync(request)
+                .thenApply(FutureUtils.unchecked(this::checkNotGetOrRefreshTokenResponse));
+    }
+
+    /**
+     * Check response of request that is neither GET_TOKEN nor REFRESH_TOKEN.
+     *
+     * @param response response
+     * @return correct data map
+     * @throws OAuth2Exception if oauth2 failed
+     */
+    protected DataMap checkNotGetOrRefreshTokenResponse(OAuth2HttpResponse response) throws OAuth2Exception {
         DataMap dataMap = response.readJsonAsDataMap();
         if (response.getStatus() < 400) { return dataMap; }
+        throw initNotGetOrRefreshTokenException(dataMap);
+    }
+
+    /**
+     * Execute request that is EXCHANGE_TOKEN_FOR_USER, and check response.
+     *
+     * @param request request
+     * @return user
+     * @throws OAuth2Exception if oauth2 failed
+     */
+    protected GiteeOAuth2User executeExchangeTokenForUserAndCheck(OAuth2HttpRequest request)
+            throws OAuth2Exception {
+        return checkExchangeTokenForUserResponse(httpClient.execute(request));
+    }
+
+    /**
+     * Execute request that is EXCHANGE_TOKEN_FOR_USER asynchronously, and check response.
+     *
+     * @param request request
+     * @return future of user
+     */
+    protected CompletableFuture<GiteeOAuth2User> executeExchangeTokenForUserAndCheckAsync(OAuth2HttpRequest request) {
+        return httpClient.executeAsync(request)
+                .thenApply(FutureUtils.unchecked(this::checkExchangeTokenForUserResponse));
+    }
+
+    /**
+     * Check response of request that is EXCHANGE_TOKEN_FOR_USER.
+     *
+     * <p>The user is decoded from the response bytes directly(without intermediate data map).
+     *
+     * @param response response
+     * @return user
+     * @throws OAuth2Exception if oauth2 failed
+     */
+    protected GiteeOAuth2User checkExchangeTokenForUserResponse(OAuth2HttpResponse response)
+            throws OAuth2Exception {
+        if (response.getStatus() >= 400) {
+            throw initNotGetOrRefreshTokenException(response.readJsonAsDataMap());
+        }
+        try {
+            return GiteeOAuth2User.readJson(response.readInputStreamAsBytes());
+        } catch (IOException e) {
+            throw new OAuth2IOException(e);
+        }
+    }
+
+    /**
+     * Initialize exception for error response of request that is neither GET_TOKEN nor REFRESH_TOKEN.
+     *
+     * @param dataMap data map of error response
+     * @return oauth2 error exception
+     */
+    private OAuth2ErrorException initNotGetOrRefreshTokenException(DataMap dataMap) {
         String message = dataMap.getAsString("message");
         if ("401 Unauthorized: Access token is expired".equals(message)) {
-            throw new ExpiredAccessTokenException(getOpenPlatform(), "401 Unauthorized", "Access token is expired");
+            return reportError(new ExpiredAccessTokenException(
+                    getOpenPlatform(), "401 Unauthorized", "Access token is expired"));
         } else {
             String[] errorAndDescription = message.split(": ", 2);
-            throw new OAuth2ErrorException(getOpenPlatform(), errorAndDescription[0], errorAndDescription[1]);
+            return reportError(new OAuth2ErrorException(
+                    getOpenPlatform(), errorAndDescription[0], errorAndDescription[1]));
         }
     }
 
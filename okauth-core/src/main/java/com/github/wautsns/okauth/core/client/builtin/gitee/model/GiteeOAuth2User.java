@@ -15,12 +15,23 @@
  */
 package com.github.wautsns.okauth.core.client.builtin.gitee.model;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.github.wautsns.okauth.core.assist.http.kernel.model.basic.DataMap;
+import com.github.wautsns.okauth.core.assist.http.kernel.util.ReadUtils;
+import com.github.wautsns.okauth.core.assist.http.kernel.util.WriteUtils;
 import com.github.wautsns.okauth.core.client.builtin.BuiltInOpenPlatformNames;
 import com.github.wautsns.okauth.core.client.kernel.model.OAuth2User;
-import lombok.Data;
-
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamException;
+import java.io.ObjectStreamField;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 
 /**
  * Gitee oauth2 user.
@@ -59,138 +70,110 @@ import java.time.LocalDateTime;
  * }
  * </pre>
  *
+ * <p>Fields are decoded once(with a streaming json parser), and the original data map is initialized lazily.
+ * <p>The serialized form is kept as before(only the original data map), so that users serialized by older versions
+ * can still be deserialized, and vice versa.
+ *
  * @author wautsns
  * @since May 17, 2020
  */
-@Data
+@Getter
 public class GiteeOAuth2User implements OAuth2User {
 
     private static final long serialVersionUID = -2925874836823140573L;
-
-    /** Original data map. */
-    private final DataMap originalDataMap;
+    /** Serialized fields(the same as older versions). */
+    private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField("originalDataMap", DataMap.class)
+    };
+
+    /** Original json bytes. */
+    @Getter(AccessLevel.NONE)
+    private final byte[] originalJson;
+    /** Original data map(initialized lazily). */
+    @Getter(AccessLevel.NONE)
+    private transient volatile DataMap originalDataMap;
+
+    private String id;
+    private String login;
+    private String name;
+    private String avatarUrl;
+    private String url;
+    private String htmlUrl;
+    private String followersUrl;
+    private String followingUrl;
+    private String gistsUrl;
+    private String starredUrl;
+    private String subscriptionsUrl;
+    private String organizationsUrl;
+    private String reposUrl;
+    private String eventsUrl;
+    private String receivedEventsUrl;
+    private String type;
+    private Boolean siteAdmin;
+    private String blog;
+    private String weibo;
+    private String bio;
+    private Integer publicRepos;
+    private Integer publicGists;
+    private Integer followers;
+    private Integer followings;
+    private Integer stared;
+    private Integer watched;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private String email;
+
+    /**
+     * Construct a Gitee oauth2 user.
+     *
+     * @param originalDataMap original data map
+     */
+    public GiteeOAuth2User(DataMap originalDataMap) {
+        this(WriteUtils.writeObjectAsJsonBytes(originalDataMap));
+        this.originalDataMap = originalDataMap;
+        try {
+            ReadUtils.readJsonFields(originalJson, this::readJsonField);
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    /**
+     * Construct a Gitee oauth2 user.
+     *
+     * @param originalJson original json bytes
+     */
+    private GiteeOAuth2User(byte[] originalJson) {
+        this.originalJson = originalJson;
+    }
+
+    /**
+     * Read json bytes as Gitee oauth2 user.
+     *
+     * @param originalJson original json bytes
+     * @return Gitee oauth2 user
+     * @throws IOException if the json is malformed
+     */
+    public static GiteeOAuth2User readJson(byte[] originalJson) throws IOException {
+        GiteeOAuth2User user = new GiteeOAuth2User(originalJson);
+        ReadUtils.readJsonFields(originalJson, user::readJsonField);
+        return user;
+    }
 
     @Override
     public String getOpenPlatform() {
         return BuiltInOpenPlatformNames.GITEE;
     }
 
-    public String getId() {
-        return originalDataMap.getAsString("id");
-    }
-
-    public String getLogin() {
-        return originalDataMap.getAsString("login");
-    }
-
-    public String getName() {
-        return originalDataMap.getAsString("name");
-    }
-
-    @Override
-    public String getAvatarUrl() {
-        return originalDataMap.getAsString("avatar_url");
-    }
-
-    public String getUrl() {
-        return originalDataMap.getAsString("url");
-    }
-
-    public String getHtmlUrl() {
-        return originalDataMap.getAsString("html_url");
-    }
-
-    public String getFollowersUrl() {
-        return originalDataMap.getAsString("followers_url");
-    }
-
-    public String getFollowingUrl() {
-        return originalDataMap.getAsString("following_url");
-    }
-
-    public String getGistsUrl() {
-        return originalDataMap.getAsString("gists_url");
-    }
-
-    public String getStarredUrl() {
-        return originalDataMap.getAsString("starredUrl");
-    }
-
-    public String getSubscriptionsUrl() {
-        return originalDataMap.getAsString("subscriptions_url");
-    }
-
-    public String getOrganizationsUrl() {
-        return originalDataMap.getAsString("organizations_url");
-    }
-
-    public String getReposUrl() {
-        return originalDataMap.getAsString("repos_url");
-    }
-
-    public String getEventsUrl() {
-        return originalDataMap.getAsString("events_url");
-    }
-
-    public String getReceivedEventsUrl() {
-        return originalDataMap.getAsString("received_events_url");
-    }
-
-    public String getType() {
-        return originalDataMap.getAsString("type");
-    }
-
-    public Boolean getSiteAdmin() {
-        return originalDataMap.getAsBoolean("site_admin");
-    }
-
-    public String getBlog() {
-        return originalDataMap.getAsString("blog");
-    }
-
-    public String getWeibo() {
-        return originalDataMap.getAsString("weibo");
-    }
-
-    public String getBio() {
-        return originalDataMap.getAsString("bio");
-    }
-
-    public Integer getPublicRepos() {
-        return originalDataMap.getAsInteger("public_repos");
-    }
-
-    public Integer getPublicGists() {
-        return originalDataMap.getAsInteger("public_gists");
-    }
-
-    public Integer getFollowers() {
-        return originalDataMap.getAsInteger("followers");
-    }
-
-    public Integer getFollowings() {
-        return originalDataMap.getAsInteger("followings");
-    }
-
-    public Integer getStared() {
-        return originalDataMap.getAsInteger("stared");
-    }
-
-    public Integer getWatched() {
-        return originalDataMap.getAsInteger("watched");
-    }
-
-    public LocalDateTime getCreatedAt() {
-        return originalDataMap.getAsLocalDateTime("created_at");
-    }
-
-    public LocalDateTime getUpdatedAt() {
-        return originalDataMap.getAsLocalDateTime("updated_at");
-    }
-
     @Override
-    public String getEmail() {
-        return originalDataMap.getAsString("email");
+    public DataMap getOriginalDataMap() {
+        if (originalDataMap != null) { return originalDataMap; }
+        try {
+            originalDataMap = ReadUtils.readJsonAsDataMap(originalJson);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return originalDataMap;
     }
 
     // #################### amendment ###################################################
@@ -215,4 +198,174 @@ public class GiteeOAuth2User implements OAuth2User {
         return getName();
     }
 
+    // #################### serialization ###############################################
+
+    /**
+     * Write the user in the serialized form of older versions.
+     *
+     * @param out object output stream
+     * @throws IOException if IO exception occurs
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("originalDataMap", getOriginalDataMap());
+        out.writeFields();
+    }
+
+    /**
+     * Read the user from the serialized form of older versions.
+     *
+     * @param in object input stream
+     * @throws IOException if IO exception occurs
+     * @throws ClassNotFoundException if class of a serialized object cannot be found
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        this.originalDataMap = (DataMap) fields.get("originalDataMap", null);
+    }
+
+    /**
+     * Rebuild the original json and fields from the deserialized original data map.
+     *
+     * @return Gitee oauth2 user
+     * @throws ObjectStreamException if the original data map is absent
+     */
+    private Object readResolve() throws ObjectStreamException {
+        if (originalDataMap == null) { throw new InvalidObjectException("Original data map is absent."); }
+        return new GiteeOAuth2User(originalDataMap);
+    }
+
+    // #################### internal ####################################################
+
+    /**
+     * Read json field.
+     *
+     * @param fieldName field name
+     * @param parser json parser
+     * @return {@code true} if the value has been consumed, otherwise {@code false}
+     * @throws IOException if IO exception occurs
+     */
+    private boolean readJsonField(String fieldName, JsonParser parser) throws IOException {
+        switch (fieldName) {
+            case "id":
+                id = ReadUtils.readJsonValueAsString(parser);
+                return true;
+            case "login":
+                login = ReadUtils.readJsonValueAsString(parser);
+                return true;
+            case "name":
+                name = ReadUtils.readJsonValueAsString(parser);
+                return true;
+            case "avatar_url":
+                avatarUrl = ReadUtils.readJsonValueAsString(parser);
+                return true;
+            case "url":
+                url = ReadUtils.readJsonValueAsString(parser);
+                return true;
+            case "html_url":
+                htmlUrl = ReadUtils.readJsonValueAsString(parser);
+                return true;
+            case "followers_url":
+                followersUrl = ReadUtils.readJsonValueAsString(parser);
+                return true;
+            case "following_url":
+                followingUrl = ReadUtils.readJsonValueAsString(parser);
+                return true;
+            case "gists_url":
+                gistsUrl = ReadUtils.readJsonValueAsString(parser);
+                return true;
+            case "starred_url":
+                starredUrl = ReadUtils.readJsonValueAsString(parser);
+                return true;
+            case "subscriptions_url":
+                subscriptionsUrl = ReadUtils.readJsonValueAsString(parser);
+                return true;
+            case "organizations_url":
+                organizationsUrl = ReadUtils.readJsonValueAsString(parser);
+                return true;
+            case "repos_url":
+                reposUrl = ReadUtils.readJsonValueAsString(parser);
+                return true;
+            case "events_url":
+                eventsUrl = ReadUtils.readJsonValueAsString(parser);
+                return true;
+            case "received_events_url":
+                receivedEventsUrl = ReadUtils.readJsonValueAsString(parser);
+                return true;
+            case "type":
+                type = ReadUtils.readJsonValueAsString(parser);
+                return true;
+            case "site_admin":
+                siteAdmin = ReadUtils.readJsonValueAsBoolean(parser);
+                return true;
+            case "blog":
+                blog = ReadUtils.readJsonValueAsString(parser);
+                return true;
+            case "weibo":
+                weibo = ReadUtils.readJsonValueAsString(parser);
+                return true;
+            case "bio":
+                bio = ReadUtils.readJsonValueAsString(parser);
+                return true;
+            case "public_repos":
+                publicRepos = ReadUtils.readJsonValueAsInteger(parser);
+                return true;
+            case "public_gists":
+                publicGists = ReadUtils.readJsonValueAsInteger(parser);
+                return true;
+            case "followers":
+                followers = ReadUtils.readJsonValueAsInteger(parser);
+                return true;
+            case "following":
+                followings = ReadUtils.readJsonValueAsInteger(parser);
+                return true;
+            case "stared":
+                stared = ReadUtils.readJsonValueAsInteger(parser);
+                return true;
+            case "watched":
+                watched = ReadUtils.readJsonValueAsInteger(parser);
+                return true;
+            case "created_at":
+                createdAt = readJsonValueAsLocalDateTime(parser);
+                return true;
+            case "updated_at":
+                updatedAt = readJsonValueAsLocalDateTime(parser);
+                return true;
+            case "email":
+                email = ReadUtils.readJsonValueAsString(parser);
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Read current json value as {@code LocalDateTime} value.
+     *
+     * @param parser json parser
+     * @return {@code LocalDateTime} value, or {@code null} if the value is null
+     * @throws IOException if IO exception occurs
+     */
+    private static LocalDateTime readJsonValueAsLocalDateTime(JsonParser parser) throws IOException {
+        String value = ReadUtils.readJsonValueAsString(parser);
+        return (value == null) ? null : LocalDateTime.parse(value, DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) { return true; }
+        if (!(obj instanceof GiteeOAuth2User)) { return false; }
+        return getOriginalDataMap().equals(((GiteeOAuth2User) obj).getOriginalDataMap());
+    }
+
+    @Override
+    public int hashCode() {
+        return getOriginalDataMap().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "GiteeOAuth2User(originalDataMap=" + getOriginalDataMap() + ")";
+    }
+
 }
@@ -18,6 +18,7 @@ package com.github.wautsns.okauth.core.client.builtin.github;
 import com.github.wautsns.okauth.core.assist.http.builtin.httpclient4.HttpClient4OAuth2HttpClient;
 import com.github.wautsns.okauth.core.assist.http.kernel.OAuth2HttpClient;
 import com.github.wautsns.okauth.core.assist.http.kernel.model.OAuth2HttpRequest;
+import com.github.wautsns.okauth.core.assist.http.kernel.model.OAuth2HttpRequestTemplate;
 import com.github.wautsns.okauth.core.assist.http.kernel.model.OAuth2HttpResponse;
 import com.github.wautsns.okauth.core.assist.http.kernel.model.basic.DataMap;
 import com.github.wautsns.okauth.core.assist.http.kernel.model.basic.OAuth2Url;
@@ -30,11 +31,17 @@ import com.github.wautsns.okauth.core.client.kernel.api.ExchangeRedirectUriQuery
 import com.github.wautsns.okauth.core.client.kernel.api.ExchangeRedirectUriQueryForUser;
 import com.github.wautsns.okauth.core.client.kernel.api.ExchangeTokenForOpenid;
 import com.github.wautsns.okauth.core.client.kernel.api.ExchangeTokenForUser;
+import com.github.wautsns.okauth.core.client.kernel.api.basic.OAuth2FunctionApi;
+import com.github.wautsns.okauth.core.client.kernel.model.OAuth2RedirectUriQuery;
+import com.github.wautsns.okauth.core.client.kernel.model.OAuth2Token;
+import com.github.wautsns.okauth.core.client.kernel.util.FutureUtils;
 import com.github.wautsns.okauth.core.exception.OAuth2ErrorException;
 import com.github.wautsns.okauth.core.exception.OAuth2Exception;
 import com.github.wautsns.okauth.core.exception.specific.token.InvalidAccessTokenException;
 import com.github.wautsns.okauth.core.exception.specific.user.UserRefusedAuthorizationException;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * GitHub oauth2 client.
  *
@@ -83,11 +90,7 @@ public class GitHubOAuth2Client
         basic.getQuery()
                 .add("login", extra.getLogin())
                 .add("allow_signup", extra.getAllowSignup().value);
-        return state -> {
-            OAuth2Url authorizeUrl = basic.copy();
-            authorizeUrl.getQuery().addState(state);
-            return authorizeUrl;
-        };
+        return InitializeAuthorizeUrl.appendState(basic);
     }
 
     @Override
@@ -99,50 +102,71 @@ public class GitHubOAuth2Client
                 .addClientId(appInfo.getClientId())
                 .addClientSecret(appInfo.getClientSecret());
         // not required: .addRedirectUri(appInfo.getRedirectUri());
-        return redirectUriQuery -> {
+        OAuth2HttpRequestTemplate template = new OAuth2HttpRequestTemplate(basic);
+        OAuth2FunctionApi<OAuth2RedirectUriQuery, OAuth2HttpRequest> requestInitializer = redirectUriQuery -> {
             String code = redirectUriQuery.getCode();
             if (code != null) {
-                OAuth2HttpRequest request = basic.copy();
-                request.getUrl().getQuery()
-                        .addCode(redirectUriQuery.getCode());
-                // not required: .addState(redirectUriQuery.getState());
-                return new GitHubOAuth2Token(executeGetOrRefreshTokenAndCheck(request));
+                return template.bind()
+                        .addQuery("code", code)
+                        // not required: .addQuery("state", redirectUriQuery.getState())
+                        .build();
             } else {
                 String error = redirectUriQuery.getError();
                 String description = redirectUriQuery.getErrorDescription();
                 if ("access_denied".equals(error)) {
                     throw new UserRefusedAuthorizationException(getOpenPlatform());
                 } else {
-                    throw new OAuth2ErrorException(getOpenPlatform(), error, description);
+                    throw reportError(new OAuth2ErrorException(getOpenPlatform(), error, description));
                 }
             }
         };
+        return ExchangeRedirectUriQueryForToken.of(
+                redirectUriQuery -> new GitHubOAuth2Token(OAuth2Token.recordIssuedAt(
+                        executeGetOrRefreshTokenAndCheck(requestInitializer.execute(redirectUriQuery)))),
+                redirectUriQuery -> requestInitializer.executeAsync(redirectUriQuery)
+                        .thenCompose(this::executeGetOrRefreshTokenAndCheckAsync)
+                        .thenApply(OAuth2Token::recordIssuedAt)
+                        .thenApply(GitHubOAuth2Token::new));
     }
 
     @Override
     protected ExchangeTokenForOpenid<GitHubOAuth2Token> initApiExchangeTokenForOpenid() {
-        return token -> exchangeForUser(token).getOpenid();
+        return ExchangeTokenForOpenid.of(
+                token -> exchangeForUser(token).getOpenid(),
+                token -> exchangeForUserAsync(token).thenApply(GitHubOAuth2User::getOpenid));
     }
 
     @Override
     protected ExchangeTokenForUser<GitHubOAuth2Token, GitHubOAuth2User> initApiExchangeTokenForUser() {
         String url = "https://api.github.com/user";
         OAuth2HttpRequest basic = OAuth2HttpRequest.initGet(url);
-        return token -> {
-            OAuth2HttpRequest request = basic.copy();
-            request.getHeaders().addAuthorization("token", token.getAccessToken());
-            return new GitHubOAuth2User(executeNotGetOrRefreshTokenAndCheck(request));
-        };
+        OAuth2HttpRequestTemplate template = new OAuth2HttpRequestTemplate(basic);
+        OAuth2FunctionApi<GitHubOAuth2Token, OAuth2HttpRequest> requestInitializer = token -> template.bind()
+                .addAuthorization("token", token.getAccessToken())
+                .build();
+        OAuth2FunctionApi<OAuth2HttpResponse, GitHubOAuth2User> checker =
+                response -> new GitHubOAuth2User(checkNotGetOrRefreshTokenResponse(response));
+        return ExchangeTokenForUser.of(
+                token -> executeConditionallyAndCheck(
+                        requestInitializer.execute(token), initValidatorKey("user", token), checker),
+                token -> requestInitializer.executeAsync(token)
+                        .thenCompose(request -> executeConditionallyAndCheckAsync(
+                                request, initValidatorKey("user", token), checker)));
     }
 
     @Override
     protected ExchangeRedirectUriQueryForOpenid initApiExchangeRedirectUriQueryForOpenid() {
-        return redirectUriQuery -> exchangeForUser(redirectUriQuery).getOpenid();
+        return ExchangeRedirectUriQueryForOpenid.of(
+                redirectUriQuery -> exchangeForUser(redirectUriQuery).getOpenid(),
+                redirectUriQuery -> exchangeForUserAsync(redirectUriQuery).thenApply(GitHubOAuth2User::getOpenid));
     }
 
     @Override
     protected ExchangeRedirectUriQueryForUser<GitHubOAuth2User> initApiExchangeRedirectUriQueryForUser() {
-        return redirectUriQuery -> exchangeForUser(exchangeForToken(redirectUriQuery));
+        return ExchangeRedirectUriQueryForUser.of(
+                redirectUriQuery -> exchangeForUser(exchangeForToken(redirectUriQuery)),
+                redirectUriQuery -> exchangeForTokenAsync(redirectUriQuery)
+                        .thenCompose(token -> exchangeForUserAsync(token)));
     }
 
     // #################### execute request and check response ##########################
@@ -155,12 +179,33 @@ public class GitHubOAuth2Client
      * @throws OAuth2Exception if oauth2 failed
      */
     protected DataMap executeGetOrRefreshTokenAndCheck(OAuth2HttpRequest request) throws OAuth2Exception {
-        OAuth2HttpResponse response = httpClient.execute(request);
+        return checkGetOrRefreshTokenResponse(httpClient.execute(request));
+    }
+
+    /**
+     * Execute request that is GET_TOKEN or REFRESH_TOKEN asynchronously, and check response.
+     *
+     * @param request request
+     * @return future of correct data map
+     */
+    protected CompletableFuture<DataMap> executeGetOrRefreshTokenAndCheckAsync(OAuth2HttpRequest request) {
+        return httpClient.executeAsync(request)
+                .thenApply(FutureUtils.unchecked(this::checkGetOrRefreshTokenResponse));
+    }
+
+    /**
+     * Check response of request that is GET_TOKEN or REFRESH_TOKEN.
+     *
+     * @param response response
+     * @return correct data map
+     * @throws OAuth2Exception if oauth2 failed
+     */
+    protected DataMap checkGetOrRefreshTokenResponse(OAuth2HttpResponse response) throws OAuth2Exception {
         DataMap dataMap = response.readJsonAsDataMap();
         String error = dataMap.getAsString("error");
         if (error == null) { return dataMap; }
         String errorDescription = dataMap.getAsString("error_description");
-        throw new OAuth2ErrorException(getOpenPlatform(), error, errorDescription);
+        throw reportError(new OAuth2ErrorException(getOpenPlatform(), error, errorDescription));
     }
 
     /**
@@ -171,15 +216,36 @@ public class GitHubOAuth2Client
      * @throws OAuth2Exception if oauth2 failed
      */
     protected DataMap executeNotGetOrRefreshTokenAndCheck(OAuth2HttpRequest request) throws OAuth2Exception {
-        OAuth2HttpResponse response = httpClient.execute(request);
+        return checkNotGetOrRefreshTokenResponse(httpClient.execute(request));
+    }
+
+    /**
+     * Execute request that is neither GET_TOKEN nor REFRESH_TOKEN asynchronously, and check response.
+     *
+     * @param request request
+     * @return future of correct data map
+     */
+    protected CompletableFuture<DataMap> executeNotGetOrRefreshTokenAndCheckAsync(OAuth2HttpRequest request) {
+        return httpClient.executeAsync(request)
+                .thenApply(FutureUtils.unchecked(this::checkNotGetOrRefreshTokenResponse));
+    }
+
+    /**
+     * Check response of request that is neither GET_TOKEN nor REFRESH_TOKEN.
+     *
+     * @param response response
+     * @return correct data map
+     * @throws OAuth2Exception if oauth2 failed
+     */
+    protected DataMap checkNotGetOrRefreshTokenResponse(OAuth2HttpResponse response) throws OAuth2Exception {
         DataMap dataMap = response.readJsonAsDataMap();
         if (response.getStatus() < 400) { return dataMap; }
         String error = Integer.toString(response.getStatus());
         String message = dataMap.getAsString("message");
         if ("Bad credentials".equals(message)) {
-            throw new InvalidAccessTokenException(getOpenPlatform(), error, message);
+            throw reportError(new InvalidAccessTokenException(getOpenPlatform(), error, message));
         } else {
-            throw new OAuth2ErrorException(getOpenPlatform(), error, message);
+            throw reportError(new OAuth2ErrorException(getOpenPlatform(), error, message));
         }
     }
 
@@ -18,6 +18,7 @@ package com.github.wautsns.okauth.core.client.builtin.oschina;
 import com.github.wautsns.okauth.core.assist.http.builtin.httpclient4.HttpClient4OAuth2HttpClient;
 import com.github.wautsns.okauth.core.assist.http.kernel.OAuth2HttpClient;
 import com.github.wautsns.okauth.core.assist.http.kernel.model.OAuth2HttpRequest;
+import com.github.wautsns.okauth.core.assist.http.kernel.model.OAuth2HttpRequestTemplate;
 import com.github.wautsns.okauth.core.assist.http.kernel.model.OAuth2HttpResponse;
 import com.github.wautsns.okauth.core.assist.http.kernel.model.basic.DataMap;
 import com.github.wautsns.okauth.core.assist.http.kernel.model.basic.OAuth2Url;
@@ -29,11 +30,17 @@ import com.github.wautsns.okauth.core.client.kernel.api.ExchangeRedirectUriQuery
 import com.github.wautsns.okauth.core.client.kernel.api.ExchangeTokenForOpenid;
 import com.github.wautsns.okauth.core.client.kernel.api.ExchangeTokenForUser;
 import com.github.wautsns.okauth.core.client.kernel.api.RefreshToken;
+import com.github.wautsns.okauth.core.client.kernel.api.basic.OAuth2FunctionApi;
+import com.github.wautsns.okauth.core.client.kernel.model.OAuth2RedirectUriQuery;
+import com.github.wautsns.okauth.core.client.kernel.model.OAuth2Token;
+import com.github.wautsns.okauth.core.client.kernel.util.FutureUtils;
 import com.github.wautsns.okauth.core.exception.OAuth2ErrorException;
 import com.github.wautsns.okauth.core.exception.OAuth2Exception;
 import com.github.wautsns.okauth.core.exception.specific.token.InvalidAccessTokenException;
 import com.github.wautsns.okauth.core.exception.specific.token.InvalidRefreshTokenException;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * OSChina oauth2 client.
  *
@@ -81,11 +88,7 @@ public class OSChinaOAuth2Client
                 .addClientId(appInfo.getClientId())
                 .addResponseTypeWithValueCode()
                 .addRedirectUri(appInfo.getRedirectUri());
-        return state -> {
-            OAuth2Url authorizeUrl = basic.copy();
-            authorizeUrl.getQuery().addState(state);
-            return authorizeUrl;
-        };
+        return InitializeAuthorizeUrl.appendState(basic);
     }
 
     @Override
@@ -97,11 +100,18 @@ public class OSChinaOAuth2Client
                 .addClientSecret(appInfo.getClientSecret())
                 .addGrantTypeWithValueAuthorizationCode()
                 .addRedirectUri(appInfo.getRedirectUri());
-        return redirectUriQuery -> {
-            OAuth2HttpRequest request = basic.copy();
-            request.getUrl().getQuery().addCode(redirectUriQuery.getCode());
-            return new OSChinaOAuth2Token(executeAndCheck(request));
-        };
+        OAuth2HttpRequestTemplate template = new OAuth2HttpRequestTemplate(basic);
+        OAuth2FunctionApi<OAuth2RedirectUriQuery, OAuth2HttpRequest> requestInitializer =
+                redirectUriQuery -> template.bind()
+                        .addQuery("code", redirectUriQuery.getCode())
+                        .build();
+        return ExchangeRedirectUriQueryForToken.of(
+                redirectUriQuery -> new OSChinaOAuth2Token(OAuth2Token.recordIssuedAt(
+                        executeAndCheck(requestInitializer.execute(redirectUriQuery)))),
+                redirectUriQuery -> requestInitializer.executeAsync(redirectUriQuery)
+                        .thenCompose(this::executeAndCheckAsync)
+                        .thenApply(OAuth2Token::recordIssuedAt)
+                        .thenApply(OSChinaOAuth2Token::new));
     }
 
     @Override
@@ -113,11 +123,17 @@ public class OSChinaOAuth2Client
                 .addClientSecret(appInfo.getClientSecret())
                 .addGrantTypeWithValueRefreshToken()
                 .addRedirectUri(appInfo.getRedirectUri());
-        return token -> {
-            OAuth2HttpRequest request = basic.copy();
-            request.getUrl().getQuery().addRefreshToken(token.getRefreshToken());
-            return new OSChinaOAuth2Token(executeAndCheck(request));
-        };
+        OAuth2HttpRequestTemplate template = new OAuth2HttpRequestTemplate(basic);
+        OAuth2FunctionApi<OSChinaOAuth2Token, OAuth2HttpRequest> requestInitializer = token -> template.bind()
+                .addQuery("refresh_token", token.getRefreshToken())
+                .build();
+        return RefreshToken.of(
+                token -> new OSChinaOAuth2Token(OAuth2Token.recordIssuedAt(
+                        executeAndCheck(requestInitializer.execute(token)))),
+                token -> requestInitializer.executeAsync(token)
+                        .thenCompose(this::executeAndCheckAsync)
+                        .thenApply(OAuth2Token::recordIssuedAt)
+                        .thenApply(OSChinaOAuth2Token::new));
     }
 
     @Override
@@ -129,11 +145,15 @@ public class OSChinaOAuth2Client
     protected ExchangeTokenForUser<OSChinaOAuth2Token, OSChinaOAuth2User> initApiExchangeTokenForUser() {
         String url = "https://www.oschina.net/action/openapi/user";
         OAuth2HttpRequest basic = OAuth2HttpRequest.initGet(url);
-        return token -> {
-            OAuth2HttpRequest request = basic.copy();
-            request.getUrl().getQuery().addAccessToken(token.getAccessToken());
-            return new OSChinaOAuth2User(executeAndCheck(request));
-        };
+        OAuth2HttpRequestTemplate template = new OAuth2HttpRequestTemplate(basic);
+        OAuth2FunctionApi<OSChinaOAuth2Token, OAuth2HttpRequest> requestInitializer = token -> template.bind()
+                .addQuery("access_token", token.getAccessToken())
+                .build();
+        return ExchangeTokenForUser.of(
+                token -> new OSChinaOAuth2User(executeAndCheck(requestInitializer.execute(token))),
+                token -> requestInitializer.executeAsync(token)
+                        .thenCompose(this::executeAndCheckAsync)
+                        .thenApply(OSChinaOAuth2User::new));
     }
 
     // #################### execute request and check response ##########################
@@ -146,17 +166,38 @@ public class OSChinaOAuth2Client
      * @throws OAuth2Exception if oauth2 failed
      */
     protected DataMap executeAndCheck(OAuth2HttpRequest request) throws OAuth2Exception {
-        OAuth2HttpResponse response = httpClient.execute(request);
+        return checkResponse(httpClient.execute(request));
+    }
+
+    /**
+     * Execute request asynchronously and check response.
+     *
+     * @param request request
+     * @return future of correct data map
+     */
+    protected CompletableFuture<DataMap> executeAndCheckAsync(OAuth2HttpRequest request) {
+        return httpClient.executeAsync(request)
+                .thenApply(FutureUtils.unchecked(this::checkResponse));
+    }
+
+    /**
+     * Check response.
+     *
+     * @param response response
+     * @return correct data map
+     * @throws OAuth2Exception if oauth2 failed
+     */
+    protected DataMap checkResponse(OAuth2HttpResponse response) throws OAuth2Exception {
         DataMap dataMap = response.readJsonAsDataMap();
         String error = dataMap.getAsString("error");
         if (error == null) { return dataMap; }
         String errorDescription = dataMap.getAsString("error_description");
         if ("invalid_token".equals(error) && errorDescription.startsWith("Invalid access token")) {
-            throw new InvalidAccessTokenException(getOpenPlatform(), error, errorDescription);
+            throw reportError(new InvalidAccessTokenException(getOpenPlatform(), error, errorDescription));
         } else if ("400".equals(error) && errorDescription.startsWith("Invalid refresh token")) {
-            throw new InvalidRefreshTokenException(getOpenPlatform(), error, errorDescription);
+            throw reportError(new InvalidRefreshTokenException(getOpenPlatform(), error, errorDescription));
         } else {
-            throw new OAuth2ErrorException(getOpenPlatform(), error, errorDescription);
+            throw reportError(new OAuth2ErrorException(getOpenPlatform(), error, errorDescription));
         }
     }
 
@@ -18,6 +18,7 @@ package com.github.wautsns.okauth.core.client.builtin.tiktok;
 import com.github.wautsns.okauth.core.assist.http.builtin.httpclient4.HttpClient4OAuth2HttpClient;
 import com.github.wautsns.okauth.core.assist.http.kernel.OAuth2HttpClient;
 import com.github.wautsns.okauth.core.assist.http.kernel.model.OAuth2HttpRequest;
+import com.github.wautsns.okauth.core.assist.http.kernel.model.OAuth2HttpRequestTemplate;
 import com.github.wautsns.okauth.core.assist.http.kernel.model.OAuth2HttpResponse;
 import com.github.wautsns.okauth.core.assist.http.kernel.model.basic.DataMap;
 import com.github.wautsns.okauth.core.assist.http.kernel.model.basic.OAuth2Url;
@@ -29,12 +30,18 @@ import com.github.wautsns.okauth.core.client.kernel.api.ExchangeRedirectUriQuery
 import com.github.wautsns.okauth.core.client.kernel.api.ExchangeTokenForOpenid;
 import com.github.wautsns.okauth.core.client.kernel.api.ExchangeTokenForUser;
 import com.github.wautsns.okauth.core.client.kernel.api.RefreshToken;
+import com.github.wautsns.okauth.core.client.kernel.api.basic.OAuth2FunctionApi;
+import com.github.wautsns.okauth.core.client.kernel.model.OAuth2RedirectUriQuery;
+import com.github.wautsns.okauth.core.client.kernel.model.OAuth2Token;
+import com.github.wautsns.okauth.core.client.kernel.util.FutureUtils;
 import com.github.wautsns.okauth.core.exception.OAuth2ErrorException;
 import com.github.wautsns.okauth.core.exception.OAuth2Exception;
 import com.github.wautsns.okauth.core.exception.specific.token.ExpiredAccessTokenException;
 import com.github.wautsns.okauth.core.exception.specific.token.ExpiredRefreshTokenException;
 import com.github.wautsns.okauth.core.exception.specific.token.InvalidAccessTokenException;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * TikTok oauth2 client.
  *
@@ -83,11 +90,7 @@ public class TikTokOAuth2Client
                 .addResponseTypeWithValueCode()
                 .addScope(TikTokOAuth2AppInfo.Scope.joinWith(appInfo.getScopes(), ","))
                 .addRedirectUri(appInfo.getRedirectUri());
-        return state -> {
-            OAuth2Url authorizeUrl = basic.copy();
-            authorizeUrl.getQuery().addState(state);
-            return authorizeUrl;
-        };
+        return InitializeAuthorizeUrl.appendState(basic);
     }
 
     @Override
@@ -98,11 +101,18 @@ public class TikTokOAuth2Client
                 .add("clientKey", appInfo.getClientKey())
                 .addClientSecret(appInfo.getClientSecret())
                 .addGrantTypeWithValueAuthorizationCode();
-        return redirectUriQuery -> {
-            OAuth2HttpRequest request = basic.copy();
-            request.getUrl().getQuery().addCode(redirectUriQuery.getCode());
-            return new TikTokOAuth2Token(executeAndCheck(request));
-        };
+        OAuth2HttpRequestTemplate template = new OAuth2HttpRequestTemplate(basic);
+        OAuth2FunctionApi<OAuth2RedirectUriQuery, OAuth2HttpRequest> requestInitializer =
+                redirectUriQuery -> template.bind()
+                        .addQuery("code", redirectUriQuery.getCode())
+                        .build();
+        return ExchangeRedirectUriQueryForToken.of(
+                redirectUriQuery -> new TikTokOAuth2Token(OAuth2Token.recordIssuedAt(
+                        executeAndCheck(requestInitializer.execute(redirectUriQuery)))),
+                redirectUriQuery -> requestInitializer.executeAsync(redirectUriQuery)
+                        .thenCompose(this::executeAndCheckAsync)
+                        .thenApply(OAuth2Token::recordIssuedAt)
+                        .thenApply(TikTokOAuth2Token::new));
     }
 
     @Override
@@ -112,11 +122,17 @@ public class TikTokOAuth2Client
         basic.getUrl().getQuery()
                 .add("clientKey", appInfo.getClientKey())
                 .addGrantTypeWithValueRefreshToken();
-        return token -> {
-            OAuth2HttpRequest request = basic.copy();
-            request.getUrl().getQuery().addRefreshToken(token.getRefreshToken());
-            return new TikTokOAuth2Token(executeAndCheck(request));
-        };
+        OAuth2HttpRequestTemplate template = new OAuth2HttpRequestTemplate(basic);
+        OAuth2FunctionApi<TikTokOAuth2Token, OAuth2HttpRequest> requestInitializer = token -> template.bind()
+                .addQuery("refresh_token", token.getRefreshToken())
+                .build();
+        return RefreshToken.of(
+                token -> new TikTokOAuth2Token(OAuth2Token.recordIssuedAt(
+                        executeAndCheck(requestInitializer.execute(token)))),
+                token -> requestInitializer.executeAsync(token)
+                        .thenCompose(this::executeAndCheckAsync)
+                        .thenApply(OAuth2Token::recordIssuedAt)
+                        .thenApply(TikTokOAuth2Token::new));
     }
 
     @Override
@@ -128,13 +144,16 @@ public class TikTokOAuth2Client
     protected ExchangeTokenForUser<TikTokOAuth2Token, TikTokOAuth2User> initApiExchangeTokenForUser() {
         String url = "https://open.douyin.com/oauth/userinfo/";
         OAuth2HttpRequest basic = OAuth2HttpRequest.initGet(url);
-        return token -> {
-            OAuth2HttpRequest request = basic.copy();
-            request.getUrl().getQuery()
-                    .addAccessToken(token.getAccessToken())
-                    .add("open_id", token.getOpenid());
-            return new TikTokOAuth2User(executeAndCheck(request));
-        };
+        OAuth2HttpRequestTemplate template = new OAuth2HttpRequestTemplate(basic);
+        OAuth2FunctionApi<TikTokOAuth2Token, OAuth2HttpRequest> requestInitializer = token -> template.bind()
+                .addQuery("access_token", token.getAccessToken())
+                .addQuery("open_id", token.getOpenid())
+                .build();
+        return ExchangeTokenForUser.of(
+                token -> new TikTokOAuth2User(executeAndCheck(requestInitializer.execute(token))),
+                token -> requestInitializer.executeAsync(token)
+                        .thenCompose(this::executeAndCheckAsync)
+                        .thenApply(TikTokOAuth2User::new));
     }
 
     // #################### execute request and check response ##########################
@@ -147,7 +166,28 @@ public class TikTokOAuth2Client
      * @throws OAuth2Exception if oauth2 failed
      */
     protected DataMap executeAndCheck(OAuth2HttpRequest request) throws OAuth2Exception {
-        OAuth2HttpResponse response = httpClient.execute(request);
+        return checkResponse(httpClient.execute(request));
+    }
+
+    /**
+     * Execute request asynchronously and check response.
+     *
+     * @param request request
+     * @return future of correct data map
+     */
+    protected CompletableFuture<DataMap> executeAndCheckAsync(OAuth2HttpRequest request) {
+        return httpClient.executeAsync(request)
+                .thenApply(FutureUtils.unchecked(this::checkResponse));
+    }
+
+    /**
+     * Check response.
+     *
+     * @param response response
+     * @return correct data map
+     * @throws OAuth2Exception if oauth2 failed
+     */
+    protected DataMap checkResponse(OAuth2HttpResponse response) throws OAuth2Exception {
         DataMap dataMap = response.readJsonAsDataMap().getAsDataMap("data");
         String errcode = dataMap.getAsString("error_code");
         String errmsg = dataMap.getAsString("description");
@@ -157,13 +197,13 @@ public class TikTokOAuth2Client
                 dataMap.remove("description");
                 return dataMap;
             case "2190008":
-                throw new ExpiredAccessTokenException(getOpenPlatform(), errcode, errmsg);
+                throw reportError(new ExpiredAccessTokenException(getOpenPlatform(), errcode, errmsg));
             case "2190002":
-                throw new InvalidAccessTokenException(getOpenPlatform(), errcode, errmsg);
+                throw reportError(new InvalidAccessTokenException(getOpenPlatform(), errcode, errmsg));
             case "10010":
-                throw new ExpiredRefreshTokenException(getOpenPlatform(), errcode, errmsg);
+                throw reportError(new ExpiredRefreshTokenException(getOpenPlatform(), errcode, errmsg));
             default:
-                throw new OAuth2ErrorException(getOpenPlatform(), errcode, errmsg);
+                throw reportError(new OAuth2ErrorException(getOpenPlatform(), errcode, errmsg));
         }
     }
 
@@ -18,6 +18,7 @@ package com.github.wautsns.okauth.core.client.builtin.wechatofficialaccount;
 import com.github.wautsns.okauth.core.assist.http.builtin.httpclient4.HttpClient4OAuth2HttpClient;
 import com.github.wautsns.okauth.core.assist.http.kernel.OAuth2HttpClient;
 import com.github.wautsns.okauth.core.assist.http.kernel.model.OAuth2HttpRequest;
+import com.github.wautsns.okauth.core.assist.http.kernel.model.OAuth2HttpRequestTemplate;
 import com.github.wautsns.okauth.core.assist.http.kernel.model.OAuth2HttpResponse;
 import com.github.wautsns.okauth.core.assist.http.kernel.model.basic.DataMap;
 import com.github.wautsns.okauth.core.assist.http.kernel.model.basic.OAuth2Url;
@@ -29,6 +30,10 @@ import com.github.wautsns.okauth.core.client.kernel.api.ExchangeRedirectUriQuery
 import com.github.wautsns.okauth.core.client.kernel.api.ExchangeTokenForOpenid;
 import com.github.wautsns.okauth.core.client.kernel.api.ExchangeTokenForUser;
 import com.github.wautsns.okauth.core.client.kernel.api.RefreshToken;
+import com.github.wautsns.okauth.core.client.kernel.api.basic.OAuth2FunctionApi;
+import com.github.wautsns.okauth.core.client.kernel.model.OAuth2RedirectUriQuery;
+import com.github.wautsns.okauth.core.client.kernel.model.OAuth2Token;
+import com.github.wautsns.okauth.core.client.kernel.util.FutureUtils;
 import com.github.wautsns.okauth.core.exception.OAuth2ErrorException;
 import com.github.wautsns.okauth.core.exception.OAuth2Exception;
 import com.github.wautsns.okauth.core.exception.specific.token.ExpiredAccessTokenException;
@@ -36,6 +41,8 @@ import com.github.wautsns.okauth.core.exception.specific.token.ExpiredRefreshTok
 import com.github.wautsns.okauth.core.exception.specific.token.InvalidAccessTokenException;
 import com.github.wautsns.okauth.core.exception.specific.token.InvalidRefreshTokenException;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * WechatOfficialAccount oauth2 client.
  *
@@ -87,11 +94,7 @@ public class WechatOfficialAccountOAuth2Client
                 .addResponseTypeWithValueCode()
                 .addScope(appInfo.getScope().value);
         basic.setAnchor("wechat_redirect");
-        return state -> {
-            OAuth2Url authorizeUrl = basic.copy();
-            authorizeUrl.getQuery().addState(state);
-            return authorizeUrl;
-        };
+        return InitializeAuthorizeUrl.appendState(basic);
     }
 
     @Override
@@ -105,11 +108,18 @@ public class WechatOfficialAccountOAuth2Client
                 .addRedirectUri(appInfo.getRedirectUri())
                 .addResponseTypeWithValueCode()
                 .addScope(appInfo.getScope().value);
-        return redirectUriQuery -> {
-            OAuth2HttpRequest request = basic.copy();
-            request.getUrl().getQuery().addCode(redirectUriQuery.getCode());
-            return new WechatOfficialAccountOAuth2Token(executeAndCheck(request));
-        };
+        OAuth2HttpRequestTemplate template = new OAuth2HttpRequestTemplate(basic);
+        OAuth2FunctionApi<OAuth2RedirectUriQuery, OAuth2HttpRequest> requestInitializer =
+                redirectUriQuery -> template.bind()
+                        .addQuery("code", redirectUriQuery.getCode())
+                        .build();
+        return ExchangeRedirectUriQueryForToken.of(
+                redirectUriQuery -> new WechatOfficialAccountOAuth2Token(OAuth2Token.recordIssuedAt(
+                        executeAndCheck(requestInitializer.execute(redirectUriQuery)))),
+                redirectUriQuery -> requestInitializer.executeAsync(redirectUriQuery)
+                        .thenCompose(this::executeAndCheckAsync)
+                        .thenApply(OAuth2Token::recordIssuedAt)
+                        .thenApply(WechatOfficialAccountOAuth2Token::new));
     }
 
     @Override
@@ -119,11 +129,18 @@ public class WechatOfficialAccountOAuth2Client
         basic.getUrl().getQuery()
                 .addAppid(appInfo.getUniqueIdentifier())
                 .addGrantTypeWithValueRefreshToken();
-        return token -> {
-            OAuth2HttpRequest request = basic.copy();
-            request.getUrl().getQuery().addRefreshToken(token.getRefreshToken());
-            return new WechatOfficialAccountOAuth2Token(executeAndCheck(request));
-        };
+        OAuth2HttpRequestTemplate template = new OAuth2HttpRequestTemplate(basic);
+        OAuth2FunctionApi<WechatOfficialAccountOAuth2Token, OAuth2HttpRequest> requestInitializer =
+                token -> template.bind()
+                        .addQuery("refresh_token", token.getRefreshToken())
+                        .build();
+        return RefreshToken.of(
+                token -> new WechatOfficialAccountOAuth2Token(OAuth2Token.recordIssuedAt(
+                        executeAndCheck(requestInitializer.execute(token)))),
+                token -> requestInitializer.executeAsync(token)
+                        .thenCompose(this::executeAndCheckAsync)
+                        .thenApply(OAuth2Token::recordIssuedAt)
+                        .thenApply(WechatOfficialAccountOAuth2Token::new));
     }
 
     @Override
@@ -135,13 +152,17 @@ public class WechatOfficialAccountOAuth2Client
     protected ExchangeTokenForUser<WechatOfficialAccountOAuth2Token, WechatOfficialAccountOAuth2User> initApiExchangeTokenForUser() {
         String url = "https://api.weixin.qq.com/sns/userinfo";
         OAuth2HttpRequest basic = OAuth2HttpRequest.initGet(url);
-        return token -> {
-            OAuth2HttpRequest request = basic.copy();
-            request.getUrl().getQuery()
-                    .addAccessToken(token.getAccessToken())
-                    .add("openid", token.getOpenId());
-            return new WechatOfficialAccountOAuth2User(executeAndCheck(request));
-        };
+        OAuth2HttpRequestTemplate template = new OAuth2HttpRequestTemplate(basic);
+        OAuth2FunctionApi<WechatOfficialAccountOAuth2Token, OAuth2HttpRequest> requestInitializer =
+                token -> template.bind()
+                        .addQuery("access_token", token.getAccessToken())
+                        .addQuery("openid", token.getOpenId())
+                        .build();
+        return ExchangeTokenForUser.of(
+                token -> new WechatOfficialAccountOAuth2User(executeAndCheck(requestInitializer.execute(token))),
+                token -> requestInitializer.executeAsync(token)
+                        .thenCompose(this::executeAndCheckAsync)
+                        .thenApply(WechatOfficialAccountOAuth2User::new));
     }
 
     // #################### execute request and check response ##########################
@@ -154,7 +175,28 @@ public class WechatOfficialAccountOAuth2Client
      * @throws OAuth2Exception if oauth2 failed
      */
     protected DataMap executeAndCheck(OAuth2HttpRequest request) throws OAuth2Exception {
-        OAuth2HttpResponse response = httpClient.execute(request);
+        return checkResponse(httpClient.execute(request));
+    }
+
+    /**
+     * Execute request asynchronously and check response.
+     *
+     * @param request request
+     * @return future of correct data map
+     */
+    protected CompletableFuture<DataMap> executeAndCheckAsync(OAuth2HttpRequest request) {
+        return httpClient.executeAsync(request)
+                .thenApply(FutureUtils.unchecked(this::checkResponse));
+    }
+
+    /**
+     * Check response.
+     *
+     * @param response response
+     * @return correct data map
+     * @throws OAuth2Exception if oauth2 failed
+     */
+    protected DataMap checkResponse(OAuth2HttpResponse response) throws OAuth2Exception {
         DataMap dataMap = response.readJsonAsDataMap();
         String errcode = dataMap.getAsString("errcode");
         String errmsg = dataMap.getAsString("errmsg");
@@ -164,15 +206,15 @@ public class WechatOfficialAccountOAuth2Client
                 dataMap.remove("errmsg");
                 return dataMap;
             case "40014":
-                throw new InvalidAccessTokenException(getOpenPlatform(), errcode, errmsg);
+                throw reportError(new InvalidAccessTokenException(getOpenPlatform(), errcode, errmsg));
             case "42001":
-                throw new ExpiredAccessTokenException(getOpenPlatform(), errcode, errmsg);
+                throw reportError(new ExpiredAccessTokenException(getOpenPlatform(), errcode, errmsg));
             case "42002":
-                throw new ExpiredRefreshTokenException(getOpenPlatform(), errcode, errmsg);
+                throw reportError(new ExpiredRefreshTokenException(getOpenPlatform(), errcode, errmsg));
             case "40030":
-                throw new InvalidRefreshTokenException(getOpenPlatform(), errcode, errmsg);
+                throw reportError(new InvalidRefreshTokenException(getOpenPlatform(), errcode, errmsg));
             default:
-                throw new OAuth2ErrorException(getOpenPlatform(), errcode, errmsg);
+                throw reportError(new OAuth2ErrorException(getOpenPlatform(), errcode, errmsg));
         }
     }
 
@@ -18,9 +18,11 @@ package com.github.wautsns.okauth.core.client.builtin.wechatworkcorp;
 import com.github.wautsns.okauth.core.assist.http.builtin.httpclient4.HttpClient4OAuth2HttpClient;
 import com.github.wautsns.okauth.core.assist.http.kernel.OAuth2HttpClient;
 import com.github.wautsns.okauth.core.assist.http.kernel.model.OAuth2HttpRequest;
+import com.github.wautsns.okauth.core.assist.http.kernel.model.OAuth2HttpRequestTemplate;
 import com.github.wautsns.okauth.core.assist.http.kernel.model.OAuth2HttpResponse;
 import com.github.wautsns.okauth.core.assist.http.kernel.model.basic.DataMap;
 import com.github.wautsns.okauth.core.assist.http.kernel.model.basic.OAuth2Url;
+import com.github.wautsns.okauth.core.assist.http.kernel.util.ReadUtils;
 import com.github.wautsns.okauth.core.client.builtin.BuiltInOpenPlatformNames;
 import com.github.wautsns.okauth.core.client.builtin.wechatworkcorp.model.WechatWorkCorpOAuth2Token;
 import com.github.wautsns.okauth.core.client.builtin.wechatworkcorp.model.WechatWorkCorpOAuth2User;
@@ -31,13 +33,24 @@ import com.github.wautsns.okauth.core.client.kernel.api.ExchangeRedirectUriQuery
 import com.github.wautsns.okauth.core.client.kernel.api.ExchangeRedirectUriQueryForUser;
 import com.github.wautsns.okauth.core.client.kernel.api.basic.OAuth2FunctionApi;
 import com.github.wautsns.okauth.core.client.kernel.api.basic.OAuth2SupplierApi;
+import com.github.wautsns.okauth.core.client.kernel.model.OAuth2RedirectUriQuery;
+import com.github.wautsns.okauth.core.client.kernel.model.OAuth2Token;
+import com.github.wautsns.okauth.core.client.kernel.util.FutureUtils;
+import com.github.wautsns.okauth.core.client.kernel.util.LeaseUtils;
+import com.github.wautsns.okauth.core.client.kernel.util.SingleFlight;
 import com.github.wautsns.okauth.core.exception.OAuth2ErrorException;
 import com.github.wautsns.okauth.core.exception.OAuth2Exception;
+import com.github.wautsns.okauth.core.exception.OAuth2IOException;
 import com.github.wautsns.okauth.core.exception.specific.token.ExpiredAccessTokenException;
 import com.github.wautsns.okauth.core.exception.specific.token.InvalidAccessTokenException;
 import com.github.wautsns.okauth.core.exception.specific.user.InvalidUserAuthorizationException;
 
-import java.util.concurrent.Semaphore;
+import java.io.IOException;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 /**
  * WechatWorkCorp oauth2 client.
@@ -50,12 +63,19 @@ public class WechatWorkCorpOAuth2Client extends OAuth2Client<WechatWorkCorpOAuth
 
     /** Token service. */
     protected final WechatWorkCorpTokenCache tokenCache;
+    /** Key of token in the token cache. */
+    protected final String tokenCacheKey;
 
     /** API: get token. */
     protected final OAuth2SupplierApi<WechatWorkCorpOAuth2Token> apiGetToken;
     /** API: exchange userid for user. */
     protected final OAuth2FunctionApi<String, WechatWorkCorpOAuth2User> apiExchangeUseridForUser;
 
+    /** Single flight for getting token. */
+    private final SingleFlight<String, WechatWorkCorpOAuth2Token> singleFlightForGettingToken = new SingleFlight<>();
+    /** Whether API: get token has been injected into the token cache. */
+    private final AtomicBoolean apiGetTokenInjected = new AtomicBoolean();
+
     /**
      * Construct WechatWorkCorp oauth2 client.
      *
@@ -77,9 +97,9 @@ public class WechatWorkCorpOAuth2Client extends OAuth2Client<WechatWorkCorpOAuth
             WechatWorkCorpTokenCache tokenCache) {
         super(appInfo, httpClient);
         this.tokenCache = tokenCache;
+        this.tokenCacheKey = WechatWorkCorpTokenCache.initKey(appInfo.getCorpId(), appInfo.getAgentId());
         this.apiGetToken = initApiGetToken();
         this.apiExchangeUseridForUser = initApiExchangeUseridForUser();
-        this.tokenCache.injectApiGetToken(this.apiGetToken);
     }
 
     @Override
@@ -87,44 +107,129 @@ public class WechatWorkCorpOAuth2Client extends OAuth2Client<WechatWorkCorpOAuth
         return BuiltInOpenPlatformNames.WECHAT_WORK_CORP;
     }
 
-    /** Semaphore for getting token. */
-    private final Semaphore semaphoreForGettingToken = new Semaphore(1);
+    /**
+     * Inject API: get token into the token cache(only once).
+     *
+     * <p>The injected api fetches a new token the same way as {@link #getToken()}(coalesced in the client, and
+     * {@linkplain #getLeaseManager() leased} across the cluster), and saves it to the token cache. If a token other
+     * than the cached one is saved by another lease holder meanwhile, that token is returned instead.
+     * <p>The method is called on first use of token. Call it after construction to let the token cache fetch the token
+     * in advance(eg. {@code WechatWorkCorpTokenRefreshAheadCache}).
+     */
+    public void injectApiGetToken() {
+        if (apiGetTokenInjected.get() || !apiGetTokenInjected.compareAndSet(false, true)) { return; }
+        tokenCache.injectApiGetToken(tokenCacheKey, OAuth2SupplierApi.of(
+                () -> fetchToken(getCachedToken()),
+                () -> fetchTokenAsync(getCachedToken())));
+    }
 
     /**
      * Get oauth2 token.
      *
      * <p><strong>If the cached token has expired, in the case of concurrency, only one request will actually perform
-     * the fetch operation.</strong>
+     * the fetch operation, the others wait for its result.</strong>
+     * <p>The fetching is also {@linkplain #getLeaseManager() leased} across the cluster, the others wait on the token
+     * cache.
      *
      * @return oauth2 token
      * @throws OAuth2Exception if oauth2 failed
      */
     public WechatWorkCorpOAuth2Token getToken() throws OAuth2Exception {
-        DataMap originalDataMap = tokenCache.get();
-        if (originalDataMap != null) {
-            return new WechatWorkCorpOAuth2Token(originalDataMap);
-        } else if (semaphoreForGettingToken.tryAcquire()) {
-            try {
-                WechatWorkCorpOAuth2Token token = apiGetToken.execute();
-                tokenCache.save(token.getOriginalDataMap(), token.getAccessTokenExpirationSeconds());
-                return token;
-            } finally {
-                semaphoreForGettingToken.release();
-            }
-        } else {
-            // Not directly recursive is to prevent stack overflow.
-            do {
-                try {
-                    Thread.sleep(50);
-                } catch (InterruptedException ignored) {
-                    Thread.currentThread().interrupt();
-                }
-                originalDataMap = tokenCache.get();
-                if (originalDataMap != null) { return new WechatWorkCorpOAuth2Token(originalDataMap); }
-            } while (semaphoreForGettingToken.availablePermits() == 0);
-            // Do not use `tokenCache.get()` directly, because the semaphore may be released due to an exception.
-            return getToken();
-        }
+        injectApiGetToken();
+        WechatWorkCorpOAuth2Token cached = getCachedToken();
+        if (cached != null) { return cached; }
+        return fetchToken(null);
+    }
+
+    /**
+     * Get oauth2 token asynchronously.
+     *
+     * <p><strong>If the cached token has expired, in the case of concurrency, only one request will actually perform
+     * the fetch operation, the others subscribe to its result.</strong>
+     *
+     * @return future of oauth2 token
+     */
+    public CompletableFuture<WechatWorkCorpOAuth2Token> getTokenAsync() {
+        injectApiGetToken();
+        WechatWorkCorpOAuth2Token cached = getCachedToken();
+        if (cached != null) { return CompletableFuture.completedFuture(cached); }
+        return fetchTokenAsync(null);
+    }
+
+    /**
+     * Fetch a new token(coalesced and leased), and save it to the token cache.
+     *
+     * @param replaced the token to replace(nullable)
+     * @return a token other than the replaced one
+     * @throws OAuth2Exception if oauth2 failed
+     */
+    private WechatWorkCorpOAuth2Token fetchToken(WechatWorkCorpOAuth2Token replaced) throws OAuth2Exception {
+        return singleFlightForGettingToken.execute(tokenCacheKey, () -> {
+            // The token may have been saved by the last flight.
+            WechatWorkCorpOAuth2Token saved = getCachedTokenOtherThan(replaced);
+            if (saved != null) { return saved; }
+            return LeaseUtils.execute(
+                    getLeaseManager(), initLeaseName(), () -> getCachedTokenOtherThan(replaced),
+                    () -> saveToken(apiGetToken.execute()));
+        });
+    }
+
+    /**
+     * Fetch a new token(coalesced and leased) asynchronously, and save it to the token cache.
+     *
+     * @param replaced the token to replace(nullable)
+     * @return future of a token other than the replaced one
+     */
+    private CompletableFuture<WechatWorkCorpOAuth2Token> fetchTokenAsync(WechatWorkCorpOAuth2Token replaced) {
+        return singleFlightForGettingToken.executeAsync(tokenCacheKey, () -> LeaseUtils.executeAsync(
+                getLeaseManager(), initLeaseName(), () -> getCachedTokenOtherThan(replaced),
+                () -> apiGetToken.executeAsync().thenApply(this::saveToken)));
+    }
+
+    /**
+     * Get token from the token cache.
+     *
+     * @return token, or {@code null} if absent
+     */
+    private WechatWorkCorpOAuth2Token getCachedToken() {
+        return getCachedTokenOtherThan(null);
+    }
+
+    /**
+     * Get token from the token cache if it is not the replaced one.
+     *
+     * @param replaced the token to replace(nullable)
+     * @return token, or {@code null} if absent or it is the replaced one
+     */
+    private WechatWorkCorpOAuth2Token getCachedTokenOtherThan(WechatWorkCorpOAuth2Token replaced) {
+        DataMap originalDataMap = tokenCache.get(tokenCacheKey);
+        if (originalDataMap == null) { return null; }
+        WechatWorkCorpOAuth2Token token = new WechatWorkCorpOAuth2Token(originalDataMap);
+        if (replaced != null && Objects.equals(token.getAccessToken(), replaced.getAccessToken())) { return null; }
+        return token;
+    }
+
+    /**
+     * Initialize name of the lease for getting token.
+     *
+     * @return name of the lease
+     */
+    private String initLeaseName() {
+        return "okauth:" + getOpenPlatform() + ":get-token:" + tokenCacheKey;
+    }
+
+    /**
+     * Save token to the token cache.
+     *
+     * @param token token
+     * @return token
+     */
+    private WechatWorkCorpOAuth2Token saveToken(WechatWorkCorpOAuth2Token token) {
+        Integer expirationSeconds = token.getAccessTokenExpirationSeconds();
+        tokenCache.save(tokenCacheKey, token.getOriginalDataMap(), (expirationSeconds == null)
+                ? WechatWorkCorpTokenCache.DEFAULT_ACCESS_TOKEN_EXPIRATION_SECONDS
+                : expirationSeconds);
+        return token;
     }
 
     /**
@@ -138,6 +243,16 @@ public class WechatWorkCorpOAuth2Client extends OAuth2Client<WechatWorkCorpOAuth
         return refreshIfAccessTokenExpired(apiExchangeUseridForUser, userid);
     }
 
+    /**
+     * Exchange token and userid for user asynchronously.
+     *
+     * @param userid user id
+     * @return future of user
+     */
+    public CompletableFuture<WechatWorkCorpOAuth2User> exchangeForUserAsync(String userid) {
+        return refreshIfAccessTokenExpiredAsync(apiExchangeUseridForUser, userid);
+    }
+
     /**
      * Auto-refresh access token if the api throws {@code ExpiredAccessTokenException}.
      *
@@ -152,21 +267,41 @@ public class WechatWorkCorpOAuth2Client extends OAuth2Client<WechatWorkCorpOAuth
         try {
             return useridRelatedApi.execute(userid);
         } catch (ExpiredAccessTokenException e) {
-            tokenCache.delete();
+            tokenCache.delete(tokenCacheKey);
             return useridRelatedApi.execute(userid);
         }
     }
 
+    /**
+     * Auto-refresh access token asynchronously if the api fails with {@code ExpiredAccessTokenException}.
+     *
+     * @param useridRelatedApi userid related api
+     * @param userid userid
+     * @param <R> type of result
+     * @return future of result of the api
+     */
+    protected <R> CompletableFuture<R> refreshIfAccessTokenExpiredAsync(
+            OAuth2FunctionApi<String, R> useridRelatedApi, String userid) {
+        return useridRelatedApi.executeAsync(userid)
+                .handle((result, throwable) -> {
+                    if (throwable == null) {
+                        return CompletableFuture.completedFuture(result);
+                    } else if (FutureUtils.unwrap(throwable) instanceof ExpiredAccessTokenException) {
+                        tokenCache.delete(tokenCacheKey);
+                        return useridRelatedApi.executeAsync(userid);
+                    } else {
+                        return FutureUtils.<R>failed(FutureUtils.unwrap(throwable));
+                    }
+                })
+                .thenCompose(Function.identity());
+    }
+
     // #################### initialize api ##############################################
 
     @Override
     protected InitializeAuthorizeUrl initApiInitializeAuthorizeUrl() {
         OAuth2Url basic = initBasicAuthorizeUrl(appInfo.getAuthorizeType());
-        return state -> {
-            OAuth2Url authorizeUrl = basic.copy();
-            authorizeUrl.getQuery().addState(state);
-            return authorizeUrl;
-        };
+        return InitializeAuthorizeUrl.appendState(basic);
     }
 
     /**
@@ -224,11 +359,16 @@ public class WechatWorkCorpOAuth2Client extends OAuth2Client<WechatWorkCorpOAuth
      */
     protected OAuth2SupplierApi<WechatWorkCorpOAuth2Token> initApiGetToken() {
         String url = "https://qyapi.weixin.qq.com/cgi-bin/gettoken";
-        OAuth2HttpRequest request = OAuth2HttpRequest.initGet(url);
-        request.getUrl().getQuery()
+        OAuth2HttpRequest basic = OAuth2HttpRequest.initGet(url);
+        basic.getUrl().getQuery()
                 .add("corpid", appInfo.getCorpId())
                 .add("corpsecret", appInfo.getCorpSecret());
-        return () -> new WechatWorkCorpOAuth2Token(executeAndCheck(request));
+        OAuth2HttpRequestTemplate template = new OAuth2HttpRequestTemplate(basic);
+        return OAuth2SupplierApi.of(
+                () -> new WechatWorkCorpOAuth2Token(OAuth2Token.recordIssuedAt(executeAndCheck(template.build()))),
+                () -> executeAndCheckAsync(template.build())
+                        .thenApply(OAuth2Token::recordIssuedAt)
+                        .thenApply(WechatWorkCorpOAuth2Token::new));
     }
 
     /**
@@ -239,33 +379,50 @@ public class WechatWorkCorpOAuth2Client extends OAuth2Client<WechatWorkCorpOAuth
     protected OAuth2FunctionApi<String, WechatWorkCorpOAuth2User> initApiExchangeUseridForUser() {
         String url = "https://qyapi.weixin.qq.com/cgi-bin/user/get";
         OAuth2HttpRequest basic = OAuth2HttpRequest.initGet(url);
-        return userid -> {
-            OAuth2HttpRequest request = basic.copy();
-            request.getUrl().getQuery()
-                    .addAccessToken(getToken().getAccessToken())
-                    .add("userid", userid);
-            return new WechatWorkCorpOAuth2User(executeAndCheck(request));
-        };
+        OAuth2HttpRequestTemplate template = new OAuth2HttpRequestTemplate(basic);
+        BiFunction<WechatWorkCorpOAuth2Token, String, OAuth2HttpRequest> requestInitializer =
+                (token, userid) -> template.bind()
+                        .addQuery("access_token", token.getAccessToken())
+                        .addQuery("userid", userid)
+                        .build();
+        return OAuth2FunctionApi.of(
+                userid -> checkUserResponse(httpClient.execute(requestInitializer.apply(getToken(), userid))),
+                userid -> getTokenAsync()
+                        .thenApply(token -> requestInitializer.apply(token, userid))
+                        .thenCompose(httpClient::executeAsync)
+                        .thenApply(FutureUtils.unchecked(this::checkUserResponse)));
     }
 
     @Override
     protected ExchangeRedirectUriQueryForOpenid initApiExchangeRedirectUriQueryForOpenid() {
         String url = "https://qyapi.weixin.qq.com/cgi-bin/user/getuserinfo";
         OAuth2HttpRequest basic = OAuth2HttpRequest.initGet(url);
-        return redirectUriQuery -> {
-            OAuth2HttpRequest request = basic.copy();
-            request.getUrl().getQuery()
-                    .addAccessToken(getToken().getAccessToken())
-                    .addCode(redirectUriQuery.getCode());
-            String userId = executeAndCheck(request).getAsString("UserId");
+        OAuth2HttpRequestTemplate template = new OAuth2HttpRequestTemplate(basic);
+        BiFunction<WechatWorkCorpOAuth2Token, OAuth2RedirectUriQuery, OAuth2HttpRequest> requestInitializer =
+                (token, redirectUriQuery) -> template.bind()
+                        .addQuery("access_token", token.getAccessToken())
+                        .addQuery("code", redirectUriQuery.getCode())
+                        .build();
+        OAuth2FunctionApi<DataMap, String> useridExtractor = dataMap -> {
+            String userId = dataMap.getAsString("UserId");
             if (userId != null) { return userId; }
             throw new InvalidUserAuthorizationException(getOpenPlatform());
         };
+        return ExchangeRedirectUriQueryForOpenid.of(
+                redirectUriQuery -> useridExtractor.execute(
+                        executeAndCheck(requestInitializer.apply(getToken(), redirectUriQuery))),
+                redirectUriQuery -> getTokenAsync()
+                        .thenApply(token -> requestInitializer.apply(token, redirectUriQuery))
+                        .thenCompose(this::executeAndCheckAsync)
+                        .thenApply(FutureUtils.unchecked(useridExtractor)));
     }
 
     @Override
     protected ExchangeRedirectUriQueryForUser<WechatWorkCorpOAuth2User> initApiExchangeRedirectUriQueryForUser() {
-        return redirectUriQuery -> exchangeForUser(exchangeForOpenid(redirectUriQuery));
+        return ExchangeRedirectUriQueryForUser.of(
+                redirectUriQuery -> exchangeForUser(exchangeForOpenid(redirectUriQuery)),
+                redirectUriQuery -> exchangeForOpenidAsync(redirectUriQuery)
+                        .thenCompose(userid -> exchangeForUserAsync(userid)));
     }
 
     // #################### execute request and check response ##########################
@@ -278,22 +435,79 @@ public class WechatWorkCorpOAuth2Client extends OAuth2Client<WechatWorkCorpOAuth
      * @throws OAuth2Exception if oauth2 failed
      */
     protected DataMap executeAndCheck(OAuth2HttpRequest request) throws OAuth2Exception {
-        OAuth2HttpResponse response = httpClient.execute(request);
+        return checkResponse(httpClient.execute(request));
+    }
+
+    /**
+     * Execute request asynchronously and check response.
+     *
+     * @param request request
+     * @return future of correct data map
+     */
+    protected CompletableFuture<DataMap> executeAndCheckAsync(OAuth2HttpRequest request) {
+        return httpClient.executeAsync(request)
+                .thenApply(FutureUtils.unchecked(this::checkResponse));
+    }
+
+    /**
+     * Check response.
+     *
+     * @param response response
+     * @return correct data map
+     * @throws OAuth2Exception if oauth2 failed
+     */
+    protected DataMap checkResponse(OAuth2HttpResponse response) throws OAuth2Exception {
         DataMap dataMap = response.readJsonAsDataMap();
-        String errcode = dataMap.getAsString("errcode");
-        String errmsg = dataMap.getAsString("errmsg");
+        checkErrcode(dataMap.getAsString("errcode"), dataMap.getAsString("errmsg"));
+        dataMap.remove("errcode");
+        dataMap.remove("errmsg");
+        return dataMap;
+    }
+
+    /**
+     * Check response of request for user.
+     *
+     * <p>The user and the error fields are decoded from the response bytes in a single pass(without intermediate data
+     * map).
+     *
+     * @param response response
+     * @return user
+     * @throws OAuth2Exception if oauth2 failed
+     */
+    protected WechatWorkCorpOAuth2User checkUserResponse(OAuth2HttpResponse response) throws OAuth2Exception {
+        DataMap error = new DataMap(4);
+        WechatWorkCorpOAuth2User user;
+        try {
+            user = WechatWorkCorpOAuth2User.readJson(response.readInputStreamAsBytes(), (name, parser) -> {
+                if (!"errcode".equals(name) && !"errmsg".equals(name)) { return false; }
+                error.put(name, ReadUtils.readJsonValueAsString(parser));
+                return true;
+            });
+        } catch (IOException e) {
+            throw new OAuth2IOException(e);
+        }
+        checkErrcode(error.getAsString("errcode"), error.getAsString("errmsg"));
+        return user;
+    }
+
+    /**
+     * Check errcode.
+     *
+     * @param errcode errcode
+     * @param errmsg errmsg
+     * @throws OAuth2ErrorException if errcode is not {@code "0"}
+     */
+    private void checkErrcode(String errcode, String errmsg) throws OAuth2ErrorException {
         switch (errcode) {
             case "0":
-                dataMap.remove("errcode");
-                dataMap.remove("errmsg");
-                return dataMap;
+                return;
             case "42001":
-                throw new ExpiredAccessTokenException(getOpenPlatform(), errcode, errmsg);
+                throw reportError(new ExpiredAccessTokenException(getOpenPlatform(), errcode, errmsg));
             case "40014":
             case "41001":
-                throw new InvalidAccessTokenException(getOpenPlatform(), errcode, errmsg);
+                throw reportError(new InvalidAccessTokenException(getOpenPlatform(), errcode, errmsg));
             default:
-                throw new OAuth2ErrorException(getOpenPlatform(), errcode, errmsg);
+                throw reportError(new OAuth2ErrorException(getOpenPlatform(), errcode, errmsg));
         }
     }
 
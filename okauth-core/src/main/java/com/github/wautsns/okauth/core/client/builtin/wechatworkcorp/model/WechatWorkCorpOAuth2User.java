@@ -15,13 +15,25 @@
  */
 package com.github.wautsns.okauth.core.client.builtin.wechatworkcorp.model;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.github.wautsns.okauth.core.assist.http.kernel.model.basic.DataMap;
+import com.github.wautsns.okauth.core.assist.http.kernel.util.ReadUtils;
+import com.github.wautsns.okauth.core.assist.http.kernel.util.WriteUtils;
 import com.github.wautsns.okauth.core.client.builtin.BuiltInOpenPlatformNames;
 import com.github.wautsns.okauth.core.client.kernel.model.OAuth2User;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamException;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -101,97 +113,128 @@ import java.util.stream.Collectors;
  * }
  * </pre>
  *
+ * <p>Scalar fields are decoded once(with a streaming json parser), and the original data map is initialized lazily.
+ * <p>The serialized form is kept as before(only the original data map), so that users serialized by older versions
+ * can still be deserialized, and vice versa.
+ *
  * @author wautsns
  * @since May 23, 2020
  */
-@Data
+@Getter
 public class WechatWorkCorpOAuth2User implements OAuth2User {
 
     private static final long serialVersionUID = -8284465889855788132L;
+    /** Serialized fields(the same as older versions). */
+    private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField("originalDataMap", DataMap.class)
+    };
+
+    /** Original json bytes. */
+    @Getter(AccessLevel.NONE)
+    private final byte[] originalJson;
+    /** Original data map(initialized lazily). */
+    @Getter(AccessLevel.NONE)
+    private transient volatile DataMap originalDataMap;
+
+    private String userid;
+    private String name;
+    @Getter(AccessLevel.NONE)
+    private int[] department;
+    @Getter(AccessLevel.NONE)
+    private int[] order;
+    private String position;
+    private String mobile;
+    private Gender gender = Gender.UNKNOWN;
+    private String email;
+    @Getter(AccessLevel.NONE)
+    private int[] isLeaderInDept;
+    private String avatar;
+    private String thumbAvatar;
+    private String telephone;
+    private String alias;
+    private String address;
+    private String openUserid;
+    private Integer mainDepartment;
+    private Status status;
+    private String qrCode;
+    private String externalPosition;
+
+    /**
+     * Construct a WechatWorkCorp oauth2 user.
+     *
+     * @param originalDataMap original data map
+     */
+    public WechatWorkCorpOAuth2User(DataMap originalDataMap) {
+        this(WriteUtils.writeObjectAsJsonBytes(originalDataMap));
+        this.originalDataMap = originalDataMap;
+        try {
+            ReadUtils.readJsonFields(originalJson, this::readJsonField);
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
 
-    /** Original data map. */
-    private final DataMap originalDataMap;
+    /**
+     * Construct a WechatWorkCorp oauth2 user.
+     *
+     * @param originalJson original json bytes
+     */
+    private WechatWorkCorpOAuth2User(byte[] originalJson) {
+        this.originalJson = originalJson;
+    }
+
+    /**
+     * Read json bytes as WechatWorkCorp oauth2 user.
+     *
+     * <p>Fields that are not read by the user(such as {@code errcode} and {@code errmsg}) will be passed to the
+     * {@code otherFieldReader}.
+     *
+     * @param originalJson original json bytes
+     * @param otherFieldReader reader for other fields
+     * @return WechatWorkCorp oauth2 user
+     * @throws IOException if the json is malformed
+     */
+    public static WechatWorkCorpOAuth2User readJson(byte[] originalJson, ReadUtils.JsonFieldReader otherFieldReader)
+            throws IOException {
+        WechatWorkCorpOAuth2User user = new WechatWorkCorpOAuth2User(originalJson);
+        ReadUtils.readJsonFields(originalJson, (name, parser) ->
+                user.readJsonField(name, parser) || otherFieldReader.read(name, parser));
+        return user;
+    }
 
     @Override
     public String getOpenPlatform() {
         return BuiltInOpenPlatformNames.WECHAT_WORK_CORP;
     }
 
-    public String getUserid() {
-        return originalDataMap.getAsString("userid");
-    }
-
-    public String getName() {
-        return originalDataMap.getAsString("name");
+    @Override
+    public DataMap getOriginalDataMap() {
+        if (originalDataMap != null) { return originalDataMap; }
+        try {
+            DataMap dataMap = ReadUtils.readJsonAsDataMap(originalJson);
+            dataMap.remove("errcode");
+            dataMap.remove("errmsg");
+            originalDataMap = dataMap;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return originalDataMap;
     }
 
     public List<Integer> getDepartment() {
-        return originalDataMap.getAs("department");
+        return toList(department);
     }
 
     public List<Integer> getOrder() {
-        return originalDataMap.getAs("order");
-    }
-
-    public String getPosition() {
-        return originalDataMap.getAsString("position");
-    }
-
-    public String getMobile() {
-        return originalDataMap.getAsString("mobile");
-    }
-
-    @Override
-    public Gender getGender() {
-        String gender = originalDataMap.getAsString("gender");
-        if ("1".equals(gender)) {
-            return Gender.MALE;
-        } else if ("2".equals(gender)) {
-            return Gender.FEMALE;
-        } else {
-            return Gender.UNKNOWN;
-        }
-    }
-
-    @Override
-    public String getEmail() {
-        return originalDataMap.getAsString("email");
+        return toList(order);
     }
 
     public List<Integer> getIsLeaderInDept() {
-        return originalDataMap.getAs("is_leader_in_dept");
-    }
-
-    public String getAvatar() {
-        return originalDataMap.getAsString("avatar");
-    }
-
-    public String getThumbAvatar() {
-        return originalDataMap.getAsString("thumb_avatar");
-    }
-
-    public String getTelephone() {
-        return originalDataMap.getAsString("telephone");
-    }
-
-    public String getAlias() {
-        return originalDataMap.getAsString("alias");
-    }
-
-    public String getAddress() {
-        return originalDataMap.getAsString("address");
-    }
-
-    public String getOpenUserid() {
-        return originalDataMap.getAsString("open_userid");
-    }
-
-    public Integer getMainDepartment() {
-        return originalDataMap.getAsInteger("main_department");
+        return toList(isLeaderInDept);
     }
 
     public ExtAttr getExtattr() {
-        return new ExtAttr(originalDataMap.getAsDataMap("extattr"));
+        return new ExtAttr(getOriginalDataMap().getAsDataMap("extattr"));
     }
 
     @RequiredArgsConstructor
@@ -217,20 +260,8 @@ public class WechatWorkCorpOAuth2User implements OAuth2User {
 
     }
 
-    public Status getStatus() {
-        return Status.getByValue(originalDataMap.getAsInteger("status"));
-    }
-
-    public String getQrCode() {
-        return originalDataMap.getAsString("qr_code");
-    }
-
-    public String getExternalPosition() {
-        return originalDataMap.getAsString("external_position");
-    }
-
     public ExternalProfile getExternalProfile() {
-        return new ExternalProfile(originalDataMap.getAsDataMap("external_profile"));
+        return new ExternalProfile(getOriginalDataMap().getAsDataMap("external_profile"));
     }
 
     // #################### amendment ###################################################
@@ -265,6 +296,154 @@ public class WechatWorkCorpOAuth2User implements OAuth2User {
         return getMobile();
     }
 
+    // #################### serialization ###############################################
+
+    /**
+     * Write the user in the serialized form of older versions.
+     *
+     * @param out object output stream
+     * @throws IOException if IO exception occurs
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("originalDataMap", getOriginalDataMap());
+        out.writeFields();
+    }
+
+    /**
+     * Read the user from the serialized form of older versions.
+     *
+     * @param in object input stream
+     * @throws IOException if IO exception occurs
+     * @throws ClassNotFoundException if class of a serialized object cannot be found
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        this.originalDataMap = (DataMap) fields.get("originalDataMap", null);
+    }
+
+    /**
+     * Rebuild the original json and fields from the deserialized original data map.
+     *
+     * @return WechatWorkCorp oauth2 user
+     * @throws ObjectStreamException if the original data map is absent
+     */
+    private Object readResolve() throws ObjectStreamException {
+        if (originalDataMap == null) { throw new InvalidObjectException("Original data map is absent."); }
+        return new WechatWorkCorpOAuth2User(originalDataMap);
+    }
+
+    // #################### internal ####################################################
+
+    /**
+     * Read json field.
+     *
+     * @param fieldName field name
+     * @param parser json parser
+     * @return {@code true} if the value has been consumed, otherwise {@code false}
+     * @throws IOException if IO exception occurs
+     */
+    private boolean readJsonField(String fieldName, JsonParser parser) throws IOException {
+        switch (fieldName) {
+            case "userid":
+                userid = ReadUtils.readJsonValueAsString(parser);
+                return true;
+            case "name":
+                name = ReadUtils.readJsonValueAsString(parser);
+                return true;
+            case "department":
+                department = ReadUtils.readJsonValueAsIntArray(parser);
+                return true;
+            case "order":
+                order = ReadUtils.readJsonValueAsIntArray(parser);
+                return true;
+            case "position":
+                position = ReadUtils.readJsonValueAsString(parser);
+                return true;
+            case "mobile":
+                mobile = ReadUtils.readJsonValueAsString(parser);
+                return true;
+            case "gender":
+                String genderValue = ReadUtils.readJsonValueAsString(parser);
+                if ("1".equals(genderValue)) {
+                    gender = Gender.MALE;
+                } else if ("2".equals(genderValue)) {
+                    gender = Gender.FEMALE;
+                } else {
+                    gender = Gender.UNKNOWN;
+                }
+                return true;
+            case "email":
+                email = ReadUtils.readJsonValueAsString(parser);
+                return true;
+            case "is_leader_in_dept":
+                isLeaderInDept = ReadUtils.readJsonValueAsIntArray(parser);
+                return true;
+            case "avatar":
+                avatar = ReadUtils.readJsonValueAsString(parser);
+                return true;
+            case "thumb_avatar":
+                thumbAvatar = ReadUtils.readJsonValueAsString(parser);
+                return true;
+            case "telephone":
+                telephone = ReadUtils.readJsonValueAsString(parser);
+                return true;
+            case "alias":
+                alias = ReadUtils.readJsonValueAsString(parser);
+                return true;
+            case "address":
+                address = ReadUtils.readJsonValueAsString(parser);
+                return true;
+            case "open_userid":
+                openUserid = ReadUtils.readJsonValueAsString(parser);
+                return true;
+            case "main_department":
+                mainDepartment = ReadUtils.readJsonValueAsInteger(parser);
+                return true;
+            case "status":
+                status = Status.getByValue(ReadUtils.readJsonValueAsInteger(parser));
+                return true;
+            case "qr_code":
+                qrCode = ReadUtils.readJsonValueAsString(parser);
+                return true;
+            case "external_position":
+                externalPosition = ReadUtils.readJsonValueAsString(parser);
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Convert int array to list.
+     *
+     * @param values int array
+     * @return list, or {@code null} if the values is {@code null}
+     */
+    private static List<Integer> toList(int[] values) {
+        if (values == null) { return null; }
+        List<Integer> list = new ArrayList<>(values.length);
+        for (int value : values) { list.add(value); }
+        return list;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) { return true; }
+        if (!(obj instanceof WechatWorkCorpOAuth2User)) { return false; }
+        return getOriginalDataMap().equals(((WechatWorkCorpOAuth2User) obj).getOriginalDataMap());
+    }
+
+    @Override
+    public int hashCode() {
+        return getOriginalDataMap().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "WechatWorkCorpOAuth2User(originalDataMap=" + getOriginalDataMap() + ")";
+    }
+
     // #################### external ####################################################
 
     @Data
@@ -23,24 +23,56 @@ import com.github.wautsns.okauth.core.client.kernel.api.basic.OAuth2SupplierApi;
 /**
  * WeCharWorkCorp token cache.
  *
- * <p><strong>No need to consider concurrency issues.(See {@link WechatWorkCorpOAuth2Client#getToken()} for
- * details)</strong>
+ * <p>Tokens are keyed by {@linkplain #initKey(String, String) corp id and agent id}, so that a cache can be shared by
+ * multiple clients. The keyed methods delegate to the unkeyed ones by default(for compatibility with caches holding
+ * a single token), implementations that may be shared should override them.
+ * <p><strong>A client fetches token without concurrency(see {@link WechatWorkCorpOAuth2Client#getToken()} for
+ * details), but a shared cache may be accessed by multiple clients concurrently.</strong>
  *
  * @author wautsns
  * @since May 23, 2020
  */
 public interface WechatWorkCorpTokenCache {
 
+    /** Default access token expiration seconds(used if the open platform gives no {@code expires_in}). */
+    int DEFAULT_ACCESS_TOKEN_EXPIRATION_SECONDS = 7200;
+
+    /**
+     * Initialize key of token.
+     *
+     * @param corpId corp id
+     * @param agentId agent id(nullable)
+     * @return key of token
+     */
+    static String initKey(String corpId, String agentId) {
+        return corpId + ':' + agentId;
+    }
+
     /**
      * Inject API: get token.
      *
-     * <p>The method will be called after {@linkplain WechatWorkCorpOAuth2Client} is constructed.
+     * <p>The method will be called once {@linkplain WechatWorkCorpOAuth2Client#injectApiGetToken() the client injects
+     * the api}(on first use of token, or explicitly after construction).
      * <p>When the old token is abort to expire, you can use the api to refresh token asynchronously.
+     * <p>Fetches through the api are coalesced and leased the same as the fetches of the client(see
+     * {@link WechatWorkCorpOAuth2Client#getToken()} for details), and the fetched token is saved to the cache by the
+     * client before it is returned.
      *
      * @param apiGetToken API: get token
      */
     default void injectApiGetToken(OAuth2SupplierApi<WechatWorkCorpOAuth2Token> apiGetToken) {}
 
+    /**
+     * Inject API: get token of the key.
+     *
+     * @param key key of token
+     * @param apiGetToken API: get token
+     * @see #injectApiGetToken(OAuth2SupplierApi)
+     */
+    default void injectApiGetToken(String key, OAuth2SupplierApi<WechatWorkCorpOAuth2Token> apiGetToken) {
+        injectApiGetToken(apiGetToken);
+    }
+
     /**
      * Get oauth2 token original data map.
      *
@@ -49,6 +81,16 @@ public interface WechatWorkCorpTokenCache {
      */
     DataMap get();
 
+    /**
+     * Get oauth2 token original data map of the key.
+     *
+     * @param key key of token
+     * @return oauth2 token original data map
+     */
+    default DataMap get(String key) {
+        return get();
+    }
+
     /**
      * Save oauth2 token original data map.
      *
@@ -58,7 +100,27 @@ public interface WechatWorkCorpTokenCache {
      */
     void save(DataMap originalDataMap, int accessTokenExpirationSeconds);
 
+    /**
+     * Save oauth2 token original data map of the key.
+     *
+     * @param key key of token
+     * @param originalDataMap oauth2 token original data map
+     * @param accessTokenExpirationSeconds access token expiration seconds
+     */
+    default void save(String key, DataMap originalDataMap, int accessTokenExpirationSeconds) {
+        save(originalDataMap, accessTokenExpirationSeconds);
+    }
+
     /** Delete oauth2 token original data map. */
     void delete();
 
+    /**
+     * Delete oauth2 token original data map of the key.
+     *
+     * @param key key of token
+     */
+    default void delete(String key) {
+        delete();
+    }
+
 }
@@ -0,0 +1,329 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.okauth.core.client.builtin.wechatworkcorp.service.tokencache.builtin;
+
+import com.github.wautsns.okauth.core.assist.http.kernel.model.basic.DataMap;
+import com.github.wautsns.okauth.core.assist.http.kernel.util.ReadUtils;
+import com.github.wautsns.okauth.core.assist.http.kernel.util.WriteUtils;
+import com.github.wautsns.okauth.core.client.builtin.wechatworkcorp.model.WechatWorkCorpOAuth2Token;
+import com.github.wautsns.okauth.core.client.builtin.wechatworkcorp.service.tokencache.WechatWorkCorpTokenCache;
+import lombok.RequiredArgsConstructor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.CRC32;
+
+/**
+ * Memory-mapped file WechatWorkCorp token cache.
+ *
+ * <p>Each key has a small memory-mapped file in the directory, so a restarted JVM reuses the still-valid token
+ * immediately instead of calling the quota-limited api again, and JVMs on one host share tokens.
+ * <p>The file has two slots, a write goes to the older one with a higher sequence and a CRC32 checksum, so a torn
+ * write(such as a crash) never destroys the last valid token. Writes are serialized by a file lock(across JVMs),
+ * reads are lock-free and validated by the checksum. Decoded tokens are cached in memory until the file changes.
+ *
+ * @author wautsns
+ * @since Oct 17, 2026
+ */
+public class WechatWorkCorpTokenFileCache implements WechatWorkCorpTokenCache, AutoCloseable {
+
+    /** Key used by the unkeyed methods. */
+    private static final String DEFAULT_KEY = "";
+
+    /** Magic number of the file. */
+    private static final int MAGIC = 0x4F4B5443;
+    /** Version of the file format. */
+    private static final int VERSION = 1;
+    /** Size of the file header. */
+    private static final int HEADER_SIZE = 64;
+    /** Size of a slot. */
+    private static final int SLOT_SIZE = 4096;
+    /** Size of the slot header(sequence, expiration timestamp, length, checksum). */
+    private static final int SLOT_HEADER_SIZE = 24;
+    /** Max length of the payload. */
+    private static final int MAX_PAYLOAD_LENGTH = SLOT_SIZE - SLOT_HEADER_SIZE;
+    /** Size of the file. */
+    private static final int FILE_SIZE = HEADER_SIZE + 2 * SLOT_SIZE;
+    /** Max attempts of reading when slots are being written. */
+    private static final int MAX_READ_ATTEMPTS = 8;
+
+    /** Monitors of files(a file lock is held by the JVM, so threads must be serialized before locking). */
+    private static final ConcurrentMap<Path, Object> MONITORS = new ConcurrentHashMap<>();
+
+    /** Directory of files. */
+    private final Path directory;
+    /** Mapped files. */
+    private final ConcurrentMap<String, MappedFile> files = new ConcurrentHashMap<>();
+
+    /**
+     * Construct a memory-mapped file WechatWorkCorp token cache.
+     *
+     * @param directory directory of files(will be created if absent)
+     */
+    public WechatWorkCorpTokenFileCache(Path directory) {
+        try {
+            this.directory = Files.createDirectories(directory).toAbsolutePath().normalize();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public DataMap get() {
+        return get(DEFAULT_KEY);
+    }
+
+    @Override
+    public DataMap get(String key) {
+        Record record = file(key).read();
+        if (record == null || record.expirationTimestamp < System.currentTimeMillis()) { return null; }
+        return record.value;
+    }
+
+    @Override
+    public void save(DataMap originalDataMap, int accessTokenExpirationSeconds) {
+        save(DEFAULT_KEY, originalDataMap, accessTokenExpirationSeconds);
+    }
+
+    @Override
+    public void save(String key, DataMap originalDataMap, int accessTokenExpirationSeconds) {
+        long expirationTimestamp = System.currentTimeMillis() + accessTokenExpirationSeconds * 1000L;
+        file(key).write(WriteUtils.writeObjectAsJsonBytes(originalDataMap), expirationTimestamp);
+    }
+
+    @Override
+    public void delete() {
+        delete(DEFAULT_KEY);
+    }
+
+    @Override
+    public void delete(String key) {
+        file(key).write(new byte[0], 0);
+    }
+
+    /** Close files. */
+    @Override
+    public void close() {
+        files.values().forEach(MappedFile::close);
+        files.clear();
+    }
+
+    // #################### internal ####################################################
+
+    /**
+     * Get mapped file of the key(opened lazily).
+     *
+     * @param key key of token
+     * @return mapped file
+     */
+    private MappedFile file(String key) {
+        return files.computeIfAbsent(key, k -> new MappedFile(directory.resolve(initFileName(k))));
+    }
+
+    /**
+     * Initialize file name of the key.
+     *
+     * @param key key of token
+     * @return file name
+     */
+    private static String initFileName(String key) {
+        String name = key.isEmpty() ? "default" : key.replaceAll("[^A-Za-z0-9._-]", "_");
+        return "okauth-wechat-work-corp-token-" + name + ".dat";
+    }
+
+    /** Mapped file. */
+    private static class MappedFile {
+
+        /** Monitor of the file. */
+        private final Object monitor;
+        /** File channel. */
+        private final FileChannel channel;
+        /** Mapped buffer(only absolute operations are used, or on duplicates). */
+        private final MappedByteBuffer buffer;
+        /** Last decoded record. */
+        private volatile Record cached;
+
+        /**
+         * Open the mapped file.
+         *
+         * @param path path of the file
+         */
+        private MappedFile(Path path) {
+            this.monitor = MONITORS.computeIfAbsent(path, p -> new Object());
+            try {
+                this.channel = FileChannel.open(
+                        path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_SIZE);
+                synchronized (monitor) {
+                    try (FileLock ignored = channel.lock()) {
+                        initHeader(path);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Initialize header(slots are cleared if the file is new or of another version).
+         *
+         * @param path path of the file
+         */
+        private void initHeader(Path path) {
+            int magic = buffer.getInt(0);
+            if (magic == MAGIC && buffer.getInt(4) == VERSION) { return; }
+            if (magic != MAGIC && magic != 0) {
+                throw new IllegalStateException(String.format("[%s] is not a token file.", path));
+            }
+            for (int i = HEADER_SIZE; i < FILE_SIZE; i += 8) { buffer.putLong(i, 0); }
+            buffer.putInt(4, VERSION);
+            buffer.putInt(0, MAGIC);
+            buffer.force();
+        }
+
+        /**
+         * Read the latest valid record.
+         *
+         * <p>If both slots are invalid while being written by others, reading will be retried a few times.
+         *
+         * @return the latest valid record, or {@code null} if absent
+         */
+        private Record read() {
+            for (int attempt = 0; ; attempt++) {
+                long sequence0 = buffer.getLong(HEADER_SIZE);
+                long sequence1 = buffer.getLong(HEADER_SIZE + SLOT_SIZE);
+                Record record = cached;
+                if (record != null && record.sequence == Math.max(sequence0, sequence1)) { return record; }
+                int newer = (sequence0 >= sequence1) ? HEADER_SIZE : HEADER_SIZE + SLOT_SIZE;
+                int older = (newer == HEADER_SIZE) ? HEADER_SIZE + SLOT_SIZE : HEADER_SIZE;
+                record = readSlot(newer);
+                if (record == null) { record = readSlot(older); }
+                if (record != null) {
+                    cached = record;
+                    return record;
+                } else if (attempt == MAX_READ_ATTEMPTS - 1 || (sequence0 == buffer.getLong(HEADER_SIZE)
+                        && sequence1 == buffer.getLong(HEADER_SIZE + SLOT_SIZE))) {
+                    return null;
+                }
+            }
+        }
+
+        /**
+         * Write a record to the older slot.
+         *
+         * @param payload payload
+         * @param expirationTimestamp expiration timestamp
+         */
+        private void write(byte[] payload, long expirationTimestamp) {
+            if (payload.length > MAX_PAYLOAD_LENGTH) {
+                throw new IllegalArgumentException("Token is too large to be saved in the file.");
+            }
+            synchronized (monitor) {
+                try (FileLock ignored = channel.lock()) {
+                    long sequence0 = buffer.getLong(HEADER_SIZE);
+                    long sequence1 = buffer.getLong(HEADER_SIZE + SLOT_SIZE);
+                    int offset = (sequence0 <= sequence1) ? HEADER_SIZE : HEADER_SIZE + SLOT_SIZE;
+                    long sequence = Math.max(sequence0, sequence1) + 1;
+                    ByteBuffer slot = buffer.duplicate();
+                    slot.position(offset + SLOT_HEADER_SIZE);
+                    slot.put(payload);
+                    buffer.putLong(offset + 8, expirationTimestamp);
+                    buffer.putInt(offset + 16, payload.length);
+                    buffer.putInt(offset + 20, checksum(sequence, expirationTimestamp, payload));
+                    buffer.putLong(offset, sequence);
+                    buffer.force();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+
+        /**
+         * Read the slot.
+         *
+         * @param offset offset of the slot
+         * @return record, or {@code null} if the slot is empty or corrupted
+         */
+        private Record readSlot(int offset) {
+            long sequence = buffer.getLong(offset);
+            long expirationTimestamp = buffer.getLong(offset + 8);
+            int length = buffer.getInt(offset + 16);
+            int checksum = buffer.getInt(offset + 20);
+            if (sequence == 0 || length < 0 || length > MAX_PAYLOAD_LENGTH) { return null; }
+            byte[] payload = new byte[length];
+            ByteBuffer slot = buffer.duplicate();
+            slot.position(offset + SLOT_HEADER_SIZE);
+            slot.get(payload);
+            if (checksum != checksum(sequence, expirationTimestamp, payload)) { return null; }
+            if (buffer.getLong(offset) != sequence) { return null; }
+            try {
+                DataMap value = (length == 0) ? null : ReadUtils.readJsonAsDataMap(payload);
+                return new Record(sequence, value, (value == null) ? 0 : expirationTimestamp);
+            } catch (IOException e) {
+                return null;
+            }
+        }
+
+        /**
+         * Calculate checksum of the record.
+         *
+         * @param sequence sequence
+         * @param expirationTimestamp expiration timestamp
+         * @param payload payload
+         * @return checksum
+         */
+        private static int checksum(long sequence, long expirationTimestamp, byte[] payload) {
+            CRC32 crc32 = new CRC32();
+            crc32.update(ByteBuffer.allocate(20).putLong(sequence).putLong(expirationTimestamp)
+                    .putInt(payload.length).array());
+            crc32.update(payload);
+            return (int) crc32.getValue();
+        }
+
+        /** Close the file. */
+        private void close() {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // Nothing to do.
+            }
+        }
+
+    }
+
+    /** Record(immutable, so that it can be published safely). */
+    @RequiredArgsConstructor
+    private static class Record {
+
+        /** Sequence. */
+        private final long sequence;
+        /** {@linkplain WechatWorkCorpOAuth2Token#getOriginalDataMap() Original token data map}. */
+        private final DataMap value;
+        /** Timestamp token expire at. */
+        private final long expirationTimestamp;
+
+    }
+
+}
@@ -20,10 +20,16 @@ import com.github.wautsns.okauth.core.client.builtin.wechatworkcorp.model.Wechat
 import com.github.wautsns.okauth.core.client.builtin.wechatworkcorp.service.tokencache.WechatWorkCorpTokenCache;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Local WechatWorkCorp token cache.
  *
+ * <p>Tokens are keyed, so the instance can be shared by multiple clients.
+ *
  * @author wautsns
  * @since Jun 16, 2020
  */
@@ -33,31 +39,59 @@ public class WechatWorkCorpTokenLocalCache implements WechatWorkCorpTokenCache {
     /** Local WechatWorkCorp token cache instance. */
     public static final WechatWorkCorpTokenLocalCache INSTANCE = new WechatWorkCorpTokenLocalCache();
 
-    /** {@linkplain WechatWorkCorpOAuth2Token#getOriginalDataMap() Original token data map}. */
-    private DataMap value;
-    /** Timestamp token expire at. */
-    private long expirationTimestamp = Long.MIN_VALUE;
+    /** Key used by the unkeyed methods. */
+    private static final String DEFAULT_KEY = "";
+
+    /** Entries. */
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
 
     @Override
     public DataMap get() {
-        if (value == null) {
+        return get(DEFAULT_KEY);
+    }
+
+    @Override
+    public DataMap get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
             return null;
-        } else if (expirationTimestamp < System.currentTimeMillis()) {
+        } else if (entry.expirationTimestamp < System.currentTimeMillis()) {
             return null;
         } else {
-            return value;
+            return entry.value;
         }
     }
 
     @Override
     public void save(DataMap originalDataMap, int accessTokenExpirationSeconds) {
-        value = originalDataMap;
-        expirationTimestamp = System.currentTimeMillis() + accessTokenExpirationSeconds * 1000;
+        save(DEFAULT_KEY, originalDataMap, accessTokenExpirationSeconds);
+    }
+
+    @Override
+    public void save(String key, DataMap originalDataMap, int accessTokenExpirationSeconds) {
+        long expirationTimestamp = System.currentTimeMillis() + accessTokenExpirationSeconds * 1000L;
+        entries.put(key, new Entry(originalDataMap, expirationTimestamp));
     }
 
     @Override
     public void delete() {
-        value = null;
+        delete(DEFAULT_KEY);
+    }
+
+    @Override
+    public void delete(String key) {
+        entries.remove(key);
+    }
+
+    /** Entry(immutable, so that it can be published safely). */
+    @RequiredArgsConstructor
+    private static class Entry {
+
+        /** {@linkplain WechatWorkCorpOAuth2Token#getOriginalDataMap() Original token data map}. */
+        private final DataMap value;
+        /** Timestamp token expire at. */
+        private final long expirationTimestamp;
+
     }
 
 }
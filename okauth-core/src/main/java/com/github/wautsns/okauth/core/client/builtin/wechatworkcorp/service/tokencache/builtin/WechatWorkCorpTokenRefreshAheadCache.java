@@ -0,0 +1,239 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.okauth.core.client.builtin.wechatworkcorp.service.tokencache.builtin;
+
+import com.github.wautsns.okauth.core.assist.http.kernel.model.basic.DataMap;
+import com.github.wautsns.okauth.core.client.builtin.wechatworkcorp.model.WechatWorkCorpOAuth2Token;
+import com.github.wautsns.okauth.core.client.builtin.wechatworkcorp.service.tokencache.WechatWorkCorpTokenCache;
+import com.github.wautsns.okauth.core.client.kernel.api.basic.OAuth2SupplierApi;
+import com.github.wautsns.okauth.core.client.kernel.util.FutureUtils;
+import com.github.wautsns.okauth.core.exception.OAuth2IOException;
+import lombok.RequiredArgsConstructor;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Refresh-ahead WechatWorkCorp token cache.
+ *
+ * <p>Tokens are keyed, so the instance can be shared by multiple clients. Before a token expires, it will be
+ * refreshed asynchronously(with jitter, so tokens of different keys are not refreshed at the same time). If refreshing
+ * fails, it will be retried while the old token is still valid. When the api is injected, the token will be fetched
+ * asynchronously if it is absent(coalesced with fetches of the client), and retried with the same delay if failed
+ * because of IO exception, until the token is present.
+ *
+ * @author wautsns
+ * @since Oct 17, 2026
+ */
+public class WechatWorkCorpTokenRefreshAheadCache implements WechatWorkCorpTokenCache {
+
+    /** Key used by the unkeyed methods. */
+    private static final String DEFAULT_KEY = "";
+    /** Delay of retrying after refreshing failed. */
+    private static final long RETRY_DELAY_MILLIS = 10_000;
+
+    /** Scheduler. */
+    private final ScheduledExecutorService scheduler;
+    /** Ratio of token lifetime to refresh ahead. */
+    private final double refreshAheadRatio;
+    /** Max ratio of token lifetime to add as jitter. */
+    private final double jitterRatio;
+
+    /** APIs: get token. */
+    private final ConcurrentMap<String, OAuth2SupplierApi<WechatWorkCorpOAuth2Token>> apis =
+            new ConcurrentHashMap<>();
+    /** Entries. */
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Construct a refresh-ahead WechatWorkCorp token cache.
+     *
+     * <p>Tokens are refreshed when 85%~90% of the lifetime has passed, in a shared daemon thread.
+     */
+    public WechatWorkCorpTokenRefreshAheadCache() {
+        this(SharedScheduler.INSTANCE, 0.1, 0.05);
+    }
+
+    /**
+     * Construct a refresh-ahead WechatWorkCorp token cache.
+     *
+     * @param scheduler scheduler
+     * @param refreshAheadRatio ratio of token lifetime to refresh ahead, such as {@code 0.1}
+     * @param jitterRatio max ratio of token lifetime to add as jitter, such as {@code 0.05}
+     */
+    public WechatWorkCorpTokenRefreshAheadCache(
+            ScheduledExecutorService scheduler, double refreshAheadRatio, double jitterRatio) {
+        this.scheduler = scheduler;
+        this.refreshAheadRatio = refreshAheadRatio;
+        this.jitterRatio = jitterRatio;
+    }
+
+    @Override
+    public void injectApiGetToken(OAuth2SupplierApi<WechatWorkCorpOAuth2Token> apiGetToken) {
+        injectApiGetToken(DEFAULT_KEY, apiGetToken);
+    }
+
+    @Override
+    public void injectApiGetToken(String key, OAuth2SupplierApi<WechatWorkCorpOAuth2Token> apiGetToken) {
+        apis.put(key, apiGetToken);
+        scheduler.execute(() -> warmUp(key, apiGetToken));
+    }
+
+    @Override
+    public DataMap get() {
+        return get(DEFAULT_KEY);
+    }
+
+    @Override
+    public DataMap get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        } else if (entry.expirationTimestamp < System.currentTimeMillis()) {
+            return null;
+        } else {
+            return entry.value;
+        }
+    }
+
+    @Override
+    public void save(DataMap originalDataMap, int accessTokenExpirationSeconds) {
+        save(DEFAULT_KEY, originalDataMap, accessTokenExpirationSeconds);
+    }
+
+    @Override
+    public void save(String key, DataMap originalDataMap, int accessTokenExpirationSeconds) {
+        long lifetimeMillis = accessTokenExpirationSeconds * 1000L;
+        Entry entry = new Entry(originalDataMap, System.currentTimeMillis() + lifetimeMillis);
+        Entry old = entries.put(key, entry);
+        if (old != null) { old.cancelRefreshing(); }
+        double ratio = 1 - refreshAheadRatio - ThreadLocalRandom.current().nextDouble() * jitterRatio;
+        scheduleRefreshing(key, entry, Math.max(0, (long) (lifetimeMillis * ratio)));
+    }
+
+    @Override
+    public void delete() {
+        delete(DEFAULT_KEY);
+    }
+
+    @Override
+    public void delete(String key) {
+        Entry old = entries.remove(key);
+        if (old != null) { old.cancelRefreshing(); }
+    }
+
+    // #################### internal ####################################################
+
+    /**
+     * Save token.
+     *
+     * @param key key of token
+     * @param token token
+     */
+    private void save(String key, WechatWorkCorpOAuth2Token token) {
+        Integer expirationSeconds = token.getAccessTokenExpirationSeconds();
+        save(key, token.getOriginalDataMap(), (expirationSeconds == null)
+                ? DEFAULT_ACCESS_TOKEN_EXPIRATION_SECONDS
+                : expirationSeconds);
+    }
+
+    /**
+     * Fetch the token if it is absent, retry later if failed because of IO exception.
+     *
+     * @param key key of token
+     * @param apiGetToken API: get token
+     */
+    private void warmUp(String key, OAuth2SupplierApi<WechatWorkCorpOAuth2Token> apiGetToken) {
+        if (apis.get(key) != apiGetToken || entries.containsKey(key)) { return; }
+        apiGetToken.executeAsync().whenComplete((token, throwable) -> {
+            if (entries.containsKey(key)) {
+                return;
+            } else if (throwable == null) {
+                save(key, token);
+            } else if (FutureUtils.unwrap(throwable) instanceof OAuth2IOException) {
+                scheduler.schedule(() -> warmUp(key, apiGetToken), RETRY_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        });
+    }
+
+    /**
+     * Schedule refreshing of the entry.
+     *
+     * @param key key of token
+     * @param entry entry
+     * @param delayMillis delay in milliseconds
+     */
+    private void scheduleRefreshing(String key, Entry entry, long delayMillis) {
+        entry.refreshFuture = scheduler.schedule(() -> refresh(key, entry), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Refresh the entry.
+     *
+     * @param key key of token
+     * @param entry entry
+     */
+    private void refresh(String key, Entry entry) {
+        OAuth2SupplierApi<WechatWorkCorpOAuth2Token> apiGetToken = apis.get(key);
+        if (apiGetToken == null || entries.get(key) != entry) { return; }
+        apiGetToken.executeAsync().whenComplete((token, throwable) -> {
+            if (entries.get(key) != entry) {
+                return;
+            } else if (throwable == null) {
+                save(key, token);
+            } else if (System.currentTimeMillis() + RETRY_DELAY_MILLIS < entry.expirationTimestamp) {
+                scheduleRefreshing(key, entry, RETRY_DELAY_MILLIS);
+            }
+        });
+    }
+
+    /** Entry. */
+    @RequiredArgsConstructor
+    private static class Entry {
+
+        /** {@linkplain WechatWorkCorpOAuth2Token#getOriginalDataMap() Original token data map}. */
+        private final DataMap value;
+        /** Timestamp token expire at. */
+        private final long expirationTimestamp;
+        /** Future of refreshing. */
+        private volatile ScheduledFuture<?> refreshFuture;
+
+        /** Cancel refreshing. */
+        private void cancelRefreshing() {
+            ScheduledFuture<?> future = refreshFuture;
+            if (future != null) { future.cancel(false); }
+        }
+
+    }
+
+    /** Shared scheduler(single daemon thread, initialized lazily). */
+    private static class SharedScheduler {
+
+        /** Shared scheduler instance. */
+        private static final ScheduledExecutorService INSTANCE = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "okauth-wechat-work-corp-token-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+    }
+
+}
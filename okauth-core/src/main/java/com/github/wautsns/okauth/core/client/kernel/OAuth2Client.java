@@ -17,15 +17,19 @@ package com.github.wautsns.okauth.core.client.kernel;
 
 import com.github.wautsns.okauth.core.assist.http.kernel.OAuth2HttpClient;
 import com.github.wautsns.okauth.core.assist.http.kernel.model.basic.OAuth2Url;
+import com.github.wautsns.okauth.core.assist.http.kernel.model.basic.OAuth2UrlTemplate;
 import com.github.wautsns.okauth.core.client.kernel.api.ExchangeRedirectUriQueryForOpenid;
 import com.github.wautsns.okauth.core.client.kernel.api.ExchangeRedirectUriQueryForUser;
 import com.github.wautsns.okauth.core.client.kernel.model.OAuth2RedirectUriQuery;
 import com.github.wautsns.okauth.core.client.kernel.model.OAuth2User;
 import com.github.wautsns.okauth.core.client.kernel.model.OpenPlatformSupplier;
+import com.github.wautsns.okauth.core.client.kernel.service.lease.OAuth2LeaseManager;
+import com.github.wautsns.okauth.core.exception.OAuth2ErrorException;
 import com.github.wautsns.okauth.core.exception.OAuth2Exception;
 import lombok.Getter;
 
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * OAuth2 client.
@@ -48,6 +52,14 @@ public abstract class OAuth2Client<A extends OAuth2AppInfo, U extends OAuth2User
     /** API: exchange redirect uri query for user. */
     protected final ExchangeRedirectUriQueryForUser<U> apiExchangeRedirectUriQueryForUser;
 
+    /**
+     * Lease manager(default: {@link OAuth2LeaseManager#NONE}).
+     *
+     * <p>It is consulted before talking to the platform for shared tokens, so that only the lease holder across the
+     * cluster does it.
+     */
+    private volatile OAuth2LeaseManager leaseManager = OAuth2LeaseManager.NONE;
+
     /**
      * Construct an oauth2 client.
      *
@@ -72,6 +84,16 @@ public abstract class OAuth2Client<A extends OAuth2AppInfo, U extends OAuth2User
         return apiInitializeAuthorizeUrl.execute(state);
     }
 
+    /**
+     * Initialize authorize url as string.
+     *
+     * @param state state
+     * @return authorize url string
+     */
+    public String initAuthorizeUrlAsString(String state) {
+        return apiInitializeAuthorizeUrl.executeAsString(state);
+    }
+
     /**
      * Exchange redirect uri query for openid.
      *
@@ -94,6 +116,56 @@ public abstract class OAuth2Client<A extends OAuth2AppInfo, U extends OAuth2User
         return apiExchangeRedirectUriQueryForUser.execute(redirectUriQuery);
     }
 
+    /**
+     * Exchange redirect uri query for openid asynchronously.
+     *
+     * @param redirectUriQuery redirect uri query
+     * @return future of openid
+     */
+    public CompletableFuture<String> exchangeForOpenidAsync(OAuth2RedirectUriQuery redirectUriQuery) {
+        return apiExchangeRedirectUriQueryForOpenid.executeAsync(redirectUriQuery);
+    }
+
+    /**
+     * Exchange redirect uri query for user asynchronously.
+     *
+     * @param redirectUriQuery redirect uri query
+     * @return future of user
+     */
+    public CompletableFuture<U> exchangeForUserAsync(OAuth2RedirectUriQuery redirectUriQuery) {
+        return apiExchangeRedirectUriQueryForUser.executeAsync(redirectUriQuery);
+    }
+
+    /**
+     * Get lease manager.
+     *
+     * @return lease manager
+     */
+    public OAuth2LeaseManager getLeaseManager() {
+        return leaseManager;
+    }
+
+    /**
+     * Set lease manager.
+     *
+     * @param leaseManager lease manager
+     */
+    public void setLeaseManager(OAuth2LeaseManager leaseManager) {
+        this.leaseManager = Objects.requireNonNull(leaseManager);
+    }
+
+    /**
+     * Report the oauth2 error to the http client(for metrics, etc.).
+     *
+     * @param e oauth2 error exception
+     * @param <E> type of oauth2 error exception
+     * @return the oauth2 error exception
+     */
+    protected <E extends OAuth2ErrorException> E reportError(E e) {
+        httpClient.onError(e);
+        return e;
+    }
+
     // #################### initialize api ##############################################
 
     /**
@@ -135,6 +207,39 @@ public abstract class OAuth2Client<A extends OAuth2AppInfo, U extends OAuth2User
          */
         OAuth2Url execute(String state);
 
+        /**
+         * Initialize authorize url as string.
+         *
+         * @param state state
+         * @return authorize url string
+         */
+        default String executeAsString(String state) {
+            return execute(state).toString();
+        }
+
+        /**
+         * Initialize API: append state to the basic authorize url.
+         *
+         * <p>The basic authorize url is rendered once, later changes to it will not affect the API.
+         *
+         * @param basic basic authorize url
+         * @return API: initialize authorize url
+         */
+        static InitializeAuthorizeUrl appendState(OAuth2Url basic) {
+            OAuth2UrlTemplate template = new OAuth2UrlTemplate(basic, "state");
+            return new InitializeAuthorizeUrl() {
+                @Override
+                public OAuth2Url execute(String state) {
+                    return template.bind(state);
+                }
+
+                @Override
+                public String executeAsString(String state) {
+                    return template.render(state);
+                }
+            };
+        }
+
     }
 
 }
@@ -16,17 +16,34 @@
 package com.github.wautsns.okauth.core.client.kernel;
 
 import com.github.wautsns.okauth.core.assist.http.kernel.OAuth2HttpClient;
+import com.github.wautsns.okauth.core.assist.http.kernel.model.OAuth2HttpRequest;
+import com.github.wautsns.okauth.core.assist.http.kernel.model.OAuth2HttpResponse;
 import com.github.wautsns.okauth.core.client.kernel.api.ExchangeRedirectUriQueryForOpenid;
 import com.github.wautsns.okauth.core.client.kernel.api.ExchangeRedirectUriQueryForToken;
 import com.github.wautsns.okauth.core.client.kernel.api.ExchangeRedirectUriQueryForUser;
 import com.github.wautsns.okauth.core.client.kernel.api.ExchangeTokenForOpenid;
 import com.github.wautsns.okauth.core.client.kernel.api.ExchangeTokenForUser;
+import com.github.wautsns.okauth.core.client.kernel.api.basic.OAuth2FunctionApi;
 import com.github.wautsns.okauth.core.client.kernel.model.OAuth2RedirectUriQuery;
 import com.github.wautsns.okauth.core.client.kernel.model.OAuth2Token;
 import com.github.wautsns.okauth.core.client.kernel.model.OAuth2User;
+import com.github.wautsns.okauth.core.client.kernel.service.invalidtokencache.OAuth2InvalidTokenCache;
+import com.github.wautsns.okauth.core.client.kernel.service.openidcache.OAuth2OpenidCache;
+import com.github.wautsns.okauth.core.client.kernel.service.usercache.OAuth2UserCache;
+import com.github.wautsns.okauth.core.client.kernel.service.validatorstore.OAuth2ValidatorStore;
+import com.github.wautsns.okauth.core.client.kernel.util.Encryptors;
+import com.github.wautsns.okauth.core.client.kernel.util.FutureUtils;
+import com.github.wautsns.okauth.core.client.kernel.util.SingleFlight;
+import com.github.wautsns.okauth.core.exception.OAuth2ErrorException;
 import com.github.wautsns.okauth.core.exception.OAuth2Exception;
+import com.github.wautsns.okauth.core.exception.specific.token.ExpiredAccessTokenException;
+import com.github.wautsns.okauth.core.exception.specific.token.ExpiredRefreshTokenException;
+import com.github.wautsns.okauth.core.exception.specific.token.InvalidAccessTokenException;
+import com.github.wautsns.okauth.core.exception.specific.token.InvalidRefreshTokenException;
+import com.github.wautsns.okauth.core.exception.specific.user.InvalidUserAuthorizationException;
 
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Token available oauth2 client.
@@ -37,6 +54,14 @@ import java.util.Objects;
 public abstract class TokenAvailableOAuth2Client<A extends OAuth2AppInfo, T extends OAuth2Token, U extends OAuth2User>
         extends OAuth2Client<A, U> {
 
+    /**
+     * Retention millis of tokens exchanged by codes.
+     *
+     * <p>Callbacks may be hit more than once with the same code(by browsers or reverse proxies). Since codes are
+     * one-time, the repeated exchanges would fail with invalid code if sent to the open platform.
+     */
+    private static final long CODE_EXCHANGE_RETENTION_MILLIS = 30_000;
+
     /** API: exchange redirect uri query for token. */
     protected final ExchangeRedirectUriQueryForToken<T> apiExchangeRedirectUriQueryForToken;
     /** API: exchange token for open id. */
@@ -44,6 +69,40 @@ public abstract class TokenAvailableOAuth2Client<A extends OAuth2AppInfo, T exte
     /** API: exchange token for user. */
     protected final ExchangeTokenForUser<T, U> apiExchangeTokenForUser;
 
+    /** Single flight for exchanging code for token(keyed by code, per client and thus per open platform). */
+    private final SingleFlight<String, T> singleFlightForExchangingCode =
+            new SingleFlight<>(CODE_EXCHANGE_RETENTION_MILLIS);
+    /**
+     * User cache(nullable).
+     *
+     * <p>If present, users exchanged by tokens with id are cached(see {@link #exchangeForUser(OAuth2Token)} for
+     * details).
+     */
+    private volatile OAuth2UserCache userCache;
+    /** Single flight for revalidating user(keyed by key of user). */
+    private final SingleFlight<String, U> singleFlightForRevalidatingUser = new SingleFlight<>();
+    /**
+     * Validator store(nullable).
+     *
+     * <p>If present, clients supporting conditional requests send {@code If-None-Match} with the stored entity tag,
+     * and return the stored value on {@code 304 Not Modified}.
+     */
+    private volatile OAuth2ValidatorStore validatorStore;
+    /**
+     * Openid cache(nullable).
+     *
+     * <p>If present, openids exchanged by tokens(or read from users exchanged by tokens) are cached until the access
+     * token expires.
+     */
+    private volatile OAuth2OpenidCache openidCache;
+    /**
+     * Invalid token cache(nullable).
+     *
+     * <p>If present, tokens known to be invalid(or expired and unrefreshable) are rejected locally with the exception
+     * the open platform gave, instead of being sent to the open platform again.
+     */
+    private volatile OAuth2InvalidTokenCache invalidTokenCache;
+
     /**
      * Construct a token available oauth2 client.
      *
@@ -60,36 +119,479 @@ public abstract class TokenAvailableOAuth2Client<A extends OAuth2AppInfo, T exte
     /**
      * Exchange redirect uri query for token.
      *
+     * <p>Concurrent and repeated exchanges of the same code share one execution, and its token is retained for a
+     * while(30 seconds). Failures are not retained.
+     *
      * @param redirectUriQuery redirect uri query
      * @return token
      * @throws OAuth2Exception if oauth2 failed
      */
     public T exchangeForToken(OAuth2RedirectUriQuery redirectUriQuery) throws OAuth2Exception {
-        return apiExchangeRedirectUriQueryForToken.execute(redirectUriQuery);
+        String code = redirectUriQuery.getCode();
+        if (code == null) { return apiExchangeRedirectUriQueryForToken.execute(redirectUriQuery); }
+        return singleFlightForExchangingCode.execute(
+                code, () -> apiExchangeRedirectUriQueryForToken.execute(redirectUriQuery));
     }
 
     /**
      * Exchange token query for openid.
      *
+     * <p>If the {@linkplain #setOpenidCache(OAuth2OpenidCache) openid cache} is present, a cached openid is returned
+     * without network.
+     * <p>If the {@linkplain #setInvalidTokenCache(OAuth2InvalidTokenCache) invalid token cache} is present, a token
+     * known to be invalid is rejected locally.
+     *
      * @param token token
      * @return openid
      * @throws OAuth2Exception if oauth2 failed
      */
     public String exchangeForOpenid(T token) throws OAuth2Exception {
-        return apiExchangeTokenForOpenid.execute(token);
+        OAuth2ErrorException invalidation = getInvalidation(token);
+        if (invalidation != null) { throw invalidation; }
+        OAuth2OpenidCache cache = openidCache;
+        if (cache == null) { return fetchOpenid(token); }
+        String key = initTokenKey(token);
+        String openid = cache.get(key);
+        if (openid != null) { return openid; }
+        openid = fetchOpenid(token);
+        cache.save(key, openid, token.getAccessTokenExpirationTimestamp());
+        return openid;
     }
 
     /**
      * Exchange token query for user.
      *
+     * <p>If the {@linkplain #setUserCache(OAuth2UserCache) user cache} is present and the token has id, a fresh cached
+     * user is returned directly, a stale cached user is returned while being revalidated in the background.
+     * <p>Tokens known to be invalid are rejected locally if possible.(See {@link #exchangeForOpenid(OAuth2Token)} for
+     * details)
+     *
      * @param token token
      * @return user
      * @throws OAuth2Exception if oauth2 failed
      */
     public U exchangeForUser(T token) throws OAuth2Exception {
+        OAuth2ErrorException invalidation = getInvalidation(token);
+        if (invalidation != null) { throw invalidation; }
+        OAuth2UserCache cache = userCache;
+        String tokenId = token.getTokenId();
+        if (cache == null || tokenId == null) { return saveOpenid(token, fetchUser(token)); }
+        String key = OAuth2UserCache.initKey(getOpenPlatform(), tokenId);
+        U cached = getCachedUser(cache, key, token);
+        if (cached != null) { return cached; }
+        U user = saveOpenid(token, fetchUser(token));
+        cache.save(key, user);
+        return user;
+    }
+
+    /**
+     * Exchange redirect uri query for token asynchronously.
+     *
+     * <p>Exchanges of the same code are coalesced.(See {@link #exchangeForToken(OAuth2RedirectUriQuery)} for details)
+     *
+     * @param redirectUriQuery redirect uri query
+     * @return future of token
+     */
+    public CompletableFuture<T> exchangeForTokenAsync(OAuth2RedirectUriQuery redirectUriQuery) {
+        String code = redirectUriQuery.getCode();
+        if (code == null) { return apiExchangeRedirectUriQueryForToken.executeAsync(redirectUriQuery); }
+        return singleFlightForExchangingCode.executeAsync(
+                code, () -> apiExchangeRedirectUriQueryForToken.executeAsync(redirectUriQuery));
+    }
+
+    /**
+     * Exchange token for openid asynchronously.
+     *
+     * <p>Openids are cached if possible.(See {@link #exchangeForOpenid(OAuth2Token)} for details)
+     *
+     * @param token token
+     * @return future of openid
+     */
+    public CompletableFuture<String> exchangeForOpenidAsync(T token) {
+        OAuth2ErrorException invalidation = getInvalidation(token);
+        if (invalidation != null) { return FutureUtils.failed(invalidation); }
+        OAuth2OpenidCache cache = openidCache;
+        if (cache == null) { return fetchOpenidAsync(token); }
+        String key = initTokenKey(token);
+        String openid = cache.get(key);
+        if (openid != null) { return CompletableFuture.completedFuture(openid); }
+        return fetchOpenidAsync(token).thenApply(result -> {
+            cache.save(key, result, token.getAccessTokenExpirationTimestamp());
+            return result;
+        });
+    }
+
+    /**
+     * Exchange token for user asynchronously.
+     *
+     * <p>Users are cached if possible.(See {@link #exchangeForUser(OAuth2Token)} for details)
+     *
+     * @param token token
+     * @return future of user
+     */
+    public CompletableFuture<U> exchangeForUserAsync(T token) {
+        OAuth2ErrorException invalidation = getInvalidation(token);
+        if (invalidation != null) { return FutureUtils.failed(invalidation); }
+        OAuth2UserCache cache = userCache;
+        String tokenId = token.getTokenId();
+        if (cache == null || tokenId == null) {
+            return fetchUserAsync(token).thenApply(user -> saveOpenid(token, user));
+        }
+        String key = OAuth2UserCache.initKey(getOpenPlatform(), tokenId);
+        U cached = getCachedUser(cache, key, token);
+        if (cached != null) { return CompletableFuture.completedFuture(cached); }
+        return fetchUserAsync(token).thenApply(user -> {
+            cache.save(key, saveOpenid(token, user));
+            return user;
+        });
+    }
+
+    /**
+     * Get user cache.
+     *
+     * @return user cache, or {@code null} if absent
+     */
+    public OAuth2UserCache getUserCache() {
+        return userCache;
+    }
+
+    /**
+     * Set user cache.
+     *
+     * @param userCache user cache(nullable)
+     */
+    public void setUserCache(OAuth2UserCache userCache) {
+        this.userCache = userCache;
+    }
+
+    /**
+     * Get openid cache.
+     *
+     * @return openid cache, or {@code null} if absent
+     */
+    public OAuth2OpenidCache getOpenidCache() {
+        return openidCache;
+    }
+
+    /**
+     * Set openid cache.
+     *
+     * @param openidCache openid cache(nullable)
+     */
+    public void setOpenidCache(OAuth2OpenidCache openidCache) {
+        this.openidCache = openidCache;
+    }
+
+    /**
+     * Get invalid token cache.
+     *
+     * @return invalid token cache, or {@code null} if absent
+     */
+    public OAuth2InvalidTokenCache getInvalidTokenCache() {
+        return invalidTokenCache;
+    }
+
+    /**
+     * Set invalid token cache.
+     *
+     * @param invalidTokenCache invalid token cache(nullable)
+     */
+    public void setInvalidTokenCache(OAuth2InvalidTokenCache invalidTokenCache) {
+        this.invalidTokenCache = invalidTokenCache;
+    }
+
+    /**
+     * Get validator store.
+     *
+     * @return validator store, or {@code null} if absent
+     */
+    public OAuth2ValidatorStore getValidatorStore() {
+        return validatorStore;
+    }
+
+    /**
+     * Set validator store.
+     *
+     * @param validatorStore validator store(nullable)
+     */
+    public void setValidatorStore(OAuth2ValidatorStore validatorStore) {
+        this.validatorStore = validatorStore;
+    }
+
+    /**
+     * Exchange token for openid(without cache).
+     *
+     * @param token token
+     * @return openid
+     * @throws OAuth2Exception if oauth2 failed
+     */
+    protected String doExchangeForOpenid(T token) throws OAuth2Exception {
+        return apiExchangeTokenForOpenid.execute(token);
+    }
+
+    /**
+     * Exchange token for openid asynchronously(without cache).
+     *
+     * @param token token
+     * @return future of openid
+     */
+    protected CompletableFuture<String> doExchangeForOpenidAsync(T token) {
+        return apiExchangeTokenForOpenid.executeAsync(token);
+    }
+
+    /**
+     * Exchange token for user(without cache).
+     *
+     * @param token token
+     * @return user
+     * @throws OAuth2Exception if oauth2 failed
+     */
+    protected U doExchangeForUser(T token) throws OAuth2Exception {
         return apiExchangeTokenForUser.execute(token);
     }
 
+    /**
+     * Exchange token for user asynchronously(without cache).
+     *
+     * @param token token
+     * @return future of user
+     */
+    protected CompletableFuture<U> doExchangeForUserAsync(T token) {
+        return apiExchangeTokenForUser.executeAsync(token);
+    }
+
+    /**
+     * Exchange token for openid(without cache), and save the token to the invalid token cache if it is invalid.
+     *
+     * @param token token
+     * @return openid
+     * @throws OAuth2Exception if oauth2 failed
+     */
+    private String fetchOpenid(T token) throws OAuth2Exception {
+        try {
+            return doExchangeForOpenid(token);
+        } catch (OAuth2ErrorException e) {
+            saveIfInvalid(token, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Exchange token for openid asynchronously(without cache), and save the token to the invalid token cache if it
+     * is invalid.
+     *
+     * @param token token
+     * @return future of openid
+     */
+    private CompletableFuture<String> fetchOpenidAsync(T token) {
+        return doExchangeForOpenidAsync(token).whenComplete((openid, throwable) -> {
+            if (throwable != null) { saveIfInvalid(token, FutureUtils.unwrap(throwable)); }
+        });
+    }
+
+    /**
+     * Exchange token for user(without cache), and save the token to the invalid token cache if it is invalid.
+     *
+     * @param token token
+     * @return user
+     * @throws OAuth2Exception if oauth2 failed
+     */
+    private U fetchUser(T token) throws OAuth2Exception {
+        try {
+            return doExchangeForUser(token);
+        } catch (OAuth2ErrorException e) {
+            saveIfInvalid(token, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Exchange token for user asynchronously(without cache), and save the token to the invalid token cache if it is
+     * invalid.
+     *
+     * @param token token
+     * @return future of user
+     */
+    private CompletableFuture<U> fetchUserAsync(T token) {
+        return doExchangeForUserAsync(token).whenComplete((user, throwable) -> {
+            if (throwable != null) { saveIfInvalid(token, FutureUtils.unwrap(throwable)); }
+        });
+    }
+
+    /**
+     * Get the exception of the token if it is known to be invalid.
+     *
+     * @param token token
+     * @return exception of the token, or {@code null} if the token is not known to be invalid
+     */
+    private OAuth2ErrorException getInvalidation(T token) {
+        OAuth2InvalidTokenCache cache = invalidTokenCache;
+        return (cache == null) ? null : cache.get(initTokenKey(token));
+    }
+
+    /**
+     * Save the token to the invalid token cache(if present) if the exception shows that it is invalid or expired and
+     * unrefreshable.
+     *
+     * @param token token
+     * @param throwable throwable
+     */
+    private void saveIfInvalid(T token, Throwable throwable) {
+        OAuth2InvalidTokenCache cache = invalidTokenCache;
+        if (cache == null) { return; }
+        if (isInvalidTokenException(throwable)) {
+            cache.save(initTokenKey(token), (OAuth2ErrorException) throwable);
+        }
+    }
+
+    /**
+     * Whether the throwable shows that the token is invalid or expired and unrefreshable.
+     *
+     * @param throwable throwable
+     * @return {@code true} if the token is invalid, otherwise {@code false}
+     */
+    private static boolean isInvalidTokenException(Throwable throwable) {
+        return throwable instanceof InvalidAccessTokenException
+                || throwable instanceof ExpiredAccessTokenException
+                || throwable instanceof InvalidRefreshTokenException
+                || throwable instanceof ExpiredRefreshTokenException;
+    }
+
+    /**
+     * Initialize key of the token(platform and hash of the access token).
+     *
+     * @param token token
+     * @return key of the token
+     */
+    private String initTokenKey(T token) {
+        return getOpenPlatform() + ':' + Encryptors.MD5.encrypt(token.getAccessToken());
+    }
+
+    /**
+     * Save openid of the user exchanged by the token to the openid cache(if present).
+     *
+     * @param token token
+     * @param user user
+     * @return user
+     */
+    private U saveOpenid(T token, U user) {
+        OAuth2OpenidCache cache = openidCache;
+        String openid = user.getOpenid();
+        if (cache != null && openid != null) {
+            cache.save(initTokenKey(token), openid, token.getAccessTokenExpirationTimestamp());
+        }
+        return user;
+    }
+
+    /**
+     * Get cached user, revalidate it in the background if it is stale.
+     *
+     * <p>If the revalidation fails because the token is invalid or expired, or the user authorization is invalid, the
+     * stale user is deleted. Otherwise(eg. IO exception or outage of the open platform), the stale user is kept.
+     *
+     * @param cache user cache
+     * @param key key of user
+     * @param token token
+     * @return cached user, or {@code null} if absent
+     */
+    @SuppressWarnings("unchecked")
+    private U getCachedUser(OAuth2UserCache cache, String key, T token) {
+        OAuth2UserCache.Entry entry = cache.get(key);
+        if (entry == null) { return null; }
+        if (!entry.isFresh()) {
+            singleFlightForRevalidatingUser.executeAsync(key, () -> fetchUserAsync(token))
+                    .whenComplete((user, throwable) -> {
+                        if (throwable == null) {
+                            cache.save(key, user);
+                        } else {
+                            Throwable cause = FutureUtils.unwrap(throwable);
+                            if (isInvalidTokenException(cause) || cause instanceof InvalidUserAuthorizationException) {
+                                cache.delete(key);
+                            }
+                        }
+                    });
+        }
+        return (U) entry.getUser();
+    }
+
+    // #################### conditional request ########################################
+
+    /**
+     * Initialize key of validator for the token.
+     *
+     * @param api name of the api
+     * @param token token
+     * @return key of validator
+     */
+    protected String initValidatorKey(String api, T token) {
+        return getOpenPlatform() + ':' + api + ':' + Encryptors.MD5.encrypt(token.getAccessToken());
+    }
+
+    /**
+     * Execute request conditionally(if the validator store is present), and check response.
+     *
+     * @param request request
+     * @param validatorKey key of validator
+     * @param checker response checker
+     * @param <R> type of result
+     * @return result
+     * @throws OAuth2Exception if oauth2 failed
+     */
+    protected <R> R executeConditionallyAndCheck(
+            OAuth2HttpRequest request, String validatorKey, OAuth2FunctionApi<OAuth2HttpResponse, R> checker)
+            throws OAuth2Exception {
+        OAuth2ValidatorStore store = validatorStore;
+        if (store == null) { return checker.execute(httpClient.execute(request)); }
+        OAuth2ValidatorStore.Validator validator = store.get(validatorKey);
+        if (validator != null) { request.getHeaders().addIfNoneMatch(validator.getETag()); }
+        return checkConditionalResponse(store, validatorKey, validator, httpClient.execute(request), checker);
+    }
+
+    /**
+     * Execute request conditionally(if the validator store is present) asynchronously, and check response.
+     *
+     * @param request request
+     * @param validatorKey key of validator
+     * @param checker response checker
+     * @param <R> type of result
+     * @return future of result
+     */
+    protected <R> CompletableFuture<R> executeConditionallyAndCheckAsync(
+            OAuth2HttpRequest request, String validatorKey, OAuth2FunctionApi<OAuth2HttpResponse, R> checker) {
+        OAuth2ValidatorStore store = validatorStore;
+        if (store == null) { return httpClient.executeAsync(request).thenApply(FutureUtils.unchecked(checker)); }
+        OAuth2ValidatorStore.Validator validator = store.get(validatorKey);
+        if (validator != null) { request.getHeaders().addIfNoneMatch(validator.getETag()); }
+        return httpClient.executeAsync(request).thenApply(FutureUtils.unchecked(
+                response -> checkConditionalResponse(store, validatorKey, validator, response, checker)));
+    }
+
+    /**
+     * Check response of conditional request.
+     *
+     * @param store validator store
+     * @param validatorKey key of validator
+     * @param validator validator sent(nullable)
+     * @param response response
+     * @param checker response checker
+     * @param <R> type of result
+     * @return stored value if not modified, otherwise result of the checker
+     * @throws OAuth2Exception if oauth2 failed
+     */
+    @SuppressWarnings("unchecked")
+    private <R> R checkConditionalResponse(
+            OAuth2ValidatorStore store, String validatorKey, OAuth2ValidatorStore.Validator validator,
+            OAuth2HttpResponse response, OAuth2FunctionApi<OAuth2HttpResponse, R> checker) throws OAuth2Exception {
+        if (validator != null && response.isNotModified()) {
+            response.close();
+            return (R) validator.getValue();
+        }
+        String eTag = response.getETag();
+        R result = checker.execute(response);
+        if (eTag != null) { store.save(validatorKey, new OAuth2ValidatorStore.Validator(eTag, result)); }
+        return result;
+    }
+
     // #################### initialize api ##############################################
 
     /**
@@ -115,12 +617,18 @@ public abstract class TokenAvailableOAuth2Client<A extends OAuth2AppInfo, T exte
 
     @Override
     protected ExchangeRedirectUriQueryForOpenid initApiExchangeRedirectUriQueryForOpenid() {
-        return redirectUriQuery -> exchangeForOpenid(exchangeForToken(redirectUriQuery));
+        return ExchangeRedirectUriQueryForOpenid.of(
+                redirectUriQuery -> exchangeForOpenid(exchangeForToken(redirectUriQuery)),
+                redirectUriQuery -> exchangeForTokenAsync(redirectUriQuery)
+                        .thenCompose(token -> exchangeForOpenidAsync(token)));
     }
 
     @Override
     protected ExchangeRedirectUriQueryForUser<U> initApiExchangeRedirectUriQueryForUser() {
-        return redirectUriQuery -> exchangeForUser(exchangeForToken(redirectUriQuery));
+        return ExchangeRedirectUriQueryForUser.of(
+                redirectUriQuery -> exchangeForUser(exchangeForToken(redirectUriQuery)),
+                redirectUriQuery -> exchangeForTokenAsync(redirectUriQuery)
+                        .thenCompose(token -> exchangeForUserAsync(token)));
     }
 
 }
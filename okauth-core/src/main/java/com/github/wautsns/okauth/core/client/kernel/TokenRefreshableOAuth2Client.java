@@ -21,10 +21,16 @@ import com.github.wautsns.okauth.core.client.kernel.api.basic.TokenRelatedApi;
 import com.github.wautsns.okauth.core.client.kernel.model.OAuth2RefreshableToken;
 import com.github.wautsns.okauth.core.client.kernel.model.OAuth2Token;
 import com.github.wautsns.okauth.core.client.kernel.model.OAuth2User;
+import com.github.wautsns.okauth.core.client.kernel.service.tokenstore.OAuth2TokenStore;
+import com.github.wautsns.okauth.core.client.kernel.util.FutureUtils;
+import com.github.wautsns.okauth.core.client.kernel.util.LeaseUtils;
+import com.github.wautsns.okauth.core.client.kernel.util.SingleFlight;
 import com.github.wautsns.okauth.core.exception.OAuth2Exception;
 import com.github.wautsns.okauth.core.exception.specific.token.ExpiredAccessTokenException;
 
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 /**
  * Token refreshable oauth2 client.
@@ -41,6 +47,31 @@ public abstract class TokenRefreshableOAuth2Client<A extends OAuth2AppInfo, T ex
     /** API: refresh token. */
     protected final RefreshToken<T> apiRefreshToken;
 
+    /**
+     * Single flight for refreshing token(keyed by refresh token).
+     *
+     * <p>New tokens are retained for a few seconds, because many platforms invalidate the old refresh token, and
+     * callers holding it may arrive just after the refreshing completes.
+     */
+    private final SingleFlight<String, T> singleFlightForRefreshingToken = new SingleFlight<>(10_000);
+
+    /**
+     * Access token expiration margin seconds(default 60).
+     *
+     * <p>If the access token will expire within the margin, it will be refreshed before calling the api, instead of
+     * waiting for the api to fail with {@code ExpiredAccessTokenException}. A negative value disables it. The margin
+     * is capped at half the lifetime of the access token.
+     */
+    private volatile long accessTokenExpirationMarginSeconds = 60;
+
+    /**
+     * Token store shared by the cluster(nullable).
+     *
+     * <p>If present, refreshing of a token with id is {@linkplain #getLeaseManager() leased}: the lease holder saves
+     * the new token to the store, the others wait for it there.
+     */
+    private volatile OAuth2TokenStore<T> tokenStore;
+
     /**
      * Construct a token refreshable oauth2 client.
      *
@@ -57,23 +88,172 @@ public abstract class TokenRefreshableOAuth2Client<A extends OAuth2AppInfo, T ex
     }
 
     @Override
-    public String exchangeForOpenid(T token) throws OAuth2Exception {
+    protected String doExchangeForOpenid(T token) throws OAuth2Exception {
         return refreshIfAccessTokenExpired(apiExchangeTokenForOpenid, token);
     }
 
     @Override
-    public U exchangeForUser(T token) throws OAuth2Exception {
+    protected U doExchangeForUser(T token) throws OAuth2Exception {
         return refreshIfAccessTokenExpired(apiExchangeTokenForUser, token);
     }
 
+    @Override
+    protected CompletableFuture<String> doExchangeForOpenidAsync(T token) {
+        return refreshIfAccessTokenExpiredAsync(apiExchangeTokenForOpenid, token);
+    }
+
+    @Override
+    protected CompletableFuture<U> doExchangeForUserAsync(T token) {
+        return refreshIfAccessTokenExpiredAsync(apiExchangeTokenForUser, token);
+    }
+
+    /**
+     * Get access token expiration margin seconds.
+     *
+     * @return access token expiration margin seconds
+     */
+    public long getAccessTokenExpirationMarginSeconds() {
+        return accessTokenExpirationMarginSeconds;
+    }
+
+    /**
+     * Set access token expiration margin seconds.
+     *
+     * @param accessTokenExpirationMarginSeconds access token expiration margin seconds(negative to disable)
+     */
+    public void setAccessTokenExpirationMarginSeconds(long accessTokenExpirationMarginSeconds) {
+        this.accessTokenExpirationMarginSeconds = accessTokenExpirationMarginSeconds;
+    }
+
+    /**
+     * Get token store.
+     *
+     * @return token store, or {@code null} if absent
+     */
+    public OAuth2TokenStore<T> getTokenStore() {
+        return tokenStore;
+    }
+
+    /**
+     * Set token store(the client will be injected into the store).
+     *
+     * @param tokenStore token store(nullable)
+     */
+    public void setTokenStore(OAuth2TokenStore<T> tokenStore) {
+        this.tokenStore = tokenStore;
+        if (tokenStore != null) { tokenStore.injectClient(this); }
+    }
+
     /**
      * Refresh token.
      *
+     * <p><strong>Concurrent refreshing of the same refresh token is coalesced: only one request will actually perform
+     * the refresh operation(and the callback), the others get the same new token.</strong>
+     * <p>If the {@linkplain #setTokenStore(OAuth2TokenStore) token store} is present, refreshing is also leased across
+     * the cluster.
+     *
      * @param token token
      * @return token
      * @throws OAuth2Exception if oauth2 failed
      */
     public final T refreshToken(T token) throws OAuth2Exception {
+        String refreshToken = token.getRefreshToken();
+        if (refreshToken == null) { return refreshTokenUnderLease(token); }
+        return singleFlightForRefreshingToken.execute(refreshToken, () -> refreshTokenUnderLease(token));
+    }
+
+    /**
+     * Refresh token asynchronously.
+     *
+     * <p><strong>Concurrent refreshing of the same refresh token is coalesced.(See {@link #refreshToken} for
+     * details)</strong>
+     *
+     * @param token token
+     * @return future of token
+     */
+    public final CompletableFuture<T> refreshTokenAsync(T token) {
+        String refreshToken = token.getRefreshToken();
+        if (refreshToken == null) { return refreshTokenUnderLeaseAsync(token); }
+        return singleFlightForRefreshingToken.executeAsync(refreshToken, () -> refreshTokenUnderLeaseAsync(token));
+    }
+
+    /**
+     * Refresh token under lease(if the token store is present and the token has id).
+     *
+     * @param token token
+     * @return token
+     * @throws OAuth2Exception if oauth2 failed
+     */
+    private T refreshTokenUnderLease(T token) throws OAuth2Exception {
+        OAuth2TokenStore<T> store = tokenStore;
+        String tokenId = token.getTokenId();
+        if (store == null || tokenId == null) { return doRefreshToken(token); }
+        return LeaseUtils.execute(
+                getLeaseManager(), initLeaseName(tokenId),
+                () -> findRefreshedToken(store, token),
+                () -> saveRefreshedToken(store, tokenId, doRefreshToken(token)));
+    }
+
+    /**
+     * Refresh token under lease asynchronously(if the token store is present and the token has id).
+     *
+     * @param token token
+     * @return future of token
+     */
+    private CompletableFuture<T> refreshTokenUnderLeaseAsync(T token) {
+        OAuth2TokenStore<T> store = tokenStore;
+        String tokenId = token.getTokenId();
+        if (store == null || tokenId == null) { return doRefreshTokenAsync(token); }
+        return LeaseUtils.executeAsync(
+                getLeaseManager(), initLeaseName(tokenId),
+                () -> findRefreshedToken(store, token),
+                () -> doRefreshTokenAsync(token).thenApply(newToken -> saveRefreshedToken(store, tokenId, newToken)));
+    }
+
+    /**
+     * Initialize name of the lease for refreshing token.
+     *
+     * @param tokenId token id
+     * @return name of the lease
+     */
+    private String initLeaseName(String tokenId) {
+        return "okauth:" + getOpenPlatform() + ":refresh-token:" + tokenId;
+    }
+
+    /**
+     * Find the token refreshed by others in the token store.
+     *
+     * @param store token store
+     * @param token old token
+     * @return refreshed token, or {@code null} if absent
+     */
+    private T findRefreshedToken(OAuth2TokenStore<T> store, T token) {
+        T stored = store.get(token.getTokenId());
+        return (stored == null || Objects.equals(stored.getAccessToken(), token.getAccessToken())) ? null : stored;
+    }
+
+    /**
+     * Save the refreshed token to the token store.
+     *
+     * @param store token store
+     * @param tokenId token id
+     * @param newToken refreshed token
+     * @return refreshed token
+     */
+    private T saveRefreshedToken(OAuth2TokenStore<T> store, String tokenId, T newToken) {
+        newToken.setTokenId(tokenId);
+        store.save(newToken);
+        return newToken;
+    }
+
+    /**
+     * Refresh token(with callback).
+     *
+     * @param token token
+     * @return token
+     * @throws OAuth2Exception if oauth2 failed
+     */
+    private T doRefreshToken(T token) throws OAuth2Exception {
         tokenRefreshCallback.beforeRefreshing(getOpenPlatform(), token);
         T newToken = apiRefreshToken.execute(token);
         tokenRefreshCallback.afterRefreshing(getOpenPlatform(), token, newToken);
@@ -81,7 +261,28 @@ public abstract class TokenRefreshableOAuth2Client<A extends OAuth2AppInfo, T ex
     }
 
     /**
-     * Auto-refresh access token if the api throws {@code ExpiredAccessTokenException}.
+     * Refresh token asynchronously(with callback).
+     *
+     * @param token token
+     * @return future of token
+     */
+    private CompletableFuture<T> doRefreshTokenAsync(T token) {
+        try {
+            tokenRefreshCallback.beforeRefreshing(getOpenPlatform(), token);
+        } catch (RuntimeException e) {
+            return FutureUtils.failed(e);
+        }
+        return apiRefreshToken.executeAsync(token).thenApply(newToken -> {
+            tokenRefreshCallback.afterRefreshing(getOpenPlatform(), token, newToken);
+            return newToken;
+        });
+    }
+
+    /**
+     * Auto-refresh access token if it is about to expire or the api throws {@code ExpiredAccessTokenException}.
+     *
+     * <p>If refreshing an access token about to expire fails, the api is called with the original token as long as
+     * its access token has not expired yet.
      *
      * @param tokenRelatedApi token related api
      * @param token token
@@ -90,6 +291,16 @@ public abstract class TokenRefreshableOAuth2Client<A extends OAuth2AppInfo, T ex
      * @throws OAuth2Exception if oauth2 failed
      */
     protected <R> R refreshIfAccessTokenExpired(TokenRelatedApi<T, R> tokenRelatedApi, T token) throws OAuth2Exception {
+        if (isAccessTokenExpiring(token)) {
+            T newToken;
+            try {
+                newToken = refreshToken(token);
+            } catch (OAuth2Exception | RuntimeException e) {
+                if (!isAccessTokenUnexpired(token)) { throw e; }
+                return tokenRelatedApi.execute(token);
+            }
+            return tokenRelatedApi.execute(newToken);
+        }
         try {
             return tokenRelatedApi.execute(token);
         } catch (ExpiredAccessTokenException e) {
@@ -97,6 +308,73 @@ public abstract class TokenRefreshableOAuth2Client<A extends OAuth2AppInfo, T ex
         }
     }
 
+    /**
+     * Auto-refresh access token asynchronously if it is about to expire or the api fails with
+     * {@code ExpiredAccessTokenException}.
+     *
+     * <p>Falls back to the original token like {@link #refreshIfAccessTokenExpired(TokenRelatedApi, OAuth2Token)}.
+     *
+     * @param tokenRelatedApi token related api
+     * @param token token
+     * @param <R> type of result
+     * @return future of result of the api
+     */
+    protected <R> CompletableFuture<R> refreshIfAccessTokenExpiredAsync(
+            TokenRelatedApi<T, R> tokenRelatedApi, T token) {
+        if (isAccessTokenExpiring(token)) {
+            return refreshTokenAsync(token)
+                    .handle((newToken, throwable) -> {
+                        if (throwable == null) {
+                            return tokenRelatedApi.executeAsync(newToken);
+                        } else if (isAccessTokenUnexpired(token)) {
+                            return tokenRelatedApi.executeAsync(token);
+                        } else {
+                            return FutureUtils.<R>failed(FutureUtils.unwrap(throwable));
+                        }
+                    })
+                    .thenCompose(Function.identity());
+        }
+        return tokenRelatedApi.executeAsync(token)
+                .handle((result, throwable) -> {
+                    if (throwable == null) {
+                        return CompletableFuture.completedFuture(result);
+                    } else if (FutureUtils.unwrap(throwable) instanceof ExpiredAccessTokenException) {
+                        return refreshTokenAsync(token).thenCompose(tokenRelatedApi::executeAsync);
+                    } else {
+                        return FutureUtils.<R>failed(FutureUtils.unwrap(throwable));
+                    }
+                })
+                .thenCompose(Function.identity());
+    }
+
+    /**
+     * Whether the access token will expire within the margin.
+     *
+     * <p>The margin is capped at half the lifetime of the access token, so that short-lived access tokens are not
+     * refreshed on every call.
+     *
+     * @param token token
+     * @return {@code true} if the access token will expire within the margin, otherwise {@code false}
+     */
+    private boolean isAccessTokenExpiring(T token) {
+        long marginSeconds = accessTokenExpirationMarginSeconds;
+        if (marginSeconds < 0) { return false; }
+        Integer expirationSeconds = token.getAccessTokenExpirationSeconds();
+        if (expirationSeconds != null) { marginSeconds = Math.min(marginSeconds, expirationSeconds / 2); }
+        return token.isAccessTokenExpiringWithin(marginSeconds);
+    }
+
+    /**
+     * Whether the access token is known to be unexpired.
+     *
+     * @param token token
+     * @return {@code true} if the access token is known to be unexpired, otherwise {@code false}
+     */
+    private boolean isAccessTokenUnexpired(T token) {
+        Long expirationTimestamp = token.getAccessTokenExpirationTimestamp();
+        return expirationTimestamp != null && expirationTimestamp > System.currentTimeMillis();
+    }
+
     // #################### initialize api ##############################################
 
     /**
@@ -17,6 +17,10 @@ package com.github.wautsns.okauth.core.client.kernel.api;
 
 import com.github.wautsns.okauth.core.client.kernel.api.basic.OAuth2FunctionApi;
 import com.github.wautsns.okauth.core.client.kernel.model.OAuth2RedirectUriQuery;
+import com.github.wautsns.okauth.core.exception.OAuth2Exception;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 /**
  * API: Exchange redirect uri query for openid.
@@ -25,4 +29,29 @@ import com.github.wautsns.okauth.core.client.kernel.model.OAuth2RedirectUriQuery
  * @since May 17, 2020
  */
 @FunctionalInterface
-public interface ExchangeRedirectUriQueryForOpenid extends OAuth2FunctionApi<OAuth2RedirectUriQuery, String> {}
+public interface ExchangeRedirectUriQueryForOpenid extends OAuth2FunctionApi<OAuth2RedirectUriQuery, String> {
+
+    /**
+     * Initialize an api with the specified synchronous and asynchronous implementation.
+     *
+     * @param api synchronous implementation
+     * @param asyncApi asynchronous implementation
+     * @return api
+     */
+    static ExchangeRedirectUriQueryForOpenid of(
+            ExchangeRedirectUriQueryForOpenid api,
+            Function<OAuth2RedirectUriQuery, CompletableFuture<String>> asyncApi) {
+        return new ExchangeRedirectUriQueryForOpenid() {
+            @Override
+            public String execute(OAuth2RedirectUriQuery redirectUriQuery) throws OAuth2Exception {
+                return api.execute(redirectUriQuery);
+            }
+
+            @Override
+            public CompletableFuture<String> executeAsync(OAuth2RedirectUriQuery redirectUriQuery) {
+                return asyncApi.apply(redirectUriQuery);
+            }
+        };
+    }
+
+}
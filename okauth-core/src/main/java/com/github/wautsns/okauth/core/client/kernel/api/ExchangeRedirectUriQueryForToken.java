@@ -18,6 +18,10 @@ package com.github.wautsns.okauth.core.client.kernel.api;
 import com.github.wautsns.okauth.core.client.kernel.api.basic.OAuth2FunctionApi;
 import com.github.wautsns.okauth.core.client.kernel.model.OAuth2RedirectUriQuery;
 import com.github.wautsns.okauth.core.client.kernel.model.OAuth2Token;
+import com.github.wautsns.okauth.core.exception.OAuth2Exception;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 /**
  * API: Exchange redirect uri query for token.
@@ -27,4 +31,29 @@ import com.github.wautsns.okauth.core.client.kernel.model.OAuth2Token;
  */
 @FunctionalInterface
 public interface ExchangeRedirectUriQueryForToken<T extends OAuth2Token>
-        extends OAuth2FunctionApi<OAuth2RedirectUriQuery, T> {}
+        extends OAuth2FunctionApi<OAuth2RedirectUriQuery, T> {
+
+    /**
+     * Initialize an api with the specified synchronous and asynchronous implementation.
+     *
+     * @param api synchronous implementation
+     * @param asyncApi asynchronous implementation
+     * @param <T> type of token
+     * @return api
+     */
+    static <T extends OAuth2Token> ExchangeRedirectUriQueryForToken<T> of(
+            ExchangeRedirectUriQueryForToken<T> api, Function<OAuth2RedirectUriQuery, CompletableFuture<T>> asyncApi) {
+        return new ExchangeRedirectUriQueryForToken<T>() {
+            @Override
+            public T execute(OAuth2RedirectUriQuery redirectUriQuery) throws OAuth2Exception {
+                return api.execute(redirectUriQuery);
+            }
+
+            @Override
+            public CompletableFuture<T> executeAsync(OAuth2RedirectUriQuery redirectUriQuery) {
+                return asyncApi.apply(redirectUriQuery);
+            }
+        };
+    }
+
+}
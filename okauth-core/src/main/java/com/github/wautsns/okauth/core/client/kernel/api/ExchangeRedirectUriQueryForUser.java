@@ -18,6 +18,10 @@ package com.github.wautsns.okauth.core.client.kernel.api;
 import com.github.wautsns.okauth.core.client.kernel.api.basic.OAuth2FunctionApi;
 import com.github.wautsns.okauth.core.client.kernel.model.OAuth2RedirectUriQuery;
 import com.github.wautsns.okauth.core.client.kernel.model.OAuth2User;
+import com.github.wautsns.okauth.core.exception.OAuth2Exception;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 /**
  * API: Exchange redirect uri query for user.
@@ -27,4 +31,29 @@ import com.github.wautsns.okauth.core.client.kernel.model.OAuth2User;
  */
 @FunctionalInterface
 public interface ExchangeRedirectUriQueryForUser<U extends OAuth2User> extends
-        OAuth2FunctionApi<OAuth2RedirectUriQuery, U> {}
+        OAuth2FunctionApi<OAuth2RedirectUriQuery, U> {
+
+    /**
+     * Initialize an api with the specified synchronous and asynchronous implementation.
+     *
+     * @param api synchronous implementation
+     * @param asyncApi asynchronous implementation
+     * @param <U> type of user
+     * @return api
+     */
+    static <U extends OAuth2User> ExchangeRedirectUriQueryForUser<U> of(
+            ExchangeRedirectUriQueryForUser<U> api, Function<OAuth2RedirectUriQuery, CompletableFuture<U>> asyncApi) {
+        return new ExchangeRedirectUriQueryForUser<U>() {
+            @Override
+            public U execute(OAuth2RedirectUriQuery redirectUriQuery) throws OAuth2Exception {
+                return api.execute(redirectUriQuery);
+            }
+
+            @Override
+            public CompletableFuture<U> executeAsync(OAuth2RedirectUriQuery redirectUriQuery) {
+                return asyncApi.apply(redirectUriQuery);
+            }
+        };
+    }
+
+}
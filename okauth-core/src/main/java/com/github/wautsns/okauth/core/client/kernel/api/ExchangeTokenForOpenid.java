@@ -17,6 +17,10 @@ package com.github.wautsns.okauth.core.client.kernel.api;
 
 import com.github.wautsns.okauth.core.client.kernel.api.basic.TokenRelatedApi;
 import com.github.wautsns.okauth.core.client.kernel.model.OAuth2Token;
+import com.github.wautsns.okauth.core.exception.OAuth2Exception;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 /**
  * API: Exchange token for openid.
@@ -25,4 +29,29 @@ import com.github.wautsns.okauth.core.client.kernel.model.OAuth2Token;
  * @since May 17, 2020
  */
 @FunctionalInterface
-public interface ExchangeTokenForOpenid<T extends OAuth2Token> extends TokenRelatedApi<T, String> {}
+public interface ExchangeTokenForOpenid<T extends OAuth2Token> extends TokenRelatedApi<T, String> {
+
+    /**
+     * Initialize an api with the specified synchronous and asynchronous implementation.
+     *
+     * @param api synchronous implementation
+     * @param asyncApi asynchronous implementation
+     * @param <T> type of token
+     * @return api
+     */
+    static <T extends OAuth2Token> ExchangeTokenForOpenid<T> of(
+            ExchangeTokenForOpenid<T> api, Function<T, CompletableFuture<String>> asyncApi) {
+        return new ExchangeTokenForOpenid<T>() {
+            @Override
+            public String execute(T token) throws OAuth2Exception {
+                return api.execute(token);
+            }
+
+            @Override
+            public CompletableFuture<String> executeAsync(T token) {
+                return asyncApi.apply(token);
+            }
+        };
+    }
+
+}
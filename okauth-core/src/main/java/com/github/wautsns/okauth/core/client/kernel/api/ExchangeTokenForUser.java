@@ -18,6 +18,10 @@ package com.github.wautsns.okauth.core.client.kernel.api;
 import com.github.wautsns.okauth.core.client.kernel.api.basic.TokenRelatedApi;
 import com.github.wautsns.okauth.core.client.kernel.model.OAuth2Token;
 import com.github.wautsns.okauth.core.client.kernel.model.OAuth2User;
+import com.github.wautsns.okauth.core.exception.OAuth2Exception;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 /**
  * API: Exchange token for user.
@@ -26,4 +30,30 @@ import com.github.wautsns.okauth.core.client.kernel.model.OAuth2User;
  * @since May 17, 2020
  */
 @FunctionalInterface
-public interface ExchangeTokenForUser<T extends OAuth2Token, U extends OAuth2User> extends TokenRelatedApi<T, U> {}
+public interface ExchangeTokenForUser<T extends OAuth2Token, U extends OAuth2User> extends TokenRelatedApi<T, U> {
+
+    /**
+     * Initialize an api with the specified synchronous and asynchronous implementation.
+     *
+     * @param api synchronous implementation
+     * @param asyncApi asynchronous implementation
+     * @param <T> type of token
+     * @param <U> type of user
+     * @return api
+     */
+    static <T extends OAuth2Token, U extends OAuth2User> ExchangeTokenForUser<T, U> of(
+            ExchangeTokenForUser<T, U> api, Function<T, CompletableFuture<U>> asyncApi) {
+        return new ExchangeTokenForUser<T, U>() {
+            @Override
+            public U execute(T token) throws OAuth2Exception {
+                return api.execute(token);
+            }
+
+            @Override
+            public CompletableFuture<U> executeAsync(T token) {
+                return asyncApi.apply(token);
+            }
+        };
+    }
+
+}
@@ -17,6 +17,10 @@ package com.github.wautsns.okauth.core.client.kernel.api;
 
 import com.github.wautsns.okauth.core.client.kernel.api.basic.TokenRelatedApi;
 import com.github.wautsns.okauth.core.client.kernel.model.OAuth2Token;
+import com.github.wautsns.okauth.core.exception.OAuth2Exception;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 /**
  * API: Refresh token.
@@ -25,4 +29,28 @@ import com.github.wautsns.okauth.core.client.kernel.model.OAuth2Token;
  * @since May 17, 2020
  */
 @FunctionalInterface
-public interface RefreshToken<T extends OAuth2Token> extends TokenRelatedApi<T, T> {}
+public interface RefreshToken<T extends OAuth2Token> extends TokenRelatedApi<T, T> {
+
+    /**
+     * Initialize an api with the specified synchronous and asynchronous implementation.
+     *
+     * @param api synchronous implementation
+     * @param asyncApi asynchronous implementation
+     * @param <T> type of token
+     * @return api
+     */
+    static <T extends OAuth2Token> RefreshToken<T> of(RefreshToken<T> api, Function<T, CompletableFuture<T>> asyncApi) {
+        return new RefreshToken<T>() {
+            @Override
+            public T execute(T token) throws OAuth2Exception {
+                return api.execute(token);
+            }
+
+            @Override
+            public CompletableFuture<T> executeAsync(T token) {
+                return asyncApi.apply(token);
+            }
+        };
+    }
+
+}
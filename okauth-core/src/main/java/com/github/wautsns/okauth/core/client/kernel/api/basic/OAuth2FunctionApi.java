@@ -17,6 +17,9 @@ package com.github.wautsns.okauth.core.client.kernel.api.basic;
 
 import com.github.wautsns.okauth.core.exception.OAuth2Exception;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
 /**
  * OAuth2 function api.
  *
@@ -34,4 +37,47 @@ public interface OAuth2FunctionApi<T, R> {
      */
     R execute(T arg) throws OAuth2Exception;
 
+    /**
+     * Execute asynchronously and return future of result.
+     *
+     * <p>The returned future will be completed exceptionally with {@code OAuth2Exception} if oauth2 failed.
+     * <p><strong>The default implementation executes in the calling thread.</strong>
+     *
+     * @param arg argument
+     * @return future of result
+     */
+    default CompletableFuture<R> executeAsync(T arg) {
+        CompletableFuture<R> future = new CompletableFuture<>();
+        try {
+            future.complete(execute(arg));
+        } catch (OAuth2Exception | RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Initialize an oauth2 function api with the specified synchronous and asynchronous implementation.
+     *
+     * @param api synchronous implementation
+     * @param asyncApi asynchronous implementation
+     * @param <T> type of argument
+     * @param <R> type of result
+     * @return oauth2 function api
+     */
+    static <T, R> OAuth2FunctionApi<T, R> of(
+            OAuth2FunctionApi<T, R> api, Function<T, CompletableFuture<R>> asyncApi) {
+        return new OAuth2FunctionApi<T, R>() {
+            @Override
+            public R execute(T arg) throws OAuth2Exception {
+                return api.execute(arg);
+            }
+
+            @Override
+            public CompletableFuture<R> executeAsync(T arg) {
+                return asyncApi.apply(arg);
+            }
+        };
+    }
+
 }
@@ -17,6 +17,9 @@ package com.github.wautsns.okauth.core.client.kernel.api.basic;
 
 import com.github.wautsns.okauth.core.exception.OAuth2Exception;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
 /**
  * OAuth2 supplier api.
  *
@@ -33,4 +36,44 @@ public interface OAuth2SupplierApi<T> {
      */
     T execute() throws OAuth2Exception;
 
+    /**
+     * Execute asynchronously and return future of result.
+     *
+     * <p>The returned future will be completed exceptionally with {@code OAuth2Exception} if oauth2 failed.
+     * <p><strong>The default implementation executes in the calling thread.</strong>
+     *
+     * @return future of result
+     */
+    default CompletableFuture<T> executeAsync() {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            future.complete(execute());
+        } catch (OAuth2Exception | RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Initialize an oauth2 supplier api with the specified synchronous and asynchronous implementation.
+     *
+     * @param api synchronous implementation
+     * @param asyncApi asynchronous implementation
+     * @param <T> type of result
+     * @return oauth2 supplier api
+     */
+    static <T> OAuth2SupplierApi<T> of(OAuth2SupplierApi<T> api, Supplier<CompletableFuture<T>> asyncApi) {
+        return new OAuth2SupplierApi<T>() {
+            @Override
+            public T execute() throws OAuth2Exception {
+                return api.execute();
+            }
+
+            @Override
+            public CompletableFuture<T> executeAsync() {
+                return asyncApi.get();
+            }
+        };
+    }
+
 }
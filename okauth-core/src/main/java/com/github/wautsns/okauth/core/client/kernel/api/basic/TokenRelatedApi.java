@@ -16,6 +16,10 @@
 package com.github.wautsns.okauth.core.client.kernel.api.basic;
 
 import com.github.wautsns.okauth.core.client.kernel.model.OAuth2Token;
+import com.github.wautsns.okauth.core.exception.OAuth2Exception;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 /**
  * Token related api.
@@ -24,4 +28,30 @@ import com.github.wautsns.okauth.core.client.kernel.model.OAuth2Token;
  * @since May 19, 2020
  */
 @FunctionalInterface
-public interface TokenRelatedApi<T extends OAuth2Token, R> extends OAuth2FunctionApi<T, R> {}
+public interface TokenRelatedApi<T extends OAuth2Token, R> extends OAuth2FunctionApi<T, R> {
+
+    /**
+     * Initialize a token related api with the specified synchronous and asynchronous implementation.
+     *
+     * @param api synchronous implementation
+     * @param asyncApi asynchronous implementation
+     * @param <T> type of token
+     * @param <R> type of result
+     * @return token related api
+     */
+    static <T extends OAuth2Token, R> TokenRelatedApi<T, R> of(
+            TokenRelatedApi<T, R> api, Function<T, CompletableFuture<R>> asyncApi) {
+        return new TokenRelatedApi<T, R>() {
+            @Override
+            public R execute(T token) throws OAuth2Exception {
+                return api.execute(token);
+            }
+
+            @Override
+            public CompletableFuture<R> executeAsync(T token) {
+                return asyncApi.apply(token);
+            }
+        };
+    }
+
+}
@@ -27,6 +27,9 @@ import java.io.Serializable;
  */
 public interface OAuth2Token extends OpenPlatformSupplier, Serializable {
 
+    /** Name of the issue instant(epoch millis) recorded in the original data map. */
+    String ISSUED_AT = "okauth_issued_at";
+
     /**
      * Get original data map.
      *
@@ -63,4 +66,56 @@ public interface OAuth2Token extends OpenPlatformSupplier, Serializable {
      */
     Integer getAccessTokenExpirationSeconds();
 
+    /**
+     * Get the instant(epoch millis) when the token was issued.
+     *
+     * @return issue instant, or {@code null} if unknown
+     */
+    default Long getIssuedAt() {
+        return getOriginalDataMap().getAsLong(ISSUED_AT);
+    }
+
+    /**
+     * Whether the access token will expire within the specified seconds.
+     *
+     * <p>If the issue instant or the expiration seconds is unknown, {@code false} will be returned.
+     *
+     * @param seconds seconds
+     * @return {@code true} if the access token will expire within the specified seconds, otherwise {@code false}
+     */
+    default boolean isAccessTokenExpiringWithin(long seconds) {
+        Long expirationTimestamp = getAccessTokenExpirationTimestamp();
+        if (expirationTimestamp == null) { return false; }
+        return expirationTimestamp - System.currentTimeMillis() <= seconds * 1000L;
+    }
+
+    /**
+     * Get the timestamp access token expire at.
+     *
+     * @return timestamp access token expire at, or {@code null} if the issue instant or the expiration seconds is
+     *         unknown
+     */
+    default Long getAccessTokenExpirationTimestamp() {
+        Long issuedAt = getIssuedAt();
+        Integer expirationSeconds = getAccessTokenExpirationSeconds();
+        if (issuedAt == null || expirationSeconds == null) { return null; }
+        return issuedAt + expirationSeconds * 1000L;
+    }
+
+    /**
+     * Record the issue instant(now) in the original data map.
+     *
+     * <p>The instant is kept in the original data map so that it survives serialization.
+     * <p><strong>It should be called only on the data map of a fresh token response(such as exchanging for or
+     * refreshing token). Tokens rebuilt from elsewhere without the instant are treated as issued at an unknown
+     * instant.</strong>
+     *
+     * @param originalDataMap original data map of a fresh token response
+     * @return the original data map
+     */
+    static DataMap recordIssuedAt(DataMap originalDataMap) {
+        originalDataMap.put(ISSUED_AT, System.currentTimeMillis());
+        return originalDataMap;
+    }
+
 }
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.okauth.core.client.kernel.service.invalidtokencache;
+
+import com.github.wautsns.okauth.core.exception.OAuth2ErrorException;
+
+/**
+ * OAuth2 invalid token cache.
+ *
+ * <p>Tokens known to be invalid(or expired and unrefreshable) are keyed by platform and a hash of the access token,
+ * along with the exception the open platform gave, so that requests with them can be rejected locally.
+ *
+ * @author wautsns
+ * @since Oct 17, 2026
+ */
+public interface OAuth2InvalidTokenCache {
+
+    /**
+     * Get the exception of the invalid token.
+     *
+     * <p>A new exception should be returned for each call, since it will be thrown(with the stack trace filled in).
+     *
+     * @param key key of token
+     * @return exception of the invalid token, or {@code null} if the token is not known to be invalid
+     */
+    OAuth2ErrorException get(String key);
+
+    /**
+     * Save the invalid token.
+     *
+     * @param key key of token
+     * @param exception exception the open platform gave
+     */
+    void save(String key, OAuth2ErrorException exception);
+
+}
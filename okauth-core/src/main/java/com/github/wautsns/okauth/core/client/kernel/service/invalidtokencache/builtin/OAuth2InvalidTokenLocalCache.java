@@ -0,0 +1,153 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.okauth.core.client.kernel.service.invalidtokencache.builtin;
+
+import com.github.wautsns.okauth.core.client.kernel.service.invalidtokencache.OAuth2InvalidTokenCache;
+import com.github.wautsns.okauth.core.exception.OAuth2ErrorException;
+import lombok.RequiredArgsConstructor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local oauth2 invalid token cache.
+ *
+ * <p>Invalid tokens are kept for the ttl, and evicted in LRU order when the size exceeds the max size. Only the type,
+ * error code and message of the exception are kept, a new exception is created for each hit.
+ *
+ * @author wautsns
+ * @since Oct 17, 2026
+ */
+public class OAuth2InvalidTokenLocalCache implements OAuth2InvalidTokenCache {
+
+    /** Ttl millis. */
+    private final long ttlMillis;
+    /** Records(in access order, guarded by itself). */
+    private final Map<String, Record> records;
+    /** Count of hits. */
+    private final LongAdder hitCount = new LongAdder();
+    /** Count of misses. */
+    private final LongAdder missCount = new LongAdder();
+
+    /** Construct a local oauth2 invalid token cache(at most 10000 tokens, ttl: 5 minutes). */
+    public OAuth2InvalidTokenLocalCache() {
+        this(10_000, 300_000);
+    }
+
+    /**
+     * Construct a local oauth2 invalid token cache.
+     *
+     * @param maxSize max size
+     * @param ttlMillis ttl millis
+     */
+    public OAuth2InvalidTokenLocalCache(int maxSize, long ttlMillis) {
+        this.ttlMillis = ttlMillis;
+        this.records = new LinkedHashMap<String, Record>(16, 0.75F, true) {
+            private static final long serialVersionUID = -6530894771802434614L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Record> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    @Override
+    public OAuth2ErrorException get(String key) {
+        OAuth2ErrorException exception = null;
+        synchronized (records) {
+            Record record = records.get(key);
+            if (record != null) {
+                if (record.expirationTimestamp >= System.currentTimeMillis()) {
+                    exception = record.initException();
+                } else {
+                    records.remove(key);
+                }
+            }
+        }
+        if (exception != null) {
+            hitCount.increment();
+        } else {
+            missCount.increment();
+        }
+        return exception;
+    }
+
+    @Override
+    public void save(String key, OAuth2ErrorException exception) {
+        Record record = new Record(
+                exception.getClass(), exception.getOpenPlatform(), exception.getErrorCode(), exception.getMessage(),
+                System.currentTimeMillis() + ttlMillis);
+        synchronized (records) {
+            records.put(key, record);
+        }
+    }
+
+    /**
+     * Get count of hits(requests rejected locally).
+     *
+     * @return count of hits
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * Get count of misses.
+     *
+     * @return count of misses
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /** Record(immutable, so that it can be published safely). */
+    @RequiredArgsConstructor
+    private static class Record {
+
+        /** Type of the exception the open platform gave. */
+        private final Class<? extends OAuth2ErrorException> exceptionClass;
+        /** Open platform. */
+        private final String openPlatform;
+        /** Error code. */
+        private final String errorCode;
+        /** Error message. */
+        private final String message;
+        /** Timestamp record expire at. */
+        private final long expirationTimestamp;
+
+        /**
+         * Initialize a new exception of the record.
+         *
+         * <p>If the type has no constructor {@code (openPlatform, errorCode, message)}, an {@code OAuth2ErrorException}
+         * is created instead.
+         *
+         * @return a new exception
+         */
+        private OAuth2ErrorException initException() {
+            try {
+                return exceptionClass
+                        .getConstructor(String.class, String.class, String.class)
+                        .newInstance(openPlatform, errorCode, message);
+            } catch (ReflectiveOperationException e) {
+                return new OAuth2ErrorException(openPlatform, errorCode, message);
+            }
+        }
+
+    }
+
+}
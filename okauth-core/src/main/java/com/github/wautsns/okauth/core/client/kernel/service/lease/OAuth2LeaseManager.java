@@ -0,0 +1,55 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.okauth.core.client.kernel.service.lease;
+
+/**
+ * OAuth2 lease manager.
+ *
+ * <p>A lease is consulted before talking to the platform for shared tokens(such as getting app token or refreshing
+ * user token), so that only the lease holder across the cluster does it, the others wait on the shared cache. The
+ * SPI is kept narrow so that it can be backed by Redis({@code SET NX PX}), ZooKeeper(ephemeral node), etc.
+ *
+ * @author wautsns
+ * @since Oct 17, 2026
+ */
+@FunctionalInterface
+public interface OAuth2LeaseManager {
+
+    /**
+     * Try to acquire the lease(without waiting).
+     *
+     * @param name name of the lease
+     * @param leaseMillis max millis the lease is held(in case the holder crashes)
+     * @return lease, or {@code null} if the lease is held by others
+     */
+    Lease tryAcquire(String name, long leaseMillis);
+
+    /** Lease. */
+    @FunctionalInterface
+    interface Lease extends AutoCloseable {
+
+        /** Release the lease. */
+        @Override
+        void close();
+
+    }
+
+    // #################### instance ####################################################
+
+    /** No lease(every caller is granted, the default). */
+    OAuth2LeaseManager NONE = (name, leaseMillis) -> () -> {};
+
+}
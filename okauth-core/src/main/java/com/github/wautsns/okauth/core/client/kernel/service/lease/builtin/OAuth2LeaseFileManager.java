@@ -0,0 +1,144 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.okauth.core.client.kernel.service.lease.builtin;
+
+import com.github.wautsns.okauth.core.client.kernel.service.lease.OAuth2LeaseManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * File oauth2 lease manager.
+ *
+ * <p>A lease is an exclusive file lock on a file in the directory, so it coordinates JVMs on one host(or on hosts
+ * sharing a file system that supports locking). The lock is released by the OS if the holder process exits, so the
+ * lease millis is not needed.
+ * <p>Names are mapped onto a fixed number of lock files by hash, so that lock files do not pile up in the directory.
+ * Leases whose names share a lock file exclude each other, which only delays one of them.
+ *
+ * @author wautsns
+ * @since Oct 17, 2026
+ */
+public class OAuth2LeaseFileManager implements OAuth2LeaseManager {
+
+    /** Paths locked by the JVM(a file lock is held by the JVM, so it cannot be acquired twice in the JVM). */
+    private static final Set<Path> LOCKED_PATHS = ConcurrentHashMap.newKeySet();
+
+    /** Default count of lock files. */
+    private static final int DEFAULT_LOCK_FILES = 256;
+
+    /** Directory of lock files. */
+    private final Path directory;
+    /** Count of lock files. */
+    private final int lockFiles;
+
+    /**
+     * Construct a file oauth2 lease manager(with {@value #DEFAULT_LOCK_FILES} lock files).
+     *
+     * @param directory directory of lock files(will be created if absent)
+     */
+    public OAuth2LeaseFileManager(Path directory) {
+        this(directory, DEFAULT_LOCK_FILES);
+    }
+
+    /**
+     * Construct a file oauth2 lease manager.
+     *
+     * <p><strong>JVMs sharing the directory must use the same count of lock files.</strong>
+     *
+     * @param directory directory of lock files(will be created if absent)
+     * @param lockFiles count of lock files
+     */
+    public OAuth2LeaseFileManager(Path directory, int lockFiles) {
+        if (lockFiles <= 0) { throw new IllegalArgumentException("Count of lock files must be positive."); }
+        try {
+            this.directory = Files.createDirectories(directory).toAbsolutePath().normalize();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.lockFiles = lockFiles;
+    }
+
+    @Override
+    public Lease tryAcquire(String name, long leaseMillis) {
+        Path path = directory.resolve(initFileName(name));
+        if (!LOCKED_PATHS.add(path)) { return null; }
+        FileChannel channel = null;
+        FileLock lock = null;
+        try {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            lock = channel.tryLock();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (lock == null) {
+                if (channel != null) { closeQuietly(channel); }
+                LOCKED_PATHS.remove(path);
+            }
+        }
+        return (lock == null) ? null : initLease(path, channel);
+    }
+
+    // #################### internal ####################################################
+
+    /**
+     * Initialize lease(closing the channel releases the file lock, releasing twice takes no effect).
+     *
+     * @param path path of the lock file
+     * @param channel channel holding the file lock
+     * @return lease
+     */
+    private static Lease initLease(Path path, FileChannel channel) {
+        AtomicBoolean released = new AtomicBoolean();
+        return () -> {
+            if (!released.compareAndSet(false, true)) { return; }
+            closeQuietly(channel);
+            LOCKED_PATHS.remove(path);
+        };
+    }
+
+    /**
+     * Initialize file name of the lease.
+     *
+     * @param name name of the lease
+     * @return file name
+     */
+    private String initFileName(String name) {
+        return "okauth-lease-" + Math.floorMod(name.hashCode(), lockFiles) + ".lock";
+    }
+
+    /**
+     * Close the channel quietly.
+     *
+     * @param channel channel
+     */
+    private static void closeQuietly(FileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // Nothing to do.
+        }
+    }
+
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.okauth.core.client.kernel.service.lease.builtin;
+
+import com.github.wautsns.okauth.core.client.kernel.service.lease.OAuth2LeaseManager;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Local oauth2 lease manager.
+ *
+ * <p>Leases are held in memory, so it only coordinates clients in the JVM(mainly for local testing).
+ *
+ * @author wautsns
+ * @since Oct 17, 2026
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class OAuth2LeaseLocalManager implements OAuth2LeaseManager {
+
+    /** Local oauth2 lease manager instance. */
+    public static final OAuth2LeaseLocalManager INSTANCE = new OAuth2LeaseLocalManager();
+
+    /** Holders. */
+    private final ConcurrentMap<String, Holder> holders = new ConcurrentHashMap<>();
+
+    @Override
+    public Lease tryAcquire(String name, long leaseMillis) {
+        long now = System.currentTimeMillis();
+        Holder holder = new Holder(now + leaseMillis);
+        Holder current = holders.compute(
+                name, (k, old) -> (old == null || old.expirationTimestamp < now) ? holder : old);
+        return (current != holder) ? null : () -> holders.remove(name, holder);
+    }
+
+    /** Holder(immutable, so that it can be published safely). */
+    @RequiredArgsConstructor
+    private static class Holder {
+
+        /** Timestamp lease expire at. */
+        private final long expirationTimestamp;
+
+    }
+
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.okauth.core.client.kernel.service.openidcache;
+
+/**
+ * OAuth2 openid cache.
+ *
+ * <p>Openids are keyed by platform and a hash of the access token, and expire with the access token.
+ *
+ * @author wautsns
+ * @since Oct 17, 2026
+ */
+public interface OAuth2OpenidCache {
+
+    /**
+     * Get openid.
+     *
+     * @param key key of openid
+     * @return openid, or {@code null} if absent or expired
+     */
+    String get(String key);
+
+    /**
+     * Save openid.
+     *
+     * @param key key of openid
+     * @param openid openid
+     * @param expirationTimestamp timestamp openid expire at({@code null} if unknown)
+     */
+    void save(String key, String openid, Long expirationTimestamp);
+
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.okauth.core.client.kernel.service.openidcache.builtin;
+
+import com.github.wautsns.okauth.core.client.kernel.service.openidcache.OAuth2OpenidCache;
+import lombok.RequiredArgsConstructor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Local oauth2 openid cache.
+ *
+ * <p>Openids are evicted in LRU order when the size exceeds the max size. If the expiration is unknown(such as the
+ * access token never expires), the default ttl is used.
+ *
+ * @author wautsns
+ * @since Oct 17, 2026
+ */
+public class OAuth2OpenidLocalCache implements OAuth2OpenidCache {
+
+    /** Default ttl millis. */
+    private final long defaultTtlMillis;
+    /** Records(in access order, guarded by itself). */
+    private final Map<String, Record> records;
+
+    /** Construct a local oauth2 openid cache(at most 10000 openids, default ttl: 1 hour). */
+    public OAuth2OpenidLocalCache() {
+        this(10_000, 3_600_000);
+    }
+
+    /**
+     * Construct a local oauth2 openid cache.
+     *
+     * @param maxSize max size
+     * @param defaultTtlMillis default ttl millis
+     */
+    public OAuth2OpenidLocalCache(int maxSize, long defaultTtlMillis) {
+        this.defaultTtlMillis = defaultTtlMillis;
+        this.records = new LinkedHashMap<String, Record>(16, 0.75F, true) {
+            private static final long serialVersionUID = 2209580733618454245L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Record> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    @Override
+    public String get(String key) {
+        synchronized (records) {
+            Record record = records.get(key);
+            if (record == null) { return null; }
+            if (record.expirationTimestamp >= System.currentTimeMillis()) { return record.openid; }
+            records.remove(key);
+            return null;
+        }
+    }
+
+    @Override
+    public void save(String key, String openid, Long expirationTimestamp) {
+        long timestamp = (expirationTimestamp != null)
+                ? expirationTimestamp
+                : System.currentTimeMillis() + defaultTtlMillis;
+        synchronized (records) {
+            records.put(key, new Record(openid, timestamp));
+        }
+    }
+
+    /** Record(immutable, so that it can be published safely). */
+    @RequiredArgsConstructor
+    private static class Record {
+
+        /** Openid. */
+        private final String openid;
+        /** Timestamp openid expire at. */
+        private final long expirationTimestamp;
+
+    }
+
+}
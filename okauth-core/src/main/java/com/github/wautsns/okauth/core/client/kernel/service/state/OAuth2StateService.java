@@ -0,0 +1,158 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.okauth.core.client.kernel.service.state;
+
+import com.github.wautsns.okauth.core.client.kernel.service.state.builtin.OAuth2StateLocalStore;
+import com.github.wautsns.okauth.core.client.kernel.util.Encryptor;
+import com.github.wautsns.okauth.core.client.kernel.util.Encryptors;
+import org.apache.commons.codec.binary.Base64;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Objects;
+
+/**
+ * OAuth2 state service.
+ *
+ * <p>Issued states are self-contained: {@code <payload>.<signature>}, where payload is the url safe base64 of a random
+ * nonce and the expiration timestamp, and signature is the HmacSHA256 of payload(and the binding, if any). So issuing
+ * needs no storage, and verifying only records the consumed state in the {@link OAuth2StateStore} for one-time use.
+ * <p>A binding(such as the session id) can be specified when issuing, so that the state can only be verified with the
+ * same binding.
+ *
+ * @author wautsns
+ * @since Oct 17, 2026
+ */
+public class OAuth2StateService {
+
+    /** Length of nonce. */
+    private static final int NONCE_LENGTH = 16;
+    /** Length of payload(nonce and expiration timestamp). */
+    private static final int PAYLOAD_LENGTH = NONCE_LENGTH + Long.BYTES;
+    /** Random for nonce. */
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    /** Signer. */
+    private final Encryptor signer;
+    /** Ttl millis of states. */
+    private final long ttlMillis;
+    /** State store. */
+    private final OAuth2StateStore store;
+
+    /**
+     * Construct an oauth2 state service(ttl: 10 minutes, store: {@link OAuth2StateLocalStore}).
+     *
+     * @param secret secret for signing states
+     */
+    public OAuth2StateService(String secret) {
+        this(secret, 600_000, new OAuth2StateLocalStore());
+    }
+
+    /**
+     * Construct an oauth2 state service.
+     *
+     * @param secret secret for signing states
+     * @param ttlMillis ttl millis of states
+     * @param store state store
+     * @throws IllegalArgumentException if ttl millis is not positive, or beyond the window of the local state store
+     */
+    public OAuth2StateService(String secret, long ttlMillis, OAuth2StateStore store) {
+        if (ttlMillis <= 0) { throw new IllegalArgumentException("Ttl millis must be positive."); }
+        if (store instanceof OAuth2StateLocalStore && ttlMillis > ((OAuth2StateLocalStore) store).getMaxTtlMillis()) {
+            throw new IllegalArgumentException("Ttl millis is beyond the window of the local state store.");
+        }
+        this.signer = Encryptors.hmacSha256(Objects.requireNonNull(secret));
+        this.ttlMillis = ttlMillis;
+        this.store = Objects.requireNonNull(store);
+    }
+
+    /**
+     * Issue a state.
+     *
+     * @return state
+     */
+    public String issue() {
+        return issue(null);
+    }
+
+    /**
+     * Issue a state with the binding.
+     *
+     * @param binding binding(such as the session id, nullable)
+     * @return state
+     */
+    public String issue(String binding) {
+        byte[] nonce = new byte[NONCE_LENGTH];
+        RANDOM.nextBytes(nonce);
+        long expirationTimestamp = System.currentTimeMillis() + ttlMillis;
+        byte[] payload = ByteBuffer.allocate(PAYLOAD_LENGTH).put(nonce).putLong(expirationTimestamp).array();
+        String encodedPayload = Base64.encodeBase64URLSafeString(payload);
+        return encodedPayload + '.' + sign(encodedPayload, binding);
+    }
+
+    /**
+     * Verify the state.
+     *
+     * @param state state(nullable)
+     * @return {@code true} if the state is valid, not expired and verified for the first time, otherwise {@code false}
+     */
+    public boolean verify(String state) {
+        return verify(state, null);
+    }
+
+    /**
+     * Verify the state with the binding.
+     *
+     * @param state state(nullable)
+     * @param binding binding specified when issuing(nullable)
+     * @return {@code true} if the state is valid, not expired and verified for the first time, otherwise {@code false}
+     */
+    public boolean verify(String state, String binding) {
+        if (state == null) { return false; }
+        int index = state.indexOf('.');
+        if (index < 0) { return false; }
+        String encodedPayload = state.substring(0, index);
+        byte[] expectedSignature = sign(encodedPayload, binding).getBytes(StandardCharsets.UTF_8);
+        byte[] signature = state.substring(index + 1).getBytes(StandardCharsets.UTF_8);
+        if (!MessageDigest.isEqual(expectedSignature, signature)) { return false; }
+        byte[] payload = Base64.decodeBase64(encodedPayload);
+        if (payload.length != PAYLOAD_LENGTH) { return false; }
+        long expirationTimestamp = ByteBuffer.wrap(payload, NONCE_LENGTH, Long.BYTES).getLong();
+        if (expirationTimestamp < System.currentTimeMillis()) { return false; }
+        try {
+            return store.consume(encodedPayload, expirationTimestamp);
+        } catch (IllegalArgumentException e) {
+            // The store cannot record the state, so it cannot be verified as one-time.
+            return false;
+        }
+    }
+
+    // #################### internal ####################################################
+
+    /**
+     * Sign the encoded payload with the binding.
+     *
+     * @param encodedPayload encoded payload
+     * @param binding binding(nullable)
+     * @return signature
+     */
+    private String sign(String encodedPayload, String binding) {
+        return signer.encrypt(encodedPayload + '.' + ((binding == null) ? "" : binding));
+    }
+
+}
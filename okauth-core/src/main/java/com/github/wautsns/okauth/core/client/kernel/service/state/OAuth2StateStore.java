@@ -0,0 +1,40 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.okauth.core.client.kernel.service.state;
+
+/**
+ * OAuth2 state store.
+ *
+ * <p>The store only records consumed states(until they expire), so that each state can be verified at most once.
+ * Implementations for clustered deployments should consume states atomically across nodes(such as {@code SET NX PX}
+ * of redis).
+ *
+ * @author wautsns
+ * @since Oct 17, 2026
+ */
+public interface OAuth2StateStore {
+
+    /**
+     * Consume the state.
+     *
+     * @param stateId id of state
+     * @param expirationTimestamp timestamp state expire at
+     * @return {@code true} if the state is consumed for the first time, otherwise {@code false}
+     * @throws IllegalArgumentException if the state cannot be recorded(eg. it expires beyond the window of the store)
+     */
+    boolean consume(String stateId, long expirationTimestamp);
+
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.okauth.core.client.kernel.service.state.builtin;
+
+import com.github.wautsns.okauth.core.client.kernel.service.state.OAuth2StateStore;
+import lombok.RequiredArgsConstructor;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Local oauth2 state store.
+ *
+ * <p>Consumed states are grouped into buckets by their expiration timestamps, and the buckets are kept in a ring. A
+ * bucket expires as a whole: it is simply replaced(without touching its states) when its slot in the ring is reused
+ * by a later bucket. So there are no per-state timers or sweeps, and consuming a state is a lock-free bucket lookup
+ * plus a {@code putIfAbsent} on a concurrent map(striped internally).
+ * <p>States must expire within the window of the ring(bucket millis * bucket count).
+ *
+ * @author wautsns
+ * @since Oct 17, 2026
+ */
+public class OAuth2StateLocalStore implements OAuth2StateStore {
+
+    /** Bucket millis. */
+    private final long bucketMillis;
+    /** Buckets(ring indexed by slot). */
+    private final AtomicReferenceArray<Bucket> buckets;
+
+    /** Construct a local oauth2 state store(bucket millis: 1 second, bucket count: 1024, about 17 minutes). */
+    public OAuth2StateLocalStore() {
+        this(1000, 1024);
+    }
+
+    /**
+     * Construct a local oauth2 state store.
+     *
+     * @param bucketMillis bucket millis
+     * @param bucketCount bucket count
+     */
+    public OAuth2StateLocalStore(long bucketMillis, int bucketCount) {
+        if (bucketMillis <= 0 || bucketCount <= 0) {
+            throw new IllegalArgumentException("Bucket millis and bucket count must be positive.");
+        }
+        this.bucketMillis = bucketMillis;
+        this.buckets = new AtomicReferenceArray<>(bucketCount);
+    }
+
+    /**
+     * Get max ttl millis of states that can always be recorded(bucket millis * (bucket count - 1), one bucket is
+     * reserved for rounding of timestamps into buckets).
+     *
+     * @return max ttl millis
+     */
+    public long getMaxTtlMillis() {
+        return bucketMillis * (buckets.length() - 1);
+    }
+
+    @Override
+    public boolean consume(String stateId, long expirationTimestamp) {
+        long now = System.currentTimeMillis();
+        if (expirationTimestamp < now) { return false; }
+        long slot = expirationTimestamp / bucketMillis;
+        if (slot - now / bucketMillis >= buckets.length()) {
+            throw new IllegalArgumentException("The expiration timestamp is beyond the window of the store.");
+        }
+        int index = (int) (slot % buckets.length());
+        Bucket bucket = buckets.get(index);
+        while (bucket == null || bucket.slot < slot) {
+            // The previous bucket(if any) has expired, replace it as a whole.
+            Bucket fresh = new Bucket(slot);
+            if (buckets.compareAndSet(index, bucket, fresh)) {
+                bucket = fresh;
+            } else {
+                bucket = buckets.get(index);
+            }
+        }
+        // If the bucket is newer, the slot of the state has been reused, that is, the state has expired.
+        if (bucket.slot != slot) { return false; }
+        return bucket.stateIds.putIfAbsent(stateId, Boolean.TRUE) == null;
+    }
+
+    /** Bucket. */
+    @RequiredArgsConstructor
+    private static class Bucket {
+
+        /** Slot(expiration timestamp / bucket millis). */
+        private final long slot;
+        /** Ids of consumed states. */
+        private final ConcurrentMap<String, Boolean> stateIds = new ConcurrentHashMap<>();
+
+    }
+
+}
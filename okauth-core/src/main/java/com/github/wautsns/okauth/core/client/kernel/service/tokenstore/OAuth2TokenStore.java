@@ -0,0 +1,63 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.okauth.core.client.kernel.service.tokenstore;
+
+import com.github.wautsns.okauth.core.client.kernel.TokenRefreshableOAuth2Client;
+import com.github.wautsns.okauth.core.client.kernel.model.OAuth2RefreshableToken;
+
+/**
+ * OAuth2 token store.
+ *
+ * <p>Tokens are keyed by {@linkplain OAuth2RefreshableToken#getTokenId() token id}. A store may renew tokens before
+ * the access token expires by the injected client(the client fires {@code TokenRefreshCallback} as usual), renewed
+ * tokens keep the token id of the old ones.
+ *
+ * @param <T> type of token
+ * @author wautsns
+ * @since Oct 17, 2026
+ */
+public interface OAuth2TokenStore<T extends OAuth2RefreshableToken> {
+
+    /**
+     * Inject the client used to refresh tokens.
+     *
+     * @param client token refreshable oauth2 client
+     */
+    default void injectClient(TokenRefreshableOAuth2Client<?, T, ?> client) {}
+
+    /**
+     * Get token.
+     *
+     * @param tokenId token id
+     * @return token, or {@code null} if absent
+     */
+    T get(String tokenId);
+
+    /**
+     * Save token(replace the old one with the same token id).
+     *
+     * @param token token(token id is required)
+     */
+    void save(T token);
+
+    /**
+     * Delete token.
+     *
+     * @param tokenId token id
+     */
+    void delete(String tokenId);
+
+}
@@ -0,0 +1,268 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.okauth.core.client.kernel.service.tokenstore.builtin;
+
+import com.github.wautsns.okauth.core.client.kernel.TokenRefreshableOAuth2Client;
+import com.github.wautsns.okauth.core.client.kernel.model.OAuth2RefreshableToken;
+import com.github.wautsns.okauth.core.client.kernel.service.tokenstore.OAuth2TokenStore;
+import com.github.wautsns.okauth.core.client.kernel.util.TimingWheel;
+import com.github.wautsns.okauth.core.exception.OAuth2Exception;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * OAuth2 token local store.
+ *
+ * <p>Tokens are indexed by refreshing deadline in a {@linkplain TimingWheel hierarchical timing wheel}(tick: 1s), so
+ * millions of tokens can be tracked without a scan or a heap. A token is refreshed by the injected client shortly
+ * before the access token expires, and the refreshing is spread out:
+ * <ul>
+ * <li>the deadline is randomized within the jitter window;</li>
+ * <li>at most {@code maxRefreshesPerSecond} refreshes are started per second, the rest are shifted to later ticks;</li>
+ * <li>refreshes are executed in a bounded refresher pool, refreshes rejected by the pool are retried later.</li>
+ * </ul>
+ * <p>If refreshing fails, it will be retried while the old access token is still valid.
+ *
+ * @param <T> type of token
+ * @author wautsns
+ * @since Oct 17, 2026
+ */
+public class OAuth2TokenLocalStore<T extends OAuth2RefreshableToken> implements OAuth2TokenStore<T>, AutoCloseable {
+
+    /** Tick millis of the timing wheel. */
+    private static final long TICK_MILLIS = 1000;
+    /** Delay of retrying after refreshing failed. */
+    private static final long RETRY_DELAY_MILLIS = 30_000;
+
+    /** Refresher pool. */
+    private final Executor refresherPool;
+    /** Millis to refresh ahead of access token expiration. */
+    private final long refreshAheadMillis;
+    /** Max millis of jitter(later than the refresh-ahead point). */
+    private final long jitterMillis;
+    /** Max count of refreshes started per second. */
+    private final int maxRefreshesPerSecond;
+
+    /** Entries. */
+    private final ConcurrentMap<String, Entry<T>> entries = new ConcurrentHashMap<>();
+    /** Timing wheel of refreshing deadline. */
+    private final TimingWheel<Entry<T>> timingWheel;
+    /** Future of ticking. */
+    private final ScheduledFuture<?> tickFuture;
+    /** Client used to refresh tokens. */
+    private volatile TokenRefreshableOAuth2Client<?, T, ?> client;
+
+    /**
+     * Construct an oauth2 token local store.
+     *
+     * <p>Tokens are refreshed 60s~300s before the access token expires, at most 10 refreshes are started per second,
+     * in a shared pool of 4 daemon threads(at most 1024 refreshes queued).
+     */
+    public OAuth2TokenLocalStore() {
+        this(SharedExecutors.TICKER, SharedExecutors.REFRESHER_POOL, 300_000, 240_000, 10);
+    }
+
+    /**
+     * Construct an oauth2 token local store.
+     *
+     * @param ticker scheduler used to advance the timing wheel
+     * @param refresherPool refresher pool(should be bounded and throw {@link RejectedExecutionException} when full)
+     * @param refreshAheadMillis millis to refresh ahead of access token expiration, such as {@code 300_000}
+     * @param jitterMillis max millis of jitter(less than refresh ahead millis), such as {@code 240_000}
+     * @param maxRefreshesPerSecond max count of refreshes started per second, such as {@code 10}
+     */
+    public OAuth2TokenLocalStore(
+            ScheduledExecutorService ticker, Executor refresherPool,
+            long refreshAheadMillis, long jitterMillis, int maxRefreshesPerSecond) {
+        if (refreshAheadMillis <= 0 || jitterMillis < 0 || jitterMillis >= refreshAheadMillis) {
+            throw new IllegalArgumentException("Illegal refresh ahead millis or jitter millis.");
+        } else if (maxRefreshesPerSecond <= 0) {
+            throw new IllegalArgumentException("Max refreshes per second must be positive.");
+        }
+        this.refresherPool = Objects.requireNonNull(refresherPool);
+        this.refreshAheadMillis = refreshAheadMillis;
+        this.jitterMillis = jitterMillis;
+        this.maxRefreshesPerSecond = maxRefreshesPerSecond;
+        this.timingWheel = new TimingWheel<>(TICK_MILLIS, 64, 4, System.currentTimeMillis());
+        this.tickFuture = ticker.scheduleWithFixedDelay(this::tick, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void injectClient(TokenRefreshableOAuth2Client<?, T, ?> client) {
+        this.client = client;
+    }
+
+    @Override
+    public T get(String tokenId) {
+        Entry<T> entry = entries.get(tokenId);
+        return (entry == null) ? null : entry.token;
+    }
+
+    @Override
+    public void save(T token) {
+        Entry<T> entry = new Entry<>(Objects.requireNonNull(token.getTokenId(), "Token id is required."), token);
+        Entry<T> old = entries.put(entry.tokenId, entry);
+        if (old != null) { timingWheel.cancel(old.timeout); }
+        scheduleRefreshing(entry);
+    }
+
+    @Override
+    public void delete(String tokenId) {
+        Entry<T> old = entries.remove(tokenId);
+        if (old != null) { timingWheel.cancel(old.timeout); }
+    }
+
+    /**
+     * Get count of tokens.
+     *
+     * @return count of tokens
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /** Stop refreshing tokens. */
+    @Override
+    public void close() {
+        tickFuture.cancel(false);
+    }
+
+    // #################### internal ####################################################
+
+    /**
+     * Schedule refreshing of the entry.
+     *
+     * <p>The refresh-ahead window is capped at half of the token lifetime, so short-lived tokens are not refreshed
+     * over and over.
+     *
+     * @param entry entry
+     */
+    private void scheduleRefreshing(Entry<T> entry) {
+        Long issuedAt = entry.token.getIssuedAt();
+        Integer expirationSeconds = entry.token.getAccessTokenExpirationSeconds();
+        if (issuedAt == null || expirationSeconds == null) { return; }
+        long lifetimeMillis = expirationSeconds * 1000L;
+        long aheadMillis = Math.min(refreshAheadMillis, lifetimeMillis / 2);
+        long jitter = jitterMillis * aheadMillis / refreshAheadMillis;
+        long deadline = issuedAt + lifetimeMillis - aheadMillis;
+        if (jitter > 0) { deadline += ThreadLocalRandom.current().nextLong(jitter); }
+        entry.timeout = timingWheel.schedule(entry, deadline);
+    }
+
+    /** Advance the timing wheel and start refreshing of due entries. */
+    private void tick() {
+        long now = System.currentTimeMillis();
+        List<Entry<T>> dueEntries = timingWheel.advance(now);
+        for (int i = 0; i < dueEntries.size(); i++) {
+            Entry<T> entry = dueEntries.get(i);
+            if (entries.get(entry.tokenId) != entry) { continue; }
+            if (i < maxRefreshesPerSecond) {
+                try {
+                    refresherPool.execute(() -> refresh(entry));
+                } catch (RejectedExecutionException e) {
+                    entry.timeout = timingWheel.schedule(entry, now + RETRY_DELAY_MILLIS);
+                }
+            } else {
+                long delayMillis = (i / maxRefreshesPerSecond) * TICK_MILLIS;
+                entry.timeout = timingWheel.schedule(entry, now + delayMillis);
+            }
+        }
+    }
+
+    /**
+     * Refresh the entry.
+     *
+     * @param entry entry
+     */
+    private void refresh(Entry<T> entry) {
+        TokenRefreshableOAuth2Client<?, T, ?> client = this.client;
+        if (entries.get(entry.tokenId) != entry) { return; }
+        try {
+            if (client == null) { throw new IllegalStateException("Client has not been injected."); }
+            T newToken = client.refreshToken(entry.token);
+            newToken.setTokenId(entry.tokenId);
+            Entry<T> newEntry = new Entry<>(entry.tokenId, newToken);
+            if (entries.replace(entry.tokenId, entry, newEntry)) { scheduleRefreshing(newEntry); }
+        } catch (OAuth2Exception | RuntimeException e) {
+            long retryTimestamp = System.currentTimeMillis() + RETRY_DELAY_MILLIS;
+            if (!entry.token.isAccessTokenExpiringWithin(RETRY_DELAY_MILLIS / 1000)) {
+                entry.timeout = timingWheel.schedule(entry, retryTimestamp);
+            }
+        }
+    }
+
+    /**
+     * Entry.
+     *
+     * @param <T> type of token
+     */
+    @RequiredArgsConstructor
+    private static class Entry<T extends OAuth2RefreshableToken> {
+
+        /** Token id. */
+        private final String tokenId;
+        /** Token. */
+        private final T token;
+        /** Timeout of refreshing. */
+        private volatile TimingWheel.Timeout<Entry<T>> timeout;
+
+    }
+
+    /** Shared executors(initialized lazily). */
+    private static class SharedExecutors {
+
+        /** Shared ticker(single daemon thread). */
+        private static final ScheduledExecutorService TICKER =
+                Executors.newSingleThreadScheduledExecutor(initThreadFactory("okauth-token-store-ticker"));
+        /** Shared refresher pool(4 daemon threads, at most 1024 refreshes queued). */
+        private static final ExecutorService REFRESHER_POOL = new ThreadPoolExecutor(
+                4, 4, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1024),
+                initThreadFactory("okauth-token-store-refresher"));
+
+        /**
+         * Initialize daemon thread factory.
+         *
+         * @param prefix prefix of thread name
+         * @return thread factory
+         */
+        private static ThreadFactory initThreadFactory(String prefix) {
+            AtomicInteger counter = new AtomicInteger();
+            return r -> {
+                Thread thread = new Thread(r, prefix + '-' + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+        }
+
+    }
+
+}
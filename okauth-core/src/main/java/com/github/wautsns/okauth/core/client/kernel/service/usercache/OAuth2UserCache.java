@@ -0,0 +1,77 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.okauth.core.client.kernel.service.usercache;
+
+import com.github.wautsns.okauth.core.client.kernel.model.OAuth2User;
+import lombok.Data;
+
+/**
+ * OAuth2 user cache.
+ *
+ * <p>Users are keyed by platform and token id. A fresh user is returned directly, a stale user is returned while
+ * being revalidated in the background(and kept if the revalidation fails, such as during a platform outage).
+ *
+ * @author wautsns
+ * @since Oct 17, 2026
+ */
+public interface OAuth2UserCache {
+
+    /**
+     * Initialize key of user.
+     *
+     * @param openPlatform open platform
+     * @param tokenId token id
+     * @return key of user
+     */
+    static String initKey(String openPlatform, String tokenId) {
+        return openPlatform + ':' + tokenId;
+    }
+
+    /**
+     * Get cached user.
+     *
+     * @param key key of user
+     * @return cached user, or {@code null} if absent or too stale
+     */
+    Entry get(String key);
+
+    /**
+     * Save user.
+     *
+     * @param key key of user
+     * @param user user
+     */
+    void save(String key, OAuth2User user);
+
+    /**
+     * Delete user.
+     *
+     * @param key key of user
+     */
+    void delete(String key);
+
+    /** Cached user. */
+    @Data
+    class Entry {
+
+        /** User. */
+        private final OAuth2User user;
+        /** Whether the user is fresh. */
+        private final boolean fresh;
+
+    }
+
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.okauth.core.client.kernel.service.usercache.builtin;
+
+import com.github.wautsns.okauth.core.client.kernel.model.OAuth2User;
+import com.github.wautsns.okauth.core.client.kernel.service.usercache.OAuth2UserCache;
+import lombok.RequiredArgsConstructor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Local oauth2 user cache.
+ *
+ * <p>Users are evicted in LRU order when the size exceeds the max size, and are dropped when they have been stale for
+ * longer than the stale millis.
+ *
+ * @author wautsns
+ * @since Oct 17, 2026
+ */
+public class OAuth2UserLocalCache implements OAuth2UserCache {
+
+    /** Max millis a user is fresh. */
+    private final long freshMillis;
+    /** Max millis a stale user is served(while revalidating). */
+    private final long staleMillis;
+    /** Records(in access order, guarded by itself). */
+    private final Map<String, Record> records;
+
+    /**
+     * Construct a local oauth2 user cache.
+     *
+     * <p>At most 10000 users are cached, they are fresh for 5 minutes and can be served stale for 1 day.
+     */
+    public OAuth2UserLocalCache() {
+        this(10_000, 300_000, 86_400_000);
+    }
+
+    /**
+     * Construct a local oauth2 user cache.
+     *
+     * @param maxSize max size
+     * @param freshMillis max millis a user is fresh
+     * @param staleMillis max millis a stale user is served(while revalidating)
+     */
+    public OAuth2UserLocalCache(int maxSize, long freshMillis, long staleMillis) {
+        this.freshMillis = freshMillis;
+        this.staleMillis = staleMillis;
+        this.records = new LinkedHashMap<String, Record>(16, 0.75F, true) {
+            private static final long serialVersionUID = 5310694377532052738L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Record> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    @Override
+    public Entry get(String key) {
+        Record record;
+        synchronized (records) {
+            record = records.get(key);
+        }
+        if (record == null) { return null; }
+        long age = System.currentTimeMillis() - record.savedTimestamp;
+        if (age <= freshMillis) { return new Entry(record.user, true); }
+        if (age <= freshMillis + staleMillis) { return new Entry(record.user, false); }
+        synchronized (records) {
+            records.remove(key, record);
+        }
+        return null;
+    }
+
+    @Override
+    public void save(String key, OAuth2User user) {
+        Record record = new Record(user, System.currentTimeMillis());
+        synchronized (records) {
+            records.put(key, record);
+        }
+    }
+
+    @Override
+    public void delete(String key) {
+        synchronized (records) {
+            records.remove(key);
+        }
+    }
+
+    /** Record(immutable, so that it can be published safely). */
+    @RequiredArgsConstructor
+    private static class Record {
+
+        /** User. */
+        private final OAuth2User user;
+        /** Timestamp user saved at. */
+        private final long savedTimestamp;
+
+    }
+
+}
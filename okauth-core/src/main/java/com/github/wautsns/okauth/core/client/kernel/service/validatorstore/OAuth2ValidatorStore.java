@@ -0,0 +1,65 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.okauth.core.client.kernel.service.validatorstore;
+
+import lombok.Data;
+
+/**
+ * OAuth2 validator store.
+ *
+ * <p>It holds entity tags and the values decoded from the responses, so that a conditional request(with
+ * {@code If-None-Match}) answered by {@code 304 Not Modified} can return the value without parsing a body.
+ *
+ * @author wautsns
+ * @since Oct 17, 2026
+ */
+public interface OAuth2ValidatorStore {
+
+    /**
+     * Get validator.
+     *
+     * @param key key of validator
+     * @return validator, or {@code null} if absent
+     */
+    Validator get(String key);
+
+    /**
+     * Save validator.
+     *
+     * @param key key of validator
+     * @param validator validator
+     */
+    void save(String key, Validator validator);
+
+    /**
+     * Delete validator.
+     *
+     * @param key key of validator
+     */
+    void delete(String key);
+
+    /** Validator. */
+    @Data
+    class Validator {
+
+        /** Entity tag. */
+        private final String eTag;
+        /** Value decoded from the response with the entity tag. */
+        private final Object value;
+
+    }
+
+}
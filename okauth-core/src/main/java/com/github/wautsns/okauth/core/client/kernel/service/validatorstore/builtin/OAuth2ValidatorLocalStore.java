@@ -0,0 +1,78 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.okauth.core.client.kernel.service.validatorstore.builtin;
+
+import com.github.wautsns.okauth.core.client.kernel.service.validatorstore.OAuth2ValidatorStore;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Local oauth2 validator store.
+ *
+ * <p>Validators are evicted in LRU order when the size exceeds the max size.
+ *
+ * @author wautsns
+ * @since Oct 17, 2026
+ */
+public class OAuth2ValidatorLocalStore implements OAuth2ValidatorStore {
+
+    /** Validators(in access order, guarded by itself). */
+    private final Map<String, Validator> validators;
+
+    /** Construct a local oauth2 validator store(at most 10000 validators). */
+    public OAuth2ValidatorLocalStore() {
+        this(10_000);
+    }
+
+    /**
+     * Construct a local oauth2 validator store.
+     *
+     * @param maxSize max size
+     */
+    public OAuth2ValidatorLocalStore(int maxSize) {
+        this.validators = new LinkedHashMap<String, Validator>(16, 0.75F, true) {
+            private static final long serialVersionUID = -4024395846017418842L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Validator> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    @Override
+    public Validator get(String key) {
+        synchronized (validators) {
+            return validators.get(key);
+        }
+    }
+
+    @Override
+    public void save(String key, Validator validator) {
+        synchronized (validators) {
+            validators.put(key, validator);
+        }
+    }
+
+    @Override
+    public void delete(String key) {
+        synchronized (validators) {
+            validators.remove(key);
+        }
+    }
+
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.okauth.core.client.kernel.util;
+
+import com.github.wautsns.okauth.core.client.kernel.api.basic.OAuth2FunctionApi;
+import com.github.wautsns.okauth.core.exception.OAuth2Exception;
+import lombok.experimental.UtilityClass;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+/**
+ * Future utils.
+ *
+ * @author wautsns
+ * @since Oct 17, 2026
+ */
+@UtilityClass
+public class FutureUtils {
+
+    /**
+     * Convert the oauth2 function api to {@code Function}.
+     *
+     * <p>{@code OAuth2Exception} thrown by the api will be wrapped in {@code CompletionException}, so the future
+     * which applies the function will be completed exceptionally with the original {@code OAuth2Exception}.
+     *
+     * @param api oauth2 function api
+     * @param <T> type of argument
+     * @param <R> type of result
+     * @return function
+     */
+    public static <T, R> Function<T, R> unchecked(OAuth2FunctionApi<T, R> api) {
+        return arg -> {
+            try {
+                return api.execute(arg);
+            } catch (OAuth2Exception e) {
+                throw new CompletionException(e);
+            }
+        };
+    }
+
+    /**
+     * Return a future completed exceptionally with the specified throwable.
+     *
+     * @param throwable throwable
+     * @param <T> type of result
+     * @return future completed exceptionally
+     */
+    public static <T> CompletableFuture<T> failed(Throwable throwable) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(throwable);
+        return future;
+    }
+
+    /**
+     * Unwrap {@code CompletionException} and {@code ExecutionException}.
+     *
+     * @param throwable throwable
+     * @return cause if the throwable is a wrapper, otherwise the throwable itself
+     */
+    public static Throwable unwrap(Throwable throwable) {
+        while ((throwable instanceof CompletionException || throwable instanceof ExecutionException)
+                && throwable.getCause() != null) {
+            throwable = throwable.getCause();
+        }
+        return throwable;
+    }
+
+    /**
+     * Wait for the future and return its result.
+     *
+     * @param future future
+     * @param <T> type of result
+     * @return result
+     * @throws OAuth2Exception if the future is completed exceptionally with {@code OAuth2Exception}
+     */
+    public static <T> T join(CompletableFuture<T> future) throws OAuth2Exception {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = unwrap(e);
+            if (cause instanceof OAuth2Exception) {
+                throw (OAuth2Exception) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+}
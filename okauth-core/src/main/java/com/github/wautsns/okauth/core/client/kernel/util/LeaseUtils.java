@@ -0,0 +1,202 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.okauth.core.client.kernel.util;
+
+import com.github.wautsns.okauth.core.client.kernel.api.basic.OAuth2SupplierApi;
+import com.github.wautsns.okauth.core.client.kernel.service.lease.OAuth2LeaseManager;
+import com.github.wautsns.okauth.core.exception.OAuth2Exception;
+import com.github.wautsns.okauth.core.exception.OAuth2IOException;
+import lombok.experimental.UtilityClass;
+
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Lease utils.
+ *
+ * <p>An api executed under lease talks to the platform only if the caller holds the lease, otherwise the caller
+ * polls the shared result until it is available or the lease can be acquired. If neither happens within the wait
+ * millis(such as the lease holder is slow), the caller fails with {@link OAuth2IOException} instead of calling the
+ * platform as well.
+ * <p>Callers should coalesce locally(such as by {@link SingleFlight}) before executing under lease, so that only one
+ * thread per node polls while the others wait on the local single flight.
+ *
+ * @author wautsns
+ * @since Oct 17, 2026
+ */
+@UtilityClass
+public class LeaseUtils {
+
+    /** Max millis the lease is held. */
+    public static final long LEASE_MILLIS = 30_000;
+    /** Max millis waiting for the lease holder(about connect timeout plus read timeout by default). */
+    public static final long WAIT_MILLIS = 10_000;
+    /** Interval of polling the shared result. */
+    private static final long POLL_MILLIS = 100;
+
+    /**
+     * Execute the api under lease.
+     *
+     * @param leaseManager lease manager
+     * @param name name of the lease
+     * @param sharedResult supplier of the shared result({@code null} if unavailable)
+     * @param api api
+     * @param <V> type of result
+     * @return shared result, or result of the api
+     * @throws OAuth2Exception if oauth2 failed, or waiting for the lease holder timed out or was interrupted
+     */
+    public static <V> V execute(
+            OAuth2LeaseManager leaseManager, String name, Supplier<V> sharedResult, OAuth2SupplierApi<V> api)
+            throws OAuth2Exception {
+        if (leaseManager == OAuth2LeaseManager.NONE) { return api.execute(); }
+        long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+        while (true) {
+            V result = sharedResult.get();
+            if (result != null) { return result; }
+            OAuth2LeaseManager.Lease lease = leaseManager.tryAcquire(name, LEASE_MILLIS);
+            if (lease != null) {
+                try {
+                    result = sharedResult.get();
+                    return (result != null) ? result : api.execute();
+                } finally {
+                    lease.close();
+                }
+            } else if (System.currentTimeMillis() >= deadline) {
+                throw initWaitTimeoutException(name);
+            }
+            try {
+                Thread.sleep(POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                result = sharedResult.get();
+                if (result != null) { return result; }
+                throw new OAuth2IOException(new InterruptedIOException("Interrupted waiting for lease: " + name));
+            }
+        }
+    }
+
+    /**
+     * Execute the api under lease asynchronously.
+     *
+     * @param leaseManager lease manager
+     * @param name name of the lease
+     * @param sharedResult supplier of the shared result({@code null} if unavailable)
+     * @param api api
+     * @param <V> type of result
+     * @return future of shared result, or result of the api(completed exceptionally with {@link OAuth2IOException}
+     *         if waiting for the lease holder timed out)
+     */
+    public static <V> CompletableFuture<V> executeAsync(
+            OAuth2LeaseManager leaseManager, String name, Supplier<V> sharedResult,
+            Supplier<CompletableFuture<V>> api) {
+        if (leaseManager == OAuth2LeaseManager.NONE) { return api.get(); }
+        CompletableFuture<V> future = new CompletableFuture<>();
+        attemptAsync(leaseManager, name, sharedResult, api, System.currentTimeMillis() + WAIT_MILLIS, future);
+        return future;
+    }
+
+    // #################### internal ####################################################
+
+    /**
+     * Attempt to get the shared result or acquire the lease, schedule the next attempt if neither succeeds.
+     *
+     * @param leaseManager lease manager
+     * @param name name of the lease
+     * @param sharedResult supplier of the shared result
+     * @param api api
+     * @param deadline deadline of waiting
+     * @param future future to complete
+     * @param <V> type of result
+     */
+    private static <V> void attemptAsync(
+            OAuth2LeaseManager leaseManager, String name, Supplier<V> sharedResult,
+            Supplier<CompletableFuture<V>> api, long deadline, CompletableFuture<V> future) {
+        try {
+            V result = sharedResult.get();
+            if (result != null) {
+                future.complete(result);
+                return;
+            }
+            OAuth2LeaseManager.Lease lease = leaseManager.tryAcquire(name, LEASE_MILLIS);
+            if (lease != null) {
+                CompletableFuture<V> executing;
+                try {
+                    result = sharedResult.get();
+                    executing = (result != null) ? CompletableFuture.completedFuture(result) : api.get();
+                } catch (RuntimeException e) {
+                    lease.close();
+                    throw e;
+                }
+                executing.whenComplete((value, throwable) -> {
+                    lease.close();
+                    complete(future, value, throwable);
+                });
+            } else if (System.currentTimeMillis() >= deadline) {
+                future.completeExceptionally(initWaitTimeoutException(name));
+            } else {
+                SharedScheduler.INSTANCE.schedule(
+                        () -> attemptAsync(leaseManager, name, sharedResult, api, deadline, future),
+                        POLL_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Initialize the exception for timeout of waiting for the lease holder.
+     *
+     * @param name name of the lease
+     * @return exception
+     */
+    private static OAuth2IOException initWaitTimeoutException(String name) {
+        return new OAuth2IOException(new SocketTimeoutException("Timed out waiting for lease: " + name));
+    }
+
+    /**
+     * Complete the future with the value or throwable.
+     *
+     * @param future future
+     * @param value value
+     * @param throwable throwable
+     * @param <V> type of value
+     */
+    private static <V> void complete(CompletableFuture<V> future, V value, Throwable throwable) {
+        if (throwable == null) {
+            future.complete(value);
+        } else {
+            future.completeExceptionally(FutureUtils.unwrap(throwable));
+        }
+    }
+
+    /** Shared scheduler(single daemon thread, initialized lazily). */
+    private static class SharedScheduler {
+
+        /** Shared scheduler instance. */
+        private static final ScheduledExecutorService INSTANCE = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "okauth-lease-waiter");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+    }
+
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.okauth.core.client.kernel.util;
+
+import com.github.wautsns.okauth.core.client.kernel.api.basic.OAuth2SupplierApi;
+import com.github.wautsns.okauth.core.exception.OAuth2Exception;
+import lombok.RequiredArgsConstructor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Single flight.
+ *
+ * <p>Concurrent calls with the same key share one in-flight execution: the first caller executes, the others wait
+ * for(or subscribe to) its result, and are woken as soon as it completes. A failure is propagated to all callers of
+ * the flight without retrying.
+ * <p>A successful result can be retained for a while(grace window), so that calls arriving just after the flight
+ * completes also get the result instead of executing again. Failures are never retained.
+ *
+ * @param <K> type of key
+ * @param <V> type of value
+ * @author wautsns
+ * @since Oct 17, 2026
+ */
+public class SingleFlight<K, V> {
+
+    /**
+     * Flights will be purged when the count of flights exceeds the threshold(at most once per retention millis, since
+     * no more flights can expire in between).
+     */
+    private static final int PURGE_THRESHOLD = 256;
+
+    /** Retention millis of successful results. */
+    private final long retentionMillis;
+    /** Flights. */
+    private final ConcurrentMap<K, Flight<V>> flights = new ConcurrentHashMap<>();
+    /** Timestamp before which flights will not be purged again. */
+    private final AtomicLong nextPurgeTimestamp = new AtomicLong();
+
+    /** Construct a single flight(results are not retained). */
+    public SingleFlight() {
+        this(0);
+    }
+
+    /**
+     * Construct a single flight.
+     *
+     * @param retentionMillis retention millis of successful results
+     */
+    public SingleFlight(long retentionMillis) {
+        this.retentionMillis = retentionMillis;
+    }
+
+    /**
+     * Execute the api, or wait for the in-flight execution with the same key.
+     *
+     * <p>The api is executed in the calling thread.
+     *
+     * @param key key
+     * @param api api
+     * @return value
+     * @throws OAuth2Exception if oauth2 failed
+     */
+    public V execute(K key, OAuth2SupplierApi<V> api) throws OAuth2Exception {
+        Flight<V> flight = new Flight<>(new CompletableFuture<>());
+        Flight<V> existing = join(key, flight);
+        if (existing != null) { return FutureUtils.join(existing.future); }
+        V value;
+        try {
+            value = api.execute();
+        } catch (OAuth2Exception | RuntimeException | Error e) {
+            flights.remove(key, flight);
+            flight.future.completeExceptionally(e);
+            throw e;
+        }
+        land(key, flight);
+        flight.future.complete(value);
+        return value;
+    }
+
+    /**
+     * Execute the api asynchronously, or subscribe to the in-flight execution with the same key.
+     *
+     * @param key key
+     * @param asyncApi async api
+     * @return future of value
+     */
+    public CompletableFuture<V> executeAsync(K key, Supplier<CompletableFuture<V>> asyncApi) {
+        Flight<V> flight = new Flight<>(new CompletableFuture<>());
+        Flight<V> existing = join(key, flight);
+        // Return dependent futures, so that completing or cancelling them does not affect other callers.
+        if (existing != null) { return existing.future.thenApply(Function.identity()); }
+        CompletableFuture<V> future;
+        try {
+            future = asyncApi.get();
+        } catch (RuntimeException | Error e) {
+            future = FutureUtils.failed(e);
+        }
+        future.whenComplete((value, throwable) -> {
+            if (throwable == null) {
+                land(key, flight);
+                flight.future.complete(value);
+            } else {
+                flights.remove(key, flight);
+                flight.future.completeExceptionally(FutureUtils.unwrap(throwable));
+            }
+        });
+        return flight.future.thenApply(Function.identity());
+    }
+
+    // #################### internal ####################################################
+
+    /**
+     * Register the flight, or return the existing flight(in flight or retained) with the same key.
+     *
+     * @param key key
+     * @param flight new flight
+     * @return existing flight, or {@code null} if the new flight is registered
+     */
+    private Flight<V> join(K key, Flight<V> flight) {
+        while (true) {
+            Flight<V> existing = flights.putIfAbsent(key, flight);
+            if (existing == null) {
+                if (retentionMillis > 0 && flights.size() > PURGE_THRESHOLD) { purge(); }
+                return null;
+            } else if (!existing.isExpired(System.currentTimeMillis())) {
+                return existing;
+            }
+            flights.remove(key, existing);
+        }
+    }
+
+    /**
+     * Land the successful flight(retain it or remove it).
+     *
+     * @param key key
+     * @param flight flight
+     */
+    private void land(K key, Flight<V> flight) {
+        if (retentionMillis > 0) {
+            flight.expirationTimestamp = System.currentTimeMillis() + retentionMillis;
+        } else {
+            flights.remove(key, flight);
+        }
+    }
+
+    /** Purge expired flights if the last purge is at least retention millis ago. */
+    private void purge() {
+        long now = System.currentTimeMillis();
+        long next = nextPurgeTimestamp.get();
+        if (now < next || !nextPurgeTimestamp.compareAndSet(next, now + retentionMillis)) { return; }
+        flights.values().removeIf(flight -> flight.isExpired(now));
+    }
+
+    /** Flight. */
+    @RequiredArgsConstructor
+    private static class Flight<V> {
+
+        /** Future of result. */
+        private final CompletableFuture<V> future;
+        /** Timestamp the retained result expire at({@code Long.MAX_VALUE} if in flight). */
+        private volatile long expirationTimestamp = Long.MAX_VALUE;
+
+        /**
+         * Whether the flight is expired.
+         *
+         * @param now current timestamp
+         * @return {@code true} if the flight is expired, otherwise {@code false}
+         */
+        private boolean isExpired(long now) {
+            return expirationTimestamp < now;
+        }
+
+    }
+
+}
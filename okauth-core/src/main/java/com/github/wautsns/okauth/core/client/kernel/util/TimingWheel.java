@@ -0,0 +1,211 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.okauth.core.client.kernel.util;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Hierarchical timing wheel.
+ *
+ * <p>Level {@code i} has {@code wheelSize} buckets, each spans {@code tickMillis * wheelSize^i} milliseconds. A
+ * timeout is placed in the lowest level that covers its deadline, and is cascaded to lower levels as time advances,
+ * so scheduling and cancelling are O(1) no matter how many timeouts there are. Deadlines beyond the highest level are
+ * parked in it and re-placed when their bucket is reached.
+ * <p>The wheel does not own a thread, time is advanced by {@link #advance(long)}, which returns elements whose
+ * deadline has been reached(with the precision of one tick).
+ *
+ * @param <E> type of element
+ * @author wautsns
+ * @since Oct 17, 2026
+ */
+public class TimingWheel<E> {
+
+    /** Tick millis. */
+    private final long tickMillis;
+    /** Wheel size. */
+    private final int wheelSize;
+    /** Bucket spans of each level. */
+    private final long[] spans;
+    /** Buckets(level by level). */
+    private final List<Set<Timeout<E>>> buckets;
+    /** Timeouts whose deadline has been reached. */
+    private final Set<Timeout<E>> due = new HashSet<>();
+    /** Current timestamp(aligned to tick). */
+    private long currentTimestamp;
+    /** Count of scheduled timeouts. */
+    private int size;
+
+    /**
+     * Construct a timing wheel.
+     *
+     * @param tickMillis tick millis
+     * @param wheelSize wheel size
+     * @param levels levels
+     * @param startTimestamp start timestamp
+     */
+    public TimingWheel(long tickMillis, int wheelSize, int levels, long startTimestamp) {
+        if (tickMillis <= 0 || wheelSize <= 1 || levels <= 0) {
+            throw new IllegalArgumentException("Illegal tick millis, wheel size or levels.");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.spans = new long[levels];
+        this.buckets = new ArrayList<>(levels * wheelSize);
+        for (int level = 0; level < levels; level++) {
+            spans[level] = (level == 0) ? tickMillis : Math.multiplyExact(spans[level - 1], wheelSize);
+            for (int i = 0; i < wheelSize; i++) { buckets.add(new HashSet<>()); }
+        }
+        this.currentTimestamp = startTimestamp - startTimestamp % tickMillis;
+    }
+
+    /**
+     * Schedule the element.
+     *
+     * <p>If the deadline has been reached, the element will be returned by the next {@link #advance(long)}.
+     *
+     * @param element element
+     * @param deadline deadline timestamp
+     * @return timeout
+     */
+    public synchronized Timeout<E> schedule(E element, long deadline) {
+        Timeout<E> timeout = new Timeout<>(element, deadline);
+        place(timeout);
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Cancel the timeout.
+     *
+     * @param timeout timeout
+     * @return {@code true} if the timeout was pending, otherwise {@code false}
+     */
+    public synchronized boolean cancel(Timeout<E> timeout) {
+        if (timeout == null || timeout.bucket == null) { return false; }
+        timeout.bucket.remove(timeout);
+        timeout.bucket = null;
+        size--;
+        return true;
+    }
+
+    /**
+     * Advance the wheel to the specified timestamp.
+     *
+     * @param timestamp timestamp
+     * @return elements whose deadline has been reached
+     */
+    public synchronized List<E> advance(long timestamp) {
+        List<E> elements = new ArrayList<>();
+        drain(due, elements);
+        while (currentTimestamp + tickMillis <= timestamp) {
+            currentTimestamp += tickMillis;
+            for (int level = spans.length - 1; level > 0; level--) {
+                if (currentTimestamp % spans[level] != 0) { continue; }
+                Set<Timeout<E>> bucket = bucket(level, currentTimestamp);
+                List<Timeout<E>> cascaded = new ArrayList<>(bucket);
+                bucket.clear();
+                cascaded.forEach(this::place);
+            }
+            drain(bucket(0, currentTimestamp), elements);
+            drain(due, elements);
+        }
+        return elements;
+    }
+
+    /**
+     * Get count of scheduled timeouts.
+     *
+     * @return count of scheduled timeouts
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    // #################### internal ####################################################
+
+    /**
+     * Place the timeout in the bucket covering its deadline.
+     *
+     * @param timeout timeout
+     */
+    private void place(Timeout<E> timeout) {
+        long deadline = timeout.deadline;
+        Set<Timeout<E>> bucket;
+        if (deadline < currentTimestamp + tickMillis) {
+            bucket = due;
+        } else {
+            int level = 0;
+            while (level < spans.length - 1 && deadline >= currentTimestamp + spans[level] * wheelSize) { level++; }
+            long limit = currentTimestamp + spans[level] * wheelSize - 1;
+            bucket = bucket(level, Math.min(deadline, limit));
+        }
+        bucket.add(timeout);
+        timeout.bucket = bucket;
+    }
+
+    /**
+     * Get the bucket of the level covering the timestamp.
+     *
+     * @param level level
+     * @param timestamp timestamp
+     * @return bucket
+     */
+    private Set<Timeout<E>> bucket(int level, long timestamp) {
+        return buckets.get(level * wheelSize + (int) ((timestamp / spans[level]) % wheelSize));
+    }
+
+    /**
+     * Drain elements of the bucket.
+     *
+     * @param bucket bucket
+     * @param elements elements
+     */
+    private void drain(Set<Timeout<E>> bucket, List<E> elements) {
+        for (Timeout<E> timeout : bucket) {
+            timeout.bucket = null;
+            elements.add(timeout.element);
+        }
+        size -= bucket.size();
+        bucket.clear();
+    }
+
+    /**
+     * Timeout.
+     *
+     * @param <E> type of element
+     */
+    @Getter
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    public static final class Timeout<E> {
+
+        /** Element. */
+        private final E element;
+        /** Deadline timestamp. */
+        private final long deadline;
+        /** Bucket the timeout is in({@code null} if expired or cancelled). */
+        @Getter(AccessLevel.NONE)
+        private Set<Timeout<E>> bucket;
+
+    }
+
+}
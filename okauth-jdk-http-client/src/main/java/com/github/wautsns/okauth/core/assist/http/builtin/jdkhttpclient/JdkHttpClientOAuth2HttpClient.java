@@ -0,0 +1,214 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.okauth.core.assist.http.builtin.jdkhttpclient;
+
+import com.github.wautsns.okauth.core.assist.http.kernel.OAuth2HttpClient;
+import com.github.wautsns.okauth.core.assist.http.kernel.model.OAuth2HttpRequest;
+import com.github.wautsns.okauth.core.assist.http.kernel.model.OAuth2HttpResponse;
+import com.github.wautsns.okauth.core.assist.http.kernel.model.basic.entity.OAuth2HttpEntity;
+import com.github.wautsns.okauth.core.assist.http.kernel.properties.OAuth2HttpClientProperties;
+import com.github.wautsns.okauth.core.client.kernel.util.FutureUtils;
+import com.github.wautsns.okauth.core.exception.OAuth2IOException;
+import lombok.Getter;
+
+import javax.net.ssl.SSLException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+/**
+ * JDK http client(java.net.http) oauth2 http client.
+ *
+ * <p>Requests are sent over HTTP/2 if the server supports it(concurrent exchanges to the same host are multiplexed
+ * over a few connections), otherwise HTTP/1.1 is used.
+ * <p>Mapping of {@linkplain OAuth2HttpClientProperties properties}:
+ * <ul>
+ * <li>connectTimeout: connect timeout of the client.</li>
+ * <li>readTimeout: timeout of each request(until the response headers are received).</li>
+ * <li>retryTimes: retry times of requests without entity, if IO exception occurs.</li>
+ * <li>proxy: proxy of the client.</li>
+ * <li>maxConcurrentRequests: not supported, concurrent streams of a HTTP/2 connection are limited by the server.</li>
+ * <li>maxIdleTime, keepAliveTimeout: not supported, the JDK http client only supports system property
+ * {@code jdk.httpclient.keepalive.timeout}.</li>
+ * </ul>
+ *
+ * @author wautsns
+ * @since Oct 17, 2026
+ */
+@Getter
+public class JdkHttpClientOAuth2HttpClient implements OAuth2HttpClient {
+
+    /** Original http client. */
+    protected final HttpClient origin;
+    /** Read timeout. */
+    protected final Duration readTimeout;
+    /** Retry times. */
+    protected final int retryTimes;
+
+    /** Construct a default {@code JdkHttpClientOAuth2HttpClient}. */
+    public JdkHttpClientOAuth2HttpClient() {
+        this(OAuth2HttpClientProperties.initDefault());
+    }
+
+    /**
+     * Construct a {@code JdkHttpClientOAuth2HttpClient}.
+     *
+     * @param props oauth2 http client properties
+     */
+    public JdkHttpClientOAuth2HttpClient(OAuth2HttpClientProperties props) {
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL);
+        // ==================== connect timeout =============================================
+        Duration connectTimeout = props.getConnectTimeout();
+        if (connectTimeout != null) { builder.connectTimeout(connectTimeout); }
+        // ==================== proxy =======================================================
+        String proxy = props.getProxy();
+        if (proxy != null) { builder.proxy(initProxySelector(proxy)); }
+        // ==================== build http client ===========================================
+        this.origin = buildOriginHttpClient(builder, props);
+        // ==================== request config ==============================================
+        this.readTimeout = props.getReadTimeout();
+        this.retryTimes = (props.getRetryTimes() == null) ? 0 : props.getRetryTimes();
+    }
+
+    /**
+     * Build original http client.
+     *
+     * @param builder jdk http client builder
+     * @param props oauth2 http client properties
+     * @return original http client
+     */
+    protected HttpClient buildOriginHttpClient(HttpClient.Builder builder, OAuth2HttpClientProperties props) {
+        return builder.build();
+    }
+
+    @Override
+    public OAuth2HttpResponse execute(OAuth2HttpRequest request) throws OAuth2IOException {
+        try {
+            return executeAsync(request).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OAuth2IOException(new InterruptedIOException(e.getMessage()));
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof OAuth2IOException) { throw (OAuth2IOException) cause; }
+            if (cause instanceof RuntimeException) { throw (RuntimeException) cause; }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    @Override
+    public CompletableFuture<OAuth2HttpResponse> executeAsync(OAuth2HttpRequest request) {
+        HttpRequest originalHttpRequest;
+        try {
+            originalHttpRequest = initOriginalHttpRequest(request);
+        } catch (RuntimeException e) {
+            return FutureUtils.failed(e);
+        }
+        boolean retryable = RETRYABLE_METHODS.contains(request.getMethod());
+        return executeOriginalHttpRequest(originalHttpRequest, retryable ? retryTimes : 0);
+    }
+
+    // #################### internal ####################################################
+
+    /** Methods without entity, which can be retried safely. */
+    private static final Set<OAuth2HttpRequest.Method> RETRYABLE_METHODS = EnumSet.of(
+            OAuth2HttpRequest.Method.GET, OAuth2HttpRequest.Method.DELETE, OAuth2HttpRequest.Method.HEAD,
+            OAuth2HttpRequest.Method.OPTIONS, OAuth2HttpRequest.Method.TRACE);
+    /** The IOException types that should not be retried. */
+    private static final List<Class<? extends IOException>> EXCEPTIONS_NOT_RETRIED = Arrays.asList(
+            InterruptedIOException.class,
+            HttpTimeoutException.class,
+            UnknownHostException.class,
+            ConnectException.class,
+            SSLException.class);
+
+    /**
+     * Initialize proxy selector.
+     *
+     * @param proxy proxy([SCHEME://]IP[:PORT])
+     * @return proxy selector
+     */
+    private static ProxySelector initProxySelector(String proxy) {
+        URI uri = URI.create(proxy.contains("://") ? proxy : ("http://" + proxy));
+        int port = uri.getPort();
+        if (port == -1) { port = "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80; }
+        return ProxySelector.of(InetSocketAddress.createUnresolved(uri.getHost(), port));
+    }
+
+    /**
+     * Initialize original http request.
+     *
+     * @param request oauth2 http request
+     * @return original http request
+     */
+    private HttpRequest initOriginalHttpRequest(OAuth2HttpRequest request) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(request.getUrl().toString()));
+        if (readTimeout != null) { builder.timeout(readTimeout); }
+        // Some open platforms will response 403, if not disguised as a browser.
+        builder.setHeader("User-Agent", "Chrome/83.0.4103.61");
+        request.forEachHeader(builder::header);
+        OAuth2HttpEntity entity = request.getEntity();
+        HttpRequest.BodyPublisher bodyPublisher = (entity == null)
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofByteArray(entity.toBytes());
+        return builder.method(request.getMethod().name(), bodyPublisher).build();
+    }
+
+    /**
+     * Execute original http request.
+     *
+     * @param request original http request
+     * @param remainingRetryTimes remaining retry times
+     * @return future of oauth2 http response
+     */
+    private CompletableFuture<OAuth2HttpResponse> executeOriginalHttpRequest(
+            HttpRequest request, int remainingRetryTimes) {
+        return origin.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream())
+                .handle((response, throwable) -> {
+                    if (throwable == null) {
+                        return CompletableFuture.<OAuth2HttpResponse>completedFuture(
+                                new JdkHttpClientOAuth2HttpResponse(response));
+                    }
+                    Throwable cause = FutureUtils.unwrap(throwable);
+                    if (!(cause instanceof IOException)) { return FutureUtils.<OAuth2HttpResponse>failed(cause); }
+                    IOException e = (IOException) cause;
+                    if (remainingRetryTimes > 0 && EXCEPTIONS_NOT_RETRIED.stream().noneMatch(c -> c.isInstance(e))) {
+                        return executeOriginalHttpRequest(request, remainingRetryTimes - 1);
+                    }
+                    return FutureUtils.<OAuth2HttpResponse>failed(new OAuth2IOException(e));
+                })
+                .thenCompose(Function.identity());
+    }
+
+}
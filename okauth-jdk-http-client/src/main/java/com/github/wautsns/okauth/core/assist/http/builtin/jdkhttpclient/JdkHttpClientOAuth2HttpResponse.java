@@ -0,0 +1,68 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.okauth.core.assist.http.builtin.jdkhttpclient;
+
+import com.github.wautsns.okauth.core.assist.http.kernel.model.OAuth2HttpResponse;
+import com.github.wautsns.okauth.core.exception.OAuth2IOException;
+import lombok.RequiredArgsConstructor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpResponse;
+import java.util.List;
+
+/**
+ * JDK http client(java.net.http) oauth2 http response.
+ *
+ * @author wautsns
+ * @since Oct 17, 2026
+ */
+@RequiredArgsConstructor
+public class JdkHttpClientOAuth2HttpResponse implements OAuth2HttpResponse {
+
+    /** Original http response. */
+    private final HttpResponse<InputStream> origin;
+
+    @Override
+    public int getStatus() {
+        return origin.statusCode();
+    }
+
+    @Override
+    public String getHeader(String name) {
+        return origin.headers().firstValue(name).orElse(null);
+    }
+
+    @Override
+    public List<String> getHeaders(String name) {
+        return origin.headers().allValues(name);
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return origin.body();
+    }
+
+    @Override
+    public void close() throws OAuth2IOException {
+        try {
+            origin.body().close();
+        } catch (IOException e) {
+            throw new OAuth2IOException(e);
+        }
+    }
+
+}
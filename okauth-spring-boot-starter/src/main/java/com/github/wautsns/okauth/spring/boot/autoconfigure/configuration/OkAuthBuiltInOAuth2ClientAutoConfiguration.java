@@ -16,6 +16,8 @@
 package com.github.wautsns.okauth.spring.boot.autoconfigure.configuration;
 
 import com.github.wautsns.okauth.core.assist.http.kernel.OAuth2HttpClient;
+import com.github.wautsns.okauth.core.assist.http.metrics.OAuth2HttpMetricsRecorder;
+import com.github.wautsns.okauth.core.client.builtin.BuiltInOpenPlatformNames;
 import com.github.wautsns.okauth.core.client.builtin.baidu.BaiduOAuth2AppInfo;
 import com.github.wautsns.okauth.core.client.builtin.baidu.BaiduOAuth2Client;
 import com.github.wautsns.okauth.core.client.builtin.dingtalk.DingTalkOAuth2AppInfo;
@@ -35,12 +37,14 @@ import com.github.wautsns.okauth.core.client.builtin.wechatofficialaccount.Wecha
 import com.github.wautsns.okauth.core.client.builtin.wechatworkcorp.WechatWorkCorpOAuth2AppInfo;
 import com.github.wautsns.okauth.core.client.builtin.wechatworkcorp.WechatWorkCorpOAuth2Client;
 import com.github.wautsns.okauth.core.client.builtin.wechatworkcorp.service.tokencache.WechatWorkCorpTokenCache;
-import com.github.wautsns.okauth.core.client.builtin.wechatworkcorp.service.tokencache.builtin.WechatWorkCorpTokenLocalCache;
+import com.github.wautsns.okauth.core.client.builtin.wechatworkcorp.service.tokencache.builtin.WechatWorkCorpTokenRefreshAheadCache;
 import com.github.wautsns.okauth.core.client.kernel.TokenRefreshableOAuth2Client;
 import com.github.wautsns.okauth.spring.boot.autoconfigure.configuration.condition.ConditionalOnOkAuthEnabled;
 import com.github.wautsns.okauth.spring.boot.autoconfigure.properties.OkAuthAppsInfoProperties;
+import com.github.wautsns.okauth.spring.boot.autoconfigure.properties.OkAuthHttpClientProperties;
 import com.github.wautsns.okauth.spring.boot.autoconfigure.properties.OkAuthProperties;
 import com.github.wautsns.okauth.spring.boot.autoconfigure.util.OkAuthAutoConfigureUtils;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -49,6 +53,8 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.function.Supplier;
+
 /**
  * OkAuth built-in oauth2 client auto-configuration.
  *
@@ -61,6 +67,36 @@ import org.springframework.context.annotation.Configuration;
 @AutoConfigureAfter(OkAuthCommonComponentAutoConfiguration.class)
 public class OkAuthBuiltInOAuth2ClientAutoConfiguration {
 
+    /** OAuth2 http metrics recorder(nullable). */
+    private final OAuth2HttpMetricsRecorder metricsRecorder;
+    /** Default http client properties. */
+    private final OkAuthHttpClientProperties defaultHttpClientProps;
+    /**
+     * Supplier of shared oauth2 http client(nullable).
+     *
+     * <p>If {@code okauth.share-default-http-client} is {@code true}, apps without their own http client properties
+     * share one http client(that is, one connection pool and one idle connection evictor), which is initialized on
+     * first use.
+     */
+    private final Supplier<OAuth2HttpClient> sharedHttpClient;
+    /** Shared oauth2 http client(initialized lazily). */
+    private volatile OAuth2HttpClient sharedHttpClientInstance;
+
+    /**
+     * Construct OkAuth built-in oauth2 client auto-configuration.
+     *
+     * @param okauthProps okauth properties
+     * @param metricsRecorder provider of oauth2 http metrics recorder
+     */
+    public OkAuthBuiltInOAuth2ClientAutoConfiguration(
+            OkAuthProperties okauthProps, ObjectProvider<OAuth2HttpMetricsRecorder> metricsRecorder) {
+        this.metricsRecorder = metricsRecorder.getIfAvailable();
+        this.defaultHttpClientProps = okauthProps.getDefaultHttpClient();
+        this.sharedHttpClient = Boolean.TRUE.equals(okauthProps.getShareDefaultHttpClient())
+                ? this::getSharedHttpClient
+                : null;
+    }
+
     // #################### Baidu #######################################################
 
     @Bean
@@ -71,7 +107,8 @@ public class OkAuthBuiltInOAuth2ClientAutoConfiguration {
             TokenRefreshableOAuth2Client.TokenRefreshCallback tokenRefreshCallback) {
         OkAuthAppsInfoProperties.OkAuthBaiduAppInfo baidu = okauthProps.getAppsInfo().getBaidu();
         BaiduOAuth2AppInfo appInfo = baidu.getAppInfo();
-        OAuth2HttpClient httpClient = OkAuthAutoConfigureUtils.initOAuth2HttpClient(okauthProps, baidu);
+        OAuth2HttpClient httpClient = OkAuthAutoConfigureUtils.initOAuth2HttpClient(
+                okauthProps, baidu, BuiltInOpenPlatformNames.BAIDU, metricsRecorder, sharedHttpClient);
         return new BaiduOAuth2Client(appInfo, httpClient, tokenRefreshCallback);
     }
 
@@ -83,7 +120,8 @@ public class OkAuthBuiltInOAuth2ClientAutoConfiguration {
     public DingTalkOAuth2Client dingTalkOAuth2Client(OkAuthProperties okauthProps) {
         OkAuthAppsInfoProperties.OkAuthDingTalkAppInfo dingTalk = okauthProps.getAppsInfo().getDingTalk();
         DingTalkOAuth2AppInfo appInfo = dingTalk.getAppInfo();
-        OAuth2HttpClient httpClient = OkAuthAutoConfigureUtils.initOAuth2HttpClient(okauthProps, dingTalk);
+        OAuth2HttpClient httpClient = OkAuthAutoConfigureUtils.initOAuth2HttpClient(
+                okauthProps, dingTalk, BuiltInOpenPlatformNames.DING_TALK, metricsRecorder, sharedHttpClient);
         return new DingTalkOAuth2Client(appInfo, httpClient);
     }
 
@@ -97,7 +135,8 @@ public class OkAuthBuiltInOAuth2ClientAutoConfiguration {
             TokenRefreshableOAuth2Client.TokenRefreshCallback tokenRefreshCallback) {
         OkAuthAppsInfoProperties.OkAuthElemeShopIsvAppInfo elemeShopIsv = okauthProps.getAppsInfo().getElemeShopIsv();
         ElemeShopIsvOAuth2AppInfo appInfo = elemeShopIsv.getAppInfo();
-        OAuth2HttpClient httpClient = OkAuthAutoConfigureUtils.initOAuth2HttpClient(okauthProps, elemeShopIsv);
+        OAuth2HttpClient httpClient = OkAuthAutoConfigureUtils.initOAuth2HttpClient(
+                okauthProps, elemeShopIsv, BuiltInOpenPlatformNames.ELEME_SHOP_ISV, metricsRecorder, sharedHttpClient);
         return new ElemeShopIsvOAuth2Client(appInfo, httpClient, tokenRefreshCallback);
     }
 
@@ -111,7 +150,8 @@ public class OkAuthBuiltInOAuth2ClientAutoConfiguration {
             TokenRefreshableOAuth2Client.TokenRefreshCallback tokenRefreshCallback) {
         OkAuthAppsInfoProperties.OkAuthGiteeAppInfo gitee = okauthProps.getAppsInfo().getGitee();
         GiteeOAuth2AppInfo appInfo = gitee.getAppInfo();
-        OAuth2HttpClient httpClient = OkAuthAutoConfigureUtils.initOAuth2HttpClient(okauthProps, gitee);
+        OAuth2HttpClient httpClient = OkAuthAutoConfigureUtils.initOAuth2HttpClient(
+                okauthProps, gitee, BuiltInOpenPlatformNames.GITEE, metricsRecorder, sharedHttpClient);
         return new GiteeOAuth2Client(appInfo, httpClient, tokenRefreshCallback);
     }
 
@@ -123,7 +163,8 @@ public class OkAuthBuiltInOAuth2ClientAutoConfiguration {
     public GitHubOAuth2Client gitHubOAuth2Client(OkAuthProperties okauthProps) {
         OkAuthAppsInfoProperties.OkAuthGitHubAppInfo github = okauthProps.getAppsInfo().getGithub();
         GitHubOAuth2AppInfo appInfo = github.getAppInfo();
-        OAuth2HttpClient httpClient = OkAuthAutoConfigureUtils.initOAuth2HttpClient(okauthProps, github);
+        OAuth2HttpClient httpClient = OkAuthAutoConfigureUtils.initOAuth2HttpClient(
+                okauthProps, github, BuiltInOpenPlatformNames.GITHUB, metricsRecorder, sharedHttpClient);
         return new GitHubOAuth2Client(appInfo, httpClient);
     }
 
@@ -137,7 +178,8 @@ public class OkAuthBuiltInOAuth2ClientAutoConfiguration {
             TokenRefreshableOAuth2Client.TokenRefreshCallback tokenRefreshCallback) {
         OkAuthAppsInfoProperties.OkAuthOSChinaAppInfo oschina = okauthProps.getAppsInfo().getOschina();
         OSChinaOAuth2AppInfo appInfo = oschina.getAppInfo();
-        OAuth2HttpClient httpClient = OkAuthAutoConfigureUtils.initOAuth2HttpClient(okauthProps, oschina);
+        OAuth2HttpClient httpClient = OkAuthAutoConfigureUtils.initOAuth2HttpClient(
+                okauthProps, oschina, BuiltInOpenPlatformNames.OSCHINA, metricsRecorder, sharedHttpClient);
         return new OSChinaOAuth2Client(appInfo, httpClient, tokenRefreshCallback);
     }
 
@@ -151,7 +193,8 @@ public class OkAuthBuiltInOAuth2ClientAutoConfiguration {
             TokenRefreshableOAuth2Client.TokenRefreshCallback tokenRefreshCallback) {
         OkAuthAppsInfoProperties.OkAuthTikTokAppInfo tikTok = okauthProps.getAppsInfo().getTikTok();
         TikTokOAuth2AppInfo appInfo = tikTok.getAppInfo();
-        OAuth2HttpClient httpClient = OkAuthAutoConfigureUtils.initOAuth2HttpClient(okauthProps, tikTok);
+        OAuth2HttpClient httpClient = OkAuthAutoConfigureUtils.initOAuth2HttpClient(
+                okauthProps, tikTok, BuiltInOpenPlatformNames.TIK_TOK, metricsRecorder, sharedHttpClient);
         return new TikTokOAuth2Client(appInfo, httpClient, tokenRefreshCallback);
     }
 
@@ -166,7 +209,9 @@ public class OkAuthBuiltInOAuth2ClientAutoConfiguration {
         OkAuthAppsInfoProperties.OkAuthWechatOfficialAccountAppInfo wechatOfficialAccount
                 = okauthProps.getAppsInfo().getWechatOfficialAccount();
         WechatOfficialAccountOAuth2AppInfo appInfo = wechatOfficialAccount.getAppInfo();
-        OAuth2HttpClient httpClient = OkAuthAutoConfigureUtils.initOAuth2HttpClient(okauthProps, wechatOfficialAccount);
+        OAuth2HttpClient httpClient = OkAuthAutoConfigureUtils.initOAuth2HttpClient(
+                okauthProps, wechatOfficialAccount,
+                BuiltInOpenPlatformNames.WECHAT_OFFICIAL_ACCOUNT, metricsRecorder, sharedHttpClient);
         return new WechatOfficialAccountOAuth2Client(appInfo, httpClient, tokenRefreshCallback);
     }
 
@@ -181,7 +226,9 @@ public class OkAuthBuiltInOAuth2ClientAutoConfiguration {
         OkAuthAppsInfoProperties.OkAuthWechatWorkCorpAppInfo wechatWorkCorp
                 = okauthProps.getAppsInfo().getWechatWorkCorp();
         WechatWorkCorpOAuth2AppInfo appInfo = wechatWorkCorp.getAppInfo();
-        OAuth2HttpClient httpClient = OkAuthAutoConfigureUtils.initOAuth2HttpClient(okauthProps, wechatWorkCorp);
+        OAuth2HttpClient httpClient = OkAuthAutoConfigureUtils.initOAuth2HttpClient(
+                okauthProps, wechatWorkCorp,
+                BuiltInOpenPlatformNames.WECHAT_WORK_CORP, metricsRecorder, sharedHttpClient);
         return new WechatWorkCorpOAuth2Client(appInfo, httpClient, tokenCache);
     }
 
@@ -189,7 +236,25 @@ public class OkAuthBuiltInOAuth2ClientAutoConfiguration {
     @ConditionalOnMissingBean
     @ConditionalOnBean(WechatWorkCorpOAuth2Client.class)
     public WechatWorkCorpTokenCache wechatWorkCorpTokenCache() {
-        return WechatWorkCorpTokenLocalCache.INSTANCE;
+        return new WechatWorkCorpTokenRefreshAheadCache();
+    }
+
+    // #################### internal ####################################################
+
+    /**
+     * Get shared oauth2 http client, initialize it if absent.
+     *
+     * @return shared oauth2 http client
+     */
+    private OAuth2HttpClient getSharedHttpClient() {
+        OAuth2HttpClient httpClient = sharedHttpClientInstance;
+        if (httpClient != null) { return httpClient; }
+        synchronized (this) {
+            if (sharedHttpClientInstance == null) {
+                sharedHttpClientInstance = OkAuthAutoConfigureUtils.initOAuth2HttpClient(defaultHttpClientProps);
+            }
+            return sharedHttpClientInstance;
+        }
     }
 
 }
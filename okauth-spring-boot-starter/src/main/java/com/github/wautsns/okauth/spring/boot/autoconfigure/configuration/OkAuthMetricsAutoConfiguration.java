@@ -0,0 +1,51 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.okauth.spring.boot.autoconfigure.configuration;
+
+import com.github.wautsns.okauth.core.assist.http.metrics.OAuth2HttpMetricsRecorder;
+import com.github.wautsns.okauth.spring.boot.autoconfigure.configuration.condition.ConditionalOnOkAuthEnabled;
+import com.github.wautsns.okauth.spring.boot.autoconfigure.metrics.MicrometerOAuth2HttpMetricsRecorder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * OkAuth metrics auto configuration.
+ *
+ * <p>If Micrometer is on the classpath, http clients of built-in oauth2 clients will be instrumented and record
+ * metrics to the meter registry(or the global registry if there is no meter registry bean).
+ *
+ * @author wautsns
+ * @since Oct 17, 2026
+ */
+@Configuration
+@ConditionalOnOkAuthEnabled
+@ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+@ConditionalOnProperty(value = "okauth.metrics.enabled", matchIfMissing = true)
+public class OkAuthMetricsAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public OAuth2HttpMetricsRecorder oauth2HttpMetricsRecorder(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new MicrometerOAuth2HttpMetricsRecorder(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+}
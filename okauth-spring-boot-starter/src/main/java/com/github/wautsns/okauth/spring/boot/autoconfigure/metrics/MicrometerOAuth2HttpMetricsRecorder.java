@@ -0,0 +1,107 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.wautsns.okauth.spring.boot.autoconfigure.metrics;
+
+import com.github.wautsns.okauth.core.assist.http.metrics.OAuth2HttpMetricsRecorder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OAuth2 http metrics recorder based on Micrometer.
+ *
+ * <p>Meters:
+ * <ul>
+ * <li>{@code okauth.http.client.requests}(timer): tags are platform, endpoint, status and exception.</li>
+ * <li>{@code okauth.http.client.request.size}(summary, bytes): tags are platform and endpoint.</li>
+ * <li>{@code okauth.http.client.response.size}(summary, bytes): tags are platform and endpoint.</li>
+ * <li>{@code okauth.errors}(counter): tags are platform and code.</li>
+ * <li>{@code okauth.http.client.connection.lease}(timer): tags are route and result({@code leased} or
+ * {@code timeout}).</li>
+ * </ul>
+ *
+ * @author wautsns
+ * @since Oct 17, 2026
+ */
+@RequiredArgsConstructor
+public class MicrometerOAuth2HttpMetricsRecorder implements OAuth2HttpMetricsRecorder {
+
+    /** Meter registry. */
+    private final MeterRegistry registry;
+
+    @Override
+    public void recordResponse(String openPlatform, String endpoint, int status, long latencyNanos, long requestBytes) {
+        Timer.builder("okauth.http.client.requests")
+                .tag("platform", openPlatform)
+                .tag("endpoint", endpoint)
+                .tag("status", String.valueOf(status))
+                .tag("exception", "None")
+                .register(registry)
+                .record(latencyNanos, TimeUnit.NANOSECONDS);
+        if (requestBytes < 0) { return; }
+        DistributionSummary.builder("okauth.http.client.request.size")
+                .baseUnit("bytes")
+                .tag("platform", openPlatform)
+                .tag("endpoint", endpoint)
+                .register(registry)
+                .record(requestBytes);
+    }
+
+    @Override
+    public void recordResponseBytes(String openPlatform, String endpoint, long responseBytes) {
+        DistributionSummary.builder("okauth.http.client.response.size")
+                .baseUnit("bytes")
+                .tag("platform", openPlatform)
+                .tag("endpoint", endpoint)
+                .register(registry)
+                .record(responseBytes);
+    }
+
+    @Override
+    public void recordFailure(String openPlatform, String endpoint, long latencyNanos, Throwable cause) {
+        Throwable exception = (cause.getCause() != null) ? cause.getCause() : cause;
+        Timer.builder("okauth.http.client.requests")
+                .tag("platform", openPlatform)
+                .tag("endpoint", endpoint)
+                .tag("status", "CLIENT_ERROR")
+                .tag("exception", exception.getClass().getSimpleName())
+                .register(registry)
+                .record(latencyNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordError(String openPlatform, String errorCode) {
+        Counter.builder("okauth.errors")
+                .tag("platform", openPlatform)
+                .tag("code", String.valueOf(errorCode))
+                .register(registry)
+                .increment();
+    }
+
+    @Override
+    public void recordConnectionLease(String route, long waitNanos, boolean leased) {
+        Timer.builder("okauth.http.client.connection.lease")
+                .tag("route", route)
+                .tag("result", leased ? "leased" : "timeout")
+                .register(registry)
+                .record(waitNanos, TimeUnit.NANOSECONDS);
+    }
+
+}
@@ -40,6 +40,11 @@ public class OkAuthProperties {
     private final OkAuthHttpClientProperties defaultHttpClient = new OkAuthHttpClientProperties()
             .setImplementation(HttpClient4OAuth2HttpClient.class)
             .setProperties(OAuth2HttpClientProperties.initDefault());
+    /**
+     * Whether apps without their own http client properties share one http client initialized by the default http
+     * client properties(default {@code false}, that is, each app has its own http client).
+     */
+    private Boolean shareDefaultHttpClient;
     /** Apps info properties. */
     @NestedConfigurationProperty
     private OkAuthAppsInfoProperties appsInfo;
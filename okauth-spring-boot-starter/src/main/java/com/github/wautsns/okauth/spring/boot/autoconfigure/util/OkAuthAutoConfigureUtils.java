@@ -17,6 +17,8 @@ package com.github.wautsns.okauth.spring.boot.autoconfigure.util;
 
 import com.github.wautsns.okauth.core.assist.http.kernel.OAuth2HttpClient;
 import com.github.wautsns.okauth.core.assist.http.kernel.properties.OAuth2HttpClientProperties;
+import com.github.wautsns.okauth.core.assist.http.metrics.InstrumentedOAuth2HttpClient;
+import com.github.wautsns.okauth.core.assist.http.metrics.OAuth2HttpMetricsRecorder;
 import com.github.wautsns.okauth.spring.boot.autoconfigure.properties.OkAuthAppsInfoProperties;
 import com.github.wautsns.okauth.spring.boot.autoconfigure.properties.OkAuthHttpClientProperties;
 import com.github.wautsns.okauth.spring.boot.autoconfigure.properties.OkAuthProperties;
@@ -25,6 +27,8 @@ import lombok.experimental.UtilityClass;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Modifier;
 import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  * OkAuth auto-configure utils.
@@ -35,6 +39,44 @@ import java.util.Arrays;
 @UtilityClass
 public class OkAuthAutoConfigureUtils {
 
+    /**
+     * Initialize oauth2 http client.
+     *
+     * @param okauthProps okauth properties
+     * @param okauthAppInfoProps okauth app info properties
+     * @param openPlatform open platform
+     * @param metricsRecorder oauth2 http metrics recorder, the http client will not be instrumented if it is null
+     * @return oauth2 http client
+     */
+    public static OAuth2HttpClient initOAuth2HttpClient(
+            OkAuthProperties okauthProps, OkAuthAppsInfoProperties.OkAuthAppInfo okauthAppInfoProps,
+            String openPlatform, OAuth2HttpMetricsRecorder metricsRecorder) {
+        return initOAuth2HttpClient(okauthProps, okauthAppInfoProps, openPlatform, metricsRecorder, null);
+    }
+
+    /**
+     * Initialize oauth2 http client.
+     *
+     * @param okauthProps okauth properties
+     * @param okauthAppInfoProps okauth app info properties
+     * @param openPlatform open platform
+     * @param metricsRecorder oauth2 http metrics recorder, the http client will not be instrumented if it is null
+     * @param sharedHttpClient supplier of shared oauth2 http client(nullable), used if present and the app has no http
+     * client properties
+     * @return oauth2 http client
+     */
+    public static OAuth2HttpClient initOAuth2HttpClient(
+            OkAuthProperties okauthProps, OkAuthAppsInfoProperties.OkAuthAppInfo okauthAppInfoProps,
+            String openPlatform, OAuth2HttpMetricsRecorder metricsRecorder,
+            Supplier<OAuth2HttpClient> sharedHttpClient) {
+        OAuth2HttpClient httpClient = (sharedHttpClient != null && okauthAppInfoProps.getHttpClient() == null)
+                ? sharedHttpClient.get()
+                : initOAuth2HttpClient(okauthProps, okauthAppInfoProps);
+        if (metricsRecorder == null) { return httpClient; }
+        httpClient.bindMetricsRecorder(metricsRecorder);
+        return new InstrumentedOAuth2HttpClient(httpClient, openPlatform, metricsRecorder);
+    }
+
     /**
      * Initialize oauth2 http client.
      *
@@ -44,8 +86,17 @@ public class OkAuthAutoConfigureUtils {
      */
     public static OAuth2HttpClient initOAuth2HttpClient(
             OkAuthProperties okauthProps, OkAuthAppsInfoProperties.OkAuthAppInfo okauthAppInfoProps) {
-        OkAuthHttpClientProperties okauthHttpClientProps = fillNullProperties(
-                okauthAppInfoProps.getHttpClient(), okauthProps.getDefaultHttpClient());
+        return initOAuth2HttpClient(fillNullProperties(
+                okauthAppInfoProps.getHttpClient(), okauthProps.getDefaultHttpClient()));
+    }
+
+    /**
+     * Initialize oauth2 http client.
+     *
+     * @param okauthHttpClientProps okauth http client properties
+     * @return oauth2 http client
+     */
+    public static OAuth2HttpClient initOAuth2HttpClient(OkAuthHttpClientProperties okauthHttpClientProps) {
         try {
             Constructor<? extends OAuth2HttpClient> constructor = okauthHttpClientProps
                     .getImplementation()
@@ -78,8 +129,10 @@ public class OkAuthAutoConfigureUtils {
                         field.setAccessible(true);
                         Class<?> type = field.getType();
                         Object value;
-                        if (type.isPrimitive() || Modifier.isFinal(type.getModifiers())) {
-                            value = field.get(source);
+                        if (type.isPrimitive() || Modifier.isFinal(type.getModifiers())
+                                || Map.class.isAssignableFrom(type)) {
+                            Object targetValue = field.get(target);
+                            value = (targetValue != null) ? targetValue : field.get(source);
                         } else {
                             value = fillNullProperties(field.get(target), field.get(source));
                         }